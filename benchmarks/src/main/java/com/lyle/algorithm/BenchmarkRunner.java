@@ -0,0 +1,37 @@
+package com.lyle.algorithm;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar 的入口，参数与 JMH 命令行相同，例如：
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar                      全部
+ *     java -jar benchmarks/target/benchmarks.jar SortBenchmark -p size=100000
+ *     java -jar benchmarks/target/benchmarks.jar -rf json -rff result.json   结果存为 json，便于前后对比
+ * </pre>
+ * 与 org.openjdk.jmh.Main 的区别是默认带上 gc profiler，吞吐量旁边同时输出分配速率（gc.alloc.rate.norm 等）
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        boolean hasGcProfiler = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()));
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (!hasGcProfiler) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.lyle.algorithm.heap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 二叉堆 IntMinHeap 与 d 叉堆 IntDaryMinHeap(4/8) 的 pop
+ * <p>
+ * 每次调用 pop 一个再 push 一个随机值，堆的大小不变。pop 把末尾元素从堆顶下沉到叶子，
+ * 比较次数 d 叉堆更多，但层数只有二叉堆的 1/log2(d)，每层的兄弟节点在同一条 cache line 内。
+ * 堆远大于缓存时（10000000 个 int 即 40MB）每层都可能 cache miss，用来看少掉的 miss 能否抵过多出的比较
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "1000000", "10000000"})
+    int size;
+
+    IntMinHeap binary;
+    IntDaryMinHeap dary4;
+    IntDaryMinHeap dary8;
+    int[] pushes;//pop 之后 push 的值
+    int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int[] values = random.ints(size).toArray();
+        binary = IntMinHeap.heapify(values);
+        dary4 = IntDaryMinHeap.heapify(values, 4);
+        dary8 = IntDaryMinHeap.heapify(values, 8);
+        pushes = random.ints(PROBES).toArray();
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (PROBES - 1);
+    }
+
+    @Benchmark
+    public int binaryPopPush() {
+        int top = binary.pop();
+        binary.push(pushes[next()]);
+        return top;
+    }
+
+    @Benchmark
+    public int dary4PopPush() {
+        int top = dary4.pop();
+        dary4.push(pushes[next()]);
+        return top;
+    }
+
+    @Benchmark
+    public int dary8PopPush() {
+        int top = dary8.pop();
+        dary8.push(pushes[next()]);
+        return top;
+    }
+}
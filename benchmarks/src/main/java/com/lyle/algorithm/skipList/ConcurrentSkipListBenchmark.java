@@ -0,0 +1,120 @@
+package com.lyle.algorithm.skipList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程共享一个跳表时的只读吞吐量，1/2/4/8/16 个线程
+ * <p>
+ * search 不写任何共享内存，吞吐量应随线程数（不超过核数时）近似线性增长；
+ * 以 JDK 的 ConcurrentSkipListMap.containsKey 作为对照。
+ * 一半查找命中、一半不命中，每个线程有自己的探测序列，线程之间只共享跳表本身
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentSkipListBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    public enum Impl {
+        CONCURRENT_SKIP_LIST, JDK_SKIP_LIST_MAP
+    }
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Param({"CONCURRENT_SKIP_LIST", "JDK_SKIP_LIST_MAP"})
+    Impl impl;
+
+    ConcurrentSkipList<Integer> skipList;
+    ConcurrentSkipListMap<Integer, Integer> map;
+    int[] probes;//偶数 key 存在，奇数 key 不存在
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int[] keys = random.ints(size, 0, Integer.MAX_VALUE / 2).map(k -> k * 2).distinct().toArray();
+        if (impl == Impl.CONCURRENT_SKIP_LIST) {
+            skipList = new ConcurrentSkipList<>();
+            for (int key : keys) {
+                skipList.add(key, key);
+            }
+        } else {
+            map = new ConcurrentSkipListMap<>();
+            for (int key : keys) {
+                map.put(key, key);
+            }
+        }
+        probes = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            int key = keys[random.nextInt(keys.length)];
+            probes[i] = (i & 1) == 0 ? key : key + 1;
+        }
+    }
+
+    /**
+     * 每个线程自己的探测位置，起点随机，避免所有线程同时查同一个 key
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position = ThreadLocalRandom.current().nextInt(PROBES);
+
+        int next() {
+            return position = (position + 1) & (PROBES - 1);
+        }
+    }
+
+    private boolean contains(Cursor cursor) {
+        int key = probes[cursor.next()];
+        return impl == Impl.CONCURRENT_SKIP_LIST ? skipList.search(key) != null : map.containsKey(key);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean contains01Thread(Cursor cursor) {
+        return contains(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean contains02Threads(Cursor cursor) {
+        return contains(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean contains04Threads(Cursor cursor) {
+        return contains(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean contains08Threads(Cursor cursor) {
+        return contains(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean contains16Threads(Cursor cursor) {
+        return contains(cursor);
+    }
+}
@@ -0,0 +1,90 @@
+package com.lyle.algorithm.skipList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SkipList / SkipList1 的查找、插入、删除
+ * <p>
+ * 只使用 SkipList 的公开方法（create / add(int, T)）。
+ * 插入与删除成对执行（插入一个不存在的 key 再删除它），保证测量过程中元素个数不变
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkipListBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    SkipList<Integer> skipList;
+    SkipList1 skipList1;
+    int[] hits;//存在的 key
+    int[] misses;//不存在的 key
+    int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        //偶数 key 放入跳表，奇数 key 作为不存在的 key
+        int[] keys = random.ints(size, 0, Integer.MAX_VALUE / 2).map(k -> k * 2).distinct().toArray();
+        skipList = SkipList.create();
+        skipList1 = new SkipList1();
+        for (int key : keys) {
+            skipList.add(key, key);
+            skipList1.insert(key);
+        }
+        hits = new int[PROBES];
+        misses = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = keys[random.nextInt(keys.length)];
+            misses[i] = hits[i] + 1;
+        }
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (PROBES - 1);
+    }
+
+    @Benchmark
+    public Object skipListSearch() {
+        return skipList.search(hits[next()]);
+    }
+
+    @Benchmark
+    public Object skipList1Search() {
+        return skipList1.find(hits[next()]);//search 会打印到控制台
+    }
+
+    @Benchmark
+    public Object skipListInsertDelete() {
+        int key = misses[next()];
+        skipList.add(key, key);
+        skipList.delete(key);
+        return skipList;
+    }
+
+    @Benchmark
+    public boolean skipList1InsertDelete() {
+        int key = misses[next()];
+        skipList1.insert(key);
+        return skipList1.remove(key);
+    }
+}
@@ -0,0 +1,84 @@
+package com.lyle.algorithm.snow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 多线程共享一个生成器时 nextId 的吞吐量，1/4/16/64 个线程
+ * <p>
+ * 注意每个生成器每毫秒最多 4096 个 ID（12 位序列号），SYNCHRONIZED、ATOMIC 和 CONFIGURABLE 的上限约为 4096 ops/ms，
+ * 超过之后测到的是等待下一毫秒的时间；STRIPED 按分片数倍增这个上限
+ * <p>
+ * CONFIGURABLE 使用 {@link SnowFlakeLayout#DEFAULT}，与 SYNCHRONIZED 的差异就是布局字段拷贝与预先合并机器位的收益
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowFlakeBenchmark {
+
+    public enum Impl {
+        SYNCHRONIZED, ATOMIC, STRIPED, CONFIGURABLE
+    }
+
+    @Param({"SYNCHRONIZED", "ATOMIC", "STRIPED", "CONFIGURABLE"})
+    Impl impl;
+
+    LongSupplier generator;
+
+    @Setup
+    public void setup() {
+        switch (impl) {
+            case SYNCHRONIZED:
+                generator = new SnowFlake(1, 1)::nextId;
+                break;
+            case ATOMIC:
+                generator = new AtomicSnowFlake(1, 1)::nextId;
+                break;
+            case CONFIGURABLE:
+                generator = new ConfigurableSnowFlake(SnowFlakeLayout.DEFAULT, 1, 1)::nextId;
+                break;
+            default:
+                generator = StripedSnowFlake.perCore(1, 1)::nextId;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextId01Thread() {
+        return generator.getAsLong();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId04Threads() {
+        return generator.getAsLong();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long nextId16Threads() {
+        return generator.getAsLong();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long nextId64Threads() {
+        return generator.getAsLong();
+    }
+}
@@ -0,0 +1,50 @@
+package com.lyle.algorithm.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 排序基准测试的输入分布
+ */
+public enum Distribution {
+    RANDOM, SORTED, REVERSED, NEARLY_SORTED, FEW_UNIQUE;
+
+    public int[] ints(int n, long seed) {
+        Random random = new Random(seed);
+        int[] arr;
+        switch (this) {
+            case FEW_UNIQUE:
+                return random.ints(n, 0, 16).toArray();
+            case RANDOM:
+                return random.ints(n).toArray();
+            default:
+                arr = random.ints(n).toArray();
+                Arrays.sort(arr);
+        }
+        if (this == REVERSED) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        } else if (this == NEARLY_SORTED) {
+            for (int k = 0; k < Math.max(1, n / 100); k++) {//1% 的元素随机交换
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        }
+        return arr;
+    }
+
+    public long[] longs(int n, long seed) {
+        int[] ints = ints(n, seed);
+        long[] arr = new long[n];
+        for (int i = 0; i < n; i++) {//高位放一个固定的时间戳，形如雪花 ID
+            arr[i] = (1_700_000_000_000L << 22) + ints[i];
+        }
+        return arr;
+    }
+}
@@ -0,0 +1,61 @@
+package com.lyle.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(n²) 的排序只在较短的数组上测试：冒泡、选择、插入
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuadraticSortBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    @Param({"RANDOM", "NEARLY_SORTED"})
+    Distribution distribution;
+
+    int[] ints;
+
+    @Setup
+    public void setup() {
+        ints = distribution.ints(size, 42);
+    }
+
+    @Benchmark
+    public int[] bubbleSort() {
+        int[] arr = ints.clone();
+        BubbleSort.bubbleSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] selectSort() {
+        int[] arr = ints.clone();
+        SelectSort.selectSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertSort() {
+        int[] arr = ints.clone();
+        InsertSort.insertSort(arr);
+        return arr;
+    }
+}
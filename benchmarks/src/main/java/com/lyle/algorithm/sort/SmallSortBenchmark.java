@@ -0,0 +1,119 @@
+package com.lyle.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 小数组排序内核：插入排序、排序网络与 SIMD 双调排序，按元素宽度（int/long）分别测试
+ * <p>
+ * SIMD 内核在 algorithm-vector 中，fork 出的 JVM 带 --add-modules jdk.incubator.vector 才能加载，
+ * 加载不到时 vectorSort 测的是退回的排序网络，setup 中会打印提示
+ * <p>
+ * 每次调用轮流排序输入池中的下一个数组（共 {@link #POOL} 个）。如果反复排序同一个数组，
+ * 分支预测器会记住这组输入的比较结果，插入排序的分支预测失败开销就测不出来了，而这正是与排序网络对比的关键
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SmallSortBenchmark {
+
+    static final int POOL = 1024;//输入池中的数组个数，2 的幂
+
+    @Param({"8", "16", "32"})
+    int size;
+
+    @Param({"RANDOM", "NEARLY_SORTED"})
+    Distribution distribution;
+
+    int[] ints;//POOL 个数组首尾相接
+    long[] longs;
+    int[] intWork;
+    long[] longWork;
+    int next;//下一个要排序的数组
+
+    @Setup
+    public void setup() {
+        ints = new int[POOL * size];
+        longs = new long[POOL * size];
+        for (int k = 0; k < POOL; k++) {
+            System.arraycopy(distribution.ints(size, 42 + k), 0, ints, k * size, size);
+            System.arraycopy(distribution.longs(size, 42 + k), 0, longs, k * size, size);
+        }
+        intWork = new int[size];
+        longWork = new long[size];
+        if (!SortEngine.isVectorAvailable()) {
+            System.err.println("vector small sort kernel is unavailable, vectorSort measures the sorting network fallback");
+        }
+    }
+
+    /**
+     * @return 下一个数组在池中的起始下标
+     */
+    private int nextOffset() {
+        int k = next;
+        next = (k + 1) & (POOL - 1);
+        return k * size;
+    }
+
+    @Benchmark
+    public int[] insertSort() {
+        int[] arr = intWork;
+        System.arraycopy(ints, nextOffset(), arr, 0, size);
+        InsertSort.insertSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] sortingNetwork() {
+        int[] arr = intWork;
+        System.arraycopy(ints, nextOffset(), arr, 0, size);
+        SortingNetwork.sort(arr, 0, arr.length);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] vectorSort() {
+        int[] arr = intWork;
+        System.arraycopy(ints, nextOffset(), arr, 0, size);
+        VectorKernel.sort(arr, 0, arr.length);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] insertSortLong() {
+        long[] arr = longWork;
+        System.arraycopy(longs, nextOffset(), arr, 0, size);
+        InsertSort.insertSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] sortingNetworkLong() {
+        long[] arr = longWork;
+        System.arraycopy(longs, nextOffset(), arr, 0, size);
+        SortingNetwork.sort(arr, 0, arr.length);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] vectorSortLong() {
+        long[] arr = longWork;
+        System.arraycopy(longs, nextOffset(), arr, 0, size);
+        VectorKernel.sort(arr, 0, arr.length);
+        return arr;
+    }
+}
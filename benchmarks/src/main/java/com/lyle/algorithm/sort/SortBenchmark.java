@@ -0,0 +1,133 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.heap.DaryHeapSort;
+import com.lyle.algorithm.heap.HeapSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(n log n) 与线性排序在不同长度、不同分布下的耗时
+ * <p>
+ * 每次调用先拷贝一份输入再排序，拷贝的开销见 copyOnly
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    Distribution distribution;
+
+    int[] ints;
+    long[] longs;
+    SortEngine networkEngine;
+    RadixSort radixSort;
+
+    @Setup
+    public void setup() {
+        ints = distribution.ints(size, 42);
+        longs = distribution.longs(size, 42);
+        networkEngine = SortEngine.builder().smallSort(SortEngine.SmallSort.NETWORK).build();
+        radixSort = new RadixSort(11);
+    }
+
+    @Benchmark
+    public int[] copyOnly() {
+        return ints.clone();
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        int[] arr = ints.clone();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort() {
+        int[] arr = ints.clone();
+        HeapSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] daryHeapSort4() {
+        int[] arr = ints.clone();
+        DaryHeapSort.sort(arr, 4);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        int[] arr = ints.clone();
+        SortEngine.DEFAULT.parallelMergeSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] sampleSort() {
+        int[] arr = ints.clone();
+        SortEngine.DEFAULT.sampleSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] adaptiveSort() {
+        int[] arr = ints.clone();
+        SortEngine.DEFAULT.adaptiveSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] adaptiveSortNetwork() {
+        int[] arr = ints.clone();
+        networkEngine.adaptiveSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSortLsd() {
+        int[] arr = ints.clone();
+        radixSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] americanFlagSort() {
+        int[] arr = ints.clone();
+        RadixSort.americanFlagSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] arraysSortLong() {
+        long[] arr = longs.clone();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public long[] radixSortLsdLong() {
+        long[] arr = longs.clone();
+        radixSort.sort(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,46 @@
+package com.lyle.algorithm;
+
+import com.lyle.algorithm.heap.HeapSort;
+import com.lyle.algorithm.metrics.Metrics;
+import com.lyle.algorithm.skipList.IntSkipList;
+import com.lyle.algorithm.snow.SnowFlake;
+import com.lyle.algorithm.sort.SortEngine;
+
+import java.util.Random;
+
+/**
+ * 指标演示：跑一遍雪花算法、跳表、排序后打印 {@link Metrics#snapshot()}，需要加 -Dcom.lyle.algorithm.metrics=true
+ * <p>
+ * 放在顶层包而不是 metrics 包中：算法包都依赖 metrics，metrics 不能反过来依赖它们
+ */
+public class MetricsDemo {
+
+    public static void main(String[] args) {
+        if (!Metrics.ENABLED) {
+            System.out.println("metrics disabled, run with -D" + Metrics.PROPERTY + "=true");
+            return;
+        }
+        SnowFlake snowFlake = new SnowFlake(1, 1);
+        for (int i = 0; i < 100_000; i++) {
+            snowFlake.nextId();
+        }
+        snowFlake.nextIds(100_000);
+
+        IntSkipList<String> skipList = new IntSkipList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            skipList.add(random.nextInt(100_000), "v");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            skipList.search(random.nextInt(100_000));
+        }
+
+        int[] arr = random.ints(1_000_000).toArray();
+        SortEngine.DEFAULT.adaptiveSort(arr);
+        SortEngine.DEFAULT.adaptiveSort(arr);//已有序
+        HeapSort.sort(random.ints(100_000).toArray());
+
+        Metrics.gauge("runtime.usedMemory", () -> Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+        System.out.print(Metrics.snapshot());
+    }
+}
@@ -0,0 +1,113 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * d 叉堆排序
+ * <p>
+ * 二叉堆每下沉一层就要访问一个新的位置，堆很大时几乎每层都是一次 cache miss。
+ * d 叉堆（d = 4/8）的树高只有二叉堆的 1/log2(d)，下沉经过的层数（也就是 cache miss 的次数）随之减少，
+ * 同一个节点的 d 个子节点在数组中是连续的。
+ * 这里原地排序调用方的 int[]，子节点组从 d*i+1 开始，不与 cache line 对齐，一组兄弟节点可能跨两条 cache line；
+ * 需要兄弟节点落在同一条 cache line 内的优先队列见 {@link IntDaryMinHeap}
+ * <pre>
+ *     节点 i 的子节点：d*i+1 ~ d*i+d
+ *     节点 i 的父节点：(i-1)/d
+ * </pre>
+ */
+public class DaryHeapSort {
+
+    /**
+     * @param arity 堆的叉数，2/4/8/16
+     */
+    public static void sort(int[] arr, int arity) {
+        checkArity(arity);
+        int shift = Integer.numberOfTrailingZeros(arity);
+        //1.构建大顶堆：最后一个非叶子节点是最后一个元素的父节点
+        for (int i = (arr.length - 2) >> shift; i >= 0; i--) {
+            adjustHeap(arr, i, arr.length, shift);
+        }
+        //2.交换堆顶元素与末尾元素+调整堆结构
+        for (int j = arr.length - 1; j > 0; j--) {
+            HeapSort.swap(arr, 0, j);
+            adjustHeap(arr, 0, j, shift);
+        }
+    }
+
+    /**
+     * 调整 d 叉大顶堆，与 {@link HeapSort#adjustHeap(int[], int, int)} 一样挖坑下沉
+     *
+     * @param arr    目标数组
+     * @param index  当前元素索引
+     * @param length 元素个数
+     * @param shift  log2(叉数)
+     */
+    static void adjustHeap(int[] arr, int index, int length, int shift) {
+        int temp = arr[index];
+        int arity = 1 << shift;
+        int first;
+        while ((first = (index << shift) + 1) < length) {
+            //在连续的 d 个子节点中找最大的
+            int max = first;
+            int end = Math.min(first + arity, length);
+            for (int k = first + 1; k < end; k++) {
+                if (arr[k] > arr[max]) {
+                    max = k;
+                }
+            }
+            if (arr[max] > temp) {
+                arr[index] = arr[max];
+                index = max;
+            } else {
+                break;
+            }
+        }
+        arr[index] = temp;
+    }
+
+    static void checkArity(int arity) {
+        if (arity < 2 || arity > 16 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException(String.format("arity must be 2, 4, 8 or 16, but was %d", arity));
+        }
+    }
+
+    /**
+     * 与 {@link HeapSort#sort(int[])} 对比排序吞吐，以及 {@link IntMinHeap} 与 {@link IntDaryMinHeap} 的 pop 耗时
+     */
+    public static void main(String[] args) {
+        int[] arr = {9, 98, 7, 6, 99, 4, 3, 32, 1};
+        sort(arr, 4);
+        System.out.println(Arrays.toString(arr));
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] source = new Random(42).ints(n).toArray();
+        for (int round = 0; round < 2; round++) {//第一轮用于预热
+            int[] copy = source.clone();
+            long start = System.nanoTime();
+            HeapSort.sort(copy);
+            System.out.printf("round %d  binary HeapSort.sort  %.1f ms%n", round, (System.nanoTime() - start) / 1e6);
+            for (int arity : new int[]{4, 8}) {
+                copy = source.clone();
+                start = System.nanoTime();
+                sort(copy, arity);
+                System.out.printf("round %d  %d-ary sort           %.1f ms%n", round, arity, (System.nanoTime() - start) / 1e6);
+            }
+
+            IntMinHeap binary = IntMinHeap.heapify(source);
+            start = System.nanoTime();
+            while (!binary.isEmpty()) {
+                binary.pop();
+            }
+            System.out.printf("round %d  IntMinHeap pop        %.1f ns/op%n", round, (double) (System.nanoTime() - start) / n);
+            for (int arity : new int[]{4, 8}) {
+                IntDaryMinHeap dary = IntDaryMinHeap.heapify(source, arity);
+                start = System.nanoTime();
+                while (!dary.isEmpty()) {
+                    dary.pop();
+                }
+                System.out.printf("round %d  %d-ary pop             %.1f ns/op%n", round, arity, (double) (System.nanoTime() - start) / n);
+            }
+        }
+    }
+}
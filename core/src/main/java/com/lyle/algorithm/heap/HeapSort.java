@@ -0,0 +1,196 @@
+package com.lyle.algorithm.heap;
+
+import com.lyle.algorithm.metrics.Histogram;
+import com.lyle.algorithm.metrics.Metrics;
+
+import java.util.Arrays;
+
+public class HeapSort {
+
+    static final Histogram sortNanos = Metrics.histogram("heapSort.nanos");//一次 sort 的耗时
+
+    /**
+     * 大顶堆：arr[i] >= arr[2i+1] && arr[i] >= arr[2i+2]
+     * <p>
+     * 小顶堆：arr[i] <= arr[2i+1] && arr[i] <= arr[2i+2]
+     *
+     * <a href="https://www.cnblogs.com/chengxiao/p/6129630.html">参考地址</a>
+     */
+    public static void main(String[] args) {
+        int[] arr = {9, 98, 7, 6, 99, 4, 3, 32, 1};
+        sort(arr);
+        System.out.println(Arrays.toString(arr));
+
+    }
+
+    public static void sort(int[] arr) {
+        long start = sortNanos.start();
+        /**
+         * 1.构建大顶堆
+         * arr.length / 2 即非叶子节点的个数
+         * arr.length / 2 - 1 即最下层最靠右的一个非叶子节点的下标
+         */
+        for (int i = arr.length / 2 - 1; i >= 0; i--) {
+            //从第一个非叶子节点开始，从下至上，从右至左调整结构
+            adjustHeap(arr, i, arr.length);
+        }
+
+        //2.调整堆结构+交换堆顶元素与末尾元素
+        for (int j = arr.length - 1; j > 0; j--) {
+            swap(arr, 0, j);//将堆顶元素与末尾元素进行交换
+            adjustHeap(arr, 0, j);//重新对堆进行调整
+        }
+        sortNanos.recordSince(start);
+    }
+
+    /**
+     * 交换元素
+     *
+     * @param arr
+     * @param a
+     * @param b
+     */
+    public static void swap(int[] arr, int a, int b) {
+        int temp = arr[a];
+        arr[a] = arr[b];
+        arr[b] = temp;
+    }
+
+    /**
+     * 调整大顶堆（仅是调整过程，建立在大顶堆已构建的基础上）
+     *
+     * @param arr 目标数组
+     * @param index 当前元素索引
+     * @param length 元素个数
+     */
+    public static void adjustHeap(int[] arr, int index, int length) {
+        int temp = arr[index];//先取出当前元素i
+        //k = index * 2 +1 获取该节点的左子节点
+        //k = k * 2 + 1 结束循环时，将指针指向K节点的左字节点
+        for (int k = index * 2 + 1; k < length; k = k * 2 + 1) {
+            if (k + 1 < length && arr[k] < arr[k + 1]) {//如果左子结点小于右子结点，k指向右子结点
+                k++;
+            }
+            if (arr[k] > temp) {//如果子节点大于父节点，将子节点值赋给父节点（不用进行交换）
+                arr[index] = arr[k];
+                index = k;
+            } else {
+                break;
+            }
+        }
+        arr[index] = temp;//将temp值放到最终的位置
+    }
+
+    /**
+     * 调整小顶堆，与 {@link #adjustHeap(int[], int, int)} 相同，只是比较方向相反
+     *
+     * @param arr 目标数组
+     * @param index 当前元素索引
+     * @param length 元素个数
+     */
+    public static void adjustMinHeap(int[] arr, int index, int length) {
+        int temp = arr[index];
+        for (int k = index * 2 + 1; k < length; k = k * 2 + 1) {
+            if (k + 1 < length && arr[k] > arr[k + 1]) {//如果左子结点大于右子结点，k指向右子结点
+                k++;
+            }
+            if (arr[k] < temp) {//如果子节点小于父节点，将子节点值赋给父节点
+                arr[index] = arr[k];
+                index = k;
+            } else {
+                break;
+            }
+        }
+        arr[index] = temp;
+    }
+
+    /**
+     * 调整大顶堆，long[] 版本的 {@link #adjustHeap(int[], int, int)}
+     *
+     * @param arr 目标数组
+     * @param index 当前元素索引
+     * @param length 元素个数
+     */
+    public static void adjustHeap(long[] arr, int index, int length) {
+        long temp = arr[index];
+        for (int k = index * 2 + 1; k < length; k = k * 2 + 1) {
+            if (k + 1 < length && arr[k] < arr[k + 1]) {
+                k++;
+            }
+            if (arr[k] > temp) {
+                arr[index] = arr[k];
+                index = k;
+            } else {
+                break;
+            }
+        }
+        arr[index] = temp;
+    }
+
+    /**
+     * 对 arr[from, to) 堆排序，把这一段看作一棵从 from 开始的完全二叉树
+     */
+    public static void sort(int[] arr, int from, int to) {
+        int length = to - from;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            adjustHeap(arr, from, i, length);
+        }
+        for (int j = length - 1; j > 0; j--) {
+            swap(arr, from, from + j);
+            adjustHeap(arr, from, 0, j);
+        }
+    }
+
+    public static void sort(long[] arr, int from, int to) {
+        int length = to - from;
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            adjustHeap(arr, from, i, length);
+        }
+        for (int j = length - 1; j > 0; j--) {
+            long temp = arr[from];
+            arr[from] = arr[from + j];
+            arr[from + j] = temp;
+            adjustHeap(arr, from, 0, j);
+        }
+    }
+
+    /**
+     * 调整大顶堆，与 {@link #adjustHeap(int[], int, int)} 相同，堆从 arr[offset] 开始
+     *
+     * @param arr 目标数组
+     * @param offset 堆顶在数组中的位置
+     * @param index 当前元素在堆中的索引
+     * @param length 元素个数
+     */
+    public static void adjustHeap(int[] arr, int offset, int index, int length) {
+        int temp = arr[offset + index];
+        for (int k = index * 2 + 1; k < length; k = k * 2 + 1) {
+            if (k + 1 < length && arr[offset + k] < arr[offset + k + 1]) {
+                k++;
+            }
+            if (arr[offset + k] > temp) {
+                arr[offset + index] = arr[offset + k];
+                index = k;
+            } else {
+                break;
+            }
+        }
+        arr[offset + index] = temp;
+    }
+
+    public static void adjustHeap(long[] arr, int offset, int index, int length) {
+        long temp = arr[offset + index];
+        for (int k = index * 2 + 1; k < length; k = k * 2 + 1) {
+            if (k + 1 < length && arr[offset + k] < arr[offset + k + 1]) {
+                k++;
+            }
+            if (arr[offset + k] > temp) {
+                arr[offset + index] = arr[offset + k];
+                index = k;
+            } else {
+                break;
+            }
+        }
+        arr[offset + index] = temp;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 索引小顶堆
+ * <p>
+ * 元素用 [0, capacity) 内的 id 标识，优先级为 long。除了堆本身，还记录每个 id 当前在堆中的位置，
+ * 所以可以直接修改某个 id 的优先级或把它移出堆，而不必像懒删除那样留下过期元素
+ * <pre>
+ *     heap[slot] = id      堆数组，存放 id
+ *     pos[id]    = slot    id 在堆中的位置，-1 表示不在堆中
+ *     keys[id]   = key     id 的优先级
+ * </pre>
+ * 下沉与 {@link HeapSort#adjustHeap(int[], int, int)} 一样挖坑，最后写一次；移动元素时同步更新 pos
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] pos;
+    private final long[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean contains(int id) {
+        checkId(id);
+        return pos[id] >= 0;
+    }
+
+    public void insert(int id, long key) {
+        checkId(id);
+        if (pos[id] >= 0) {
+            throw new IllegalArgumentException(String.format("id %d is already in the heap", id));
+        }
+        keys[id] = key;
+        siftUp(size++, id);
+    }
+
+    public long keyOf(int id) {
+        checkContains(id);
+        return keys[id];
+    }
+
+    /**
+     * @return 堆顶的 id
+     */
+    public int peekId() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return 堆顶的优先级
+     */
+    public long peekKey() {
+        return keys[peekId()];
+    }
+
+    /**
+     * 弹出堆顶
+     *
+     * @return 堆顶的 id
+     */
+    public int pollId() {
+        int top = peekId();
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * 降低优先级，只需上浮
+     */
+    public void decreaseKey(int id, long key) {
+        checkContains(id);
+        if (key > keys[id]) {
+            throw new IllegalArgumentException(String.format("key %d is greater than current key %d", key, keys[id]));
+        }
+        keys[id] = key;
+        siftUp(pos[id], id);
+    }
+
+    /**
+     * 提高优先级，只需下沉
+     */
+    public void increaseKey(int id, long key) {
+        checkContains(id);
+        if (key < keys[id]) {
+            throw new IllegalArgumentException(String.format("key %d is less than current key %d", key, keys[id]));
+        }
+        keys[id] = key;
+        siftDown(pos[id], id);
+    }
+
+    /**
+     * 修改优先级，方向不确定时使用
+     */
+    public void changeKey(int id, long key) {
+        checkContains(id);
+        if (key < keys[id]) {
+            decreaseKey(id, key);
+        } else {
+            increaseKey(id, key);
+        }
+    }
+
+    /**
+     * @return id 在堆中并被移除返回 true
+     */
+    public boolean remove(int id) {
+        checkId(id);
+        int slot = pos[id];
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 末尾元素填到 slot，再视情况上浮或下沉
+     */
+    private void removeAt(int slot) {
+        int removed = heap[slot];
+        pos[removed] = -1;
+        int last = heap[--size];
+        if (slot == size) {
+            return;
+        }
+        if (slot > 0 && keys[last] < keys[heap[(slot - 1) >>> 1]]) {
+            siftUp(slot, last);
+        } else {
+            siftDown(slot, last);
+        }
+    }
+
+    /**
+     * 上浮：父节点比 id 大就把父节点移下来
+     */
+    private void siftUp(int slot, int id) {
+        long key = keys[id];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[slot] = parentId;
+            pos[parentId] = slot;
+            slot = parent;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    /**
+     * 下沉：较小的子节点比 id 小就把子节点移上来
+     */
+    private void siftDown(int slot, int id) {
+        long key = keys[id];
+        for (int k = slot * 2 + 1; k < size; k = k * 2 + 1) {
+            if (k + 1 < size && keys[heap[k + 1]] < keys[heap[k]]) {
+                k++;
+            }
+            int childId = heap[k];
+            if (keys[childId] < key) {
+                heap[slot] = childId;
+                pos[childId] = slot;
+                slot = k;
+            } else {
+                break;
+            }
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= pos.length) {
+            throw new IllegalArgumentException(String.format("id can't be greater than %d or less than 0", pos.length - 1));
+        }
+    }
+
+    private void checkContains(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException(String.format("id %d is not in the heap", id));
+        }
+    }
+
+    /**
+     * Dijkstra 最短路径：每个顶点最多在堆中出现一次，发现更短路径时 decreaseKey
+     */
+    public static void main(String[] args) {
+        //邻接矩阵，0 表示不相连
+        int[][] graph = {
+                {0, 4, 1, 0, 0},
+                {4, 0, 2, 5, 0},
+                {1, 2, 0, 8, 10},
+                {0, 5, 8, 0, 2},
+                {0, 0, 10, 2, 0},
+        };
+        int n = graph.length;
+        long[] dist = new long[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[0] = 0;
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        heap.insert(0, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollId();
+            for (int v = 0; v < n; v++) {
+                if (graph[u][v] == 0 || dist[u] + graph[u][v] >= dist[v]) {
+                    continue;
+                }
+                dist[v] = dist[u] + graph[u][v];
+                if (heap.contains(v)) {
+                    heap.decreaseKey(v, dist[v]);
+                } else {
+                    heap.insert(v, dist[v]);
+                }
+            }
+        }
+        System.out.println(Arrays.toString(dist));
+    }
+}
@@ -0,0 +1,172 @@
+package com.lyle.algorithm.heap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+/**
+ * int d 叉小顶堆（优先队列）
+ * <p>
+ * 堆存放在堆外按 {@link #CACHE_LINE} 字节对齐的 direct ByteBuffer 中（{@link ByteBuffer#alignedSlice(int)} 按实际内存地址对齐），
+ * 前面空出 d-1 个位置，逻辑下标 i 存放在第 i + d - 1 个 int，
+ * 这样节点 i 的 d 个子节点从第 d*(i+1) 个 int 开始，每组兄弟节点都从 4d 字节的整数倍处开始，
+ * 一组兄弟节点（d=4 时 16 字节，d=16 时 64 字节）总是落在同一条 cache line 内，下沉一层最多一次 cache miss。
+ * int[] 做不到这一点：数组头 16 字节，对象只按 8 字节对齐，元素相对 cache line 的位置取决于对象被分配到哪里
+ * <p>
+ * direct buffer 只能随 IntDaryMinHeap 对象被回收时释放
+ *
+ * @see DaryHeapSort
+ */
+public class IntDaryMinHeap {
+    static final int CACHE_LINE = 64;
+
+    private final int shift;//log2(叉数)
+    private final int offset;//d - 1
+    private ByteBuffer heap;//按 CACHE_LINE 对齐
+    private int capacity;//heap 能容纳的 int 个数，含前面空出的 offset 个
+    private int size;
+
+    /**
+     * @param arity 堆的叉数，2/4/8/16
+     */
+    public IntDaryMinHeap(int arity, int initialCapacity) {
+        DaryHeapSort.checkArity(arity);
+        shift = Integer.numberOfTrailingZeros(arity);
+        offset = arity - 1;
+        capacity = offset + Math.max(initialCapacity, 1);
+        heap = allocate(capacity);
+    }
+
+    /**
+     * 由数组建堆，O(n)
+     */
+    public static IntDaryMinHeap heapify(int[] values, int arity) {
+        IntDaryMinHeap minHeap = new IntDaryMinHeap(arity, values.length);
+        for (int i = 0; i < values.length; i++) {
+            minHeap.set(i, values[i]);
+        }
+        minHeap.size = values.length;
+        for (int i = (values.length - 2) >> minHeap.shift; i >= 0; i--) {
+            minHeap.siftDown(i, minHeap.get(i));
+        }
+        return minHeap;
+    }
+
+    public void push(int value) {
+        if (size + offset == capacity) {
+            grow(capacity + (size >> 1) + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = get(0);
+        int last = get(--size);
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶并下沉
+     *
+     * @return 原来的堆顶
+     */
+    public int replaceTop(int value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = get(0);
+        siftDown(0, value);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 挖坑下沉：在连续的 d 个子节点中找最小的，比 value 小就移上来
+     */
+    private void siftDown(int index, int value) {
+        ByteBuffer heap = this.heap;
+        int arity = 1 << shift;
+        int end = size + offset;
+        int first;//第一个子节点的位置（第几个 int）
+        while ((first = (index + 1) << shift) < end) {
+            int min = first;
+            int minValue = heap.getInt(first << 2);
+            int last = Math.min(first + arity, end);
+            for (int k = first + 1; k < last; k++) {
+                int v = heap.getInt(k << 2);
+                if (v < minValue) {
+                    min = k;
+                    minValue = v;
+                }
+            }
+            if (minValue < value) {
+                set(index, minValue);
+                index = min - offset;
+            } else {
+                break;
+            }
+        }
+        set(index, value);
+    }
+
+    private void siftUp(int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) >> shift;
+            int parentValue = get(parent);
+            if (parentValue <= value) {
+                break;
+            }
+            set(index, parentValue);
+            index = parent;
+        }
+        set(index, value);
+    }
+
+    private int get(int index) {
+        return heap.getInt((index + offset) << 2);
+    }
+
+    private void set(int index, int value) {
+        heap.putInt((index + offset) << 2, value);
+    }
+
+    private void grow(int newCapacity) {
+        ByteBuffer grown = allocate(newCapacity);
+        for (int i = 0; i < capacity; i++) {
+            grown.putInt(i << 2, heap.getInt(i << 2));
+        }
+        heap = grown;
+        capacity = newCapacity;
+    }
+
+    /**
+     * alignedSlice 把首地址向上、末地址向下取整到 CACHE_LINE 的整数倍，
+     * 所以按整条 cache line 申请，再多申请 CACHE_LINE - 1 字节
+     */
+    private static ByteBuffer allocate(int ints) {
+        long lines = ((long) ints * Integer.BYTES + CACHE_LINE - 1) / CACHE_LINE;
+        return ByteBuffer.allocateDirect(Math.toIntExact(lines * CACHE_LINE + CACHE_LINE - 1))
+                .alignedSlice(CACHE_LINE)
+                .order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,123 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * int 小顶堆（优先队列）
+ * 元素直接存放在 int[] 中，不装箱，除扩容外 push/pop 不分配任何对象
+ * <p>
+ * 下沉使用 {@link HeapSort#adjustMinHeap(int[], int, int)}，上浮同样采用"挖坑"的方式，只在最后写一次
+ */
+public class IntMinHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] heap;
+    private int size;
+
+    public IntMinHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntMinHeap(int initialCapacity) {
+        heap = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * 由数组建堆，O(n)：从最后一个非叶子节点开始，从下至上逐个下沉
+     */
+    public static IntMinHeap heapify(int[] values) {
+        IntMinHeap minHeap = new IntMinHeap(values.length);
+        System.arraycopy(values, 0, minHeap.heap, 0, values.length);
+        minHeap.size = values.length;
+        for (int i = values.length / 2 - 1; i >= 0; i--) {
+            HeapSort.adjustMinHeap(minHeap.heap, i, minHeap.size);
+        }
+        return minHeap;
+    }
+
+    public void push(int value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size + (size >> 1) + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * @return 堆顶（最小值）
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * 弹出堆顶：末尾元素移到堆顶后下沉
+     */
+    public int pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = heap[0];
+        heap[0] = heap[--size];
+        if (size > 0) {
+            HeapSort.adjustMinHeap(heap, 0, size);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶并下沉，相当于 pop 后 push，但只调整一次
+     *
+     * @return 原来的堆顶
+     */
+    public int replaceTop(int value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = heap[0];
+        heap[0] = value;
+        HeapSort.adjustMinHeap(heap, 0, size);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 上浮：父节点比 value 大就把父节点移下来
+     */
+    private void siftUp(int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    public static void main(String[] args) {
+        IntMinHeap minHeap = IntMinHeap.heapify(new int[]{9, 98, 7, 6, 99, 4, 3, 32, 1});
+        minHeap.push(5);
+        minHeap.replaceTop(100);
+        StringBuilder sb = new StringBuilder();
+        while (!minHeap.isEmpty()) {
+            sb.append(minHeap.pop()).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
@@ -0,0 +1,66 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * 流式 top-K：保留最大的 K 个 int
+ * <p>
+ * 用大小为 K 的 {@link IntMinHeap} 保存当前的 top-K，堆顶是其中最小的一个，
+ * 新元素比堆顶大时替换堆顶，所以无论流有多长内存都是 O(K)，每个元素 O(log K)
+ * <p>
+ * supplier/accept/combine 与 {@link IntStream#collect} 的三个参数对应，可用于并行流
+ */
+public class IntTopK {
+    private final int k;
+    private final IntMinHeap heap;
+
+    public IntTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than 0");
+        }
+        this.k = k;
+        this.heap = new IntMinHeap(k);
+    }
+
+    /**
+     * 取流中最大的 k 个元素，按从大到小排列
+     */
+    public static int[] of(IntStream stream, int k) {
+        return stream.collect(() -> new IntTopK(k), IntTopK::accept, IntTopK::combine).toSortedArray();
+    }
+
+    public void accept(int value) {
+        if (heap.size() < k) {
+            heap.push(value);
+        } else if (value > heap.peek()) {
+            heap.replaceTop(value);
+        }
+    }
+
+    /**
+     * 合并另一个分段的结果，合并后 other 被清空
+     */
+    public void combine(IntTopK other) {
+        while (!other.heap.isEmpty()) {
+            accept(other.heap.pop());
+        }
+    }
+
+    /**
+     * 按从大到小输出，输出后清空
+     */
+    public int[] toSortedArray() {
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.pop();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int[] top = IntTopK.of(new Random(42).ints(10_000_000).parallel(), 5);
+        System.out.println(Arrays.toString(top));
+    }
+}
@@ -0,0 +1,127 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 多路归并：把 N 个升序数组合并成一个升序序列，惰性输出
+ * <p>
+ * 用 {@link IndexedMinHeap} 保存每一路的当前元素，id 就是第几路。每次取堆顶那一路输出，
+ * 然后把这一路的下一个元素作为新的优先级（升序，所以只会增大，increaseKey 下沉即可），
+ * 这一路取完就从堆中移除。内存只有 O(N)，每输出一个元素 O(log N)
+ */
+public class KWayMerge {
+
+    public static PrimitiveIterator.OfInt merge(int[]... sources) {
+        return new IntMergeIterator(sources);
+    }
+
+    public static PrimitiveIterator.OfLong merge(long[]... sources) {
+        return new LongMergeIterator(sources);
+    }
+
+    public static IntStream mergedStream(int[]... sources) {
+        long total = 0;
+        for (int[] source : sources) {
+            total += source.length;
+        }
+        return StreamSupport.intStream(Spliterators.spliterator(merge(sources), total, Spliterator.ORDERED | Spliterator.SORTED), false);
+    }
+
+    public static LongStream mergedStream(long[]... sources) {
+        long total = 0;
+        for (long[] source : sources) {
+            total += source.length;
+        }
+        return StreamSupport.longStream(Spliterators.spliterator(merge(sources), total, Spliterator.ORDERED | Spliterator.SORTED), false);
+    }
+
+    static final class IntMergeIterator implements PrimitiveIterator.OfInt {
+        private final int[][] sources;
+        private final int[] cursors;//每一路下一个要输出的位置
+        private final IndexedMinHeap heap;
+
+        IntMergeIterator(int[][] sources) {
+            this.sources = sources;
+            this.cursors = new int[sources.length];
+            this.heap = new IndexedMinHeap(sources.length);
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i].length > 0) {
+                    heap.insert(i, sources[i][0]);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public int nextInt() {
+            if (heap.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            int id = heap.peekId();
+            int[] source = sources[id];
+            int value = source[cursors[id]++];
+            if (cursors[id] < source.length) {
+                heap.increaseKey(id, source[cursors[id]]);
+            } else {
+                heap.remove(id);
+            }
+            return value;
+        }
+    }
+
+    static final class LongMergeIterator implements PrimitiveIterator.OfLong {
+        private final long[][] sources;
+        private final int[] cursors;
+        private final IndexedMinHeap heap;
+
+        LongMergeIterator(long[][] sources) {
+            this.sources = sources;
+            this.cursors = new int[sources.length];
+            this.heap = new IndexedMinHeap(sources.length);
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i].length > 0) {
+                    heap.insert(i, sources[i][0]);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public long nextLong() {
+            if (heap.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            int id = heap.peekId();
+            long[] source = sources[id];
+            long value = source[cursors[id]++];
+            if (cursors[id] < source.length) {
+                heap.increaseKey(id, source[cursors[id]]);
+            } else {
+                heap.remove(id);
+            }
+            return value;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] merged = mergedStream(new int[]{1, 4, 9}, new int[]{}, new int[]{2, 3, 10, 11}, new int[]{0, 4}).toArray();
+        System.out.println(Arrays.toString(merged));
+        long[] mergedLongs = mergedStream(new long[]{Long.MIN_VALUE, 5}, new long[]{-1, Long.MAX_VALUE}).toArray();
+        System.out.println(Arrays.toString(mergedLongs));
+    }
+}
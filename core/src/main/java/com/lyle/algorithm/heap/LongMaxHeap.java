@@ -0,0 +1,120 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * long 大顶堆（优先队列）
+ * 元素直接存放在 long[] 中，不装箱，除扩容外 push/pop 不分配任何对象
+ * <p>
+ * 下沉使用 {@link HeapSort#adjustHeap(long[], int, int)}
+ */
+public class LongMaxHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] heap;
+    private int size;
+
+    public LongMaxHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongMaxHeap(int initialCapacity) {
+        heap = new long[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * 由数组建堆，O(n)
+     */
+    public static LongMaxHeap heapify(long[] values) {
+        LongMaxHeap maxHeap = new LongMaxHeap(values.length);
+        System.arraycopy(values, 0, maxHeap.heap, 0, values.length);
+        maxHeap.size = values.length;
+        for (int i = values.length / 2 - 1; i >= 0; i--) {
+            HeapSort.adjustHeap(maxHeap.heap, i, maxHeap.size);
+        }
+        return maxHeap;
+    }
+
+    public void push(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size + (size >> 1) + 1);
+        }
+        siftUp(size++, value);
+    }
+
+    /**
+     * @return 堆顶（最大值）
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    public long pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = heap[0];
+        heap[0] = heap[--size];
+        if (size > 0) {
+            HeapSort.adjustHeap(heap, 0, size);
+        }
+        return top;
+    }
+
+    /**
+     * 用 value 替换堆顶并下沉
+     *
+     * @return 原来的堆顶
+     */
+    public long replaceTop(long value) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long top = heap[0];
+        heap[0] = value;
+        HeapSort.adjustHeap(heap, 0, size);
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 上浮：父节点比 value 小就把父节点移下来
+     */
+    private void siftUp(int index, long value) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    public static void main(String[] args) {
+        LongMaxHeap maxHeap = LongMaxHeap.heapify(new long[]{9, 98, 7, 6, 99, 4, 3, 32, 1});
+        maxHeap.push(50);
+        maxHeap.replaceTop(0);
+        StringBuilder sb = new StringBuilder();
+        while (!maxHeap.isEmpty()) {
+            sb.append(maxHeap.pop()).append(' ');
+        }
+        System.out.println(sb);
+    }
+}
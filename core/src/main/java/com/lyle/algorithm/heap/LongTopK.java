@@ -0,0 +1,64 @@
+package com.lyle.algorithm.heap;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * 流式 top-K：保留最大的 K 个 long，与 {@link IntTopK} 相同
+ * <p>
+ * 需要的是小顶堆，这里复用 {@link LongMaxHeap}，存入的是按位取反后的值：
+ * ~a > ~b 当且仅当 a < b，且取反不会像取负数那样在 Long.MIN_VALUE 上溢出
+ */
+public class LongTopK {
+    private final int k;
+    private final LongMaxHeap heap;//存放 ~value
+
+    public LongTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than 0");
+        }
+        this.k = k;
+        this.heap = new LongMaxHeap(k);
+    }
+
+    /**
+     * 取流中最大的 k 个元素，按从大到小排列
+     */
+    public static long[] of(LongStream stream, int k) {
+        return stream.collect(() -> new LongTopK(k), LongTopK::accept, LongTopK::combine).toSortedArray();
+    }
+
+    public void accept(long value) {
+        if (heap.size() < k) {
+            heap.push(~value);
+        } else if (value > ~heap.peek()) {
+            heap.replaceTop(~value);
+        }
+    }
+
+    /**
+     * 合并另一个分段的结果，合并后 other 被清空
+     */
+    public void combine(LongTopK other) {
+        while (!other.heap.isEmpty()) {
+            accept(~other.heap.pop());
+        }
+    }
+
+    /**
+     * 按从大到小输出，输出后清空
+     */
+    public long[] toSortedArray() {
+        long[] result = new long[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = ~heap.pop();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        long[] top = LongTopK.of(new Random(42).longs(10_000_000).parallel(), 5);
+        System.out.println(Arrays.toString(top));
+    }
+}
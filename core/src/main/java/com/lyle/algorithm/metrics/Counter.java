@@ -0,0 +1,43 @@
+package com.lyle.algorithm.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数器，基于 LongAdder：多线程同时累加时各自落在不同的 cell 上，不会争抢同一个缓存行
+ * <p>
+ * {@link Metrics#ENABLED} 为 false 时所有方法都是空操作，JIT 会把调用整体消除
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (Metrics.ENABLED) {
+            adder.increment();
+        }
+    }
+
+    public void decrement() {
+        if (Metrics.ENABLED) {
+            adder.decrement();
+        }
+    }
+
+    public void add(long delta) {
+        if (Metrics.ENABLED) {
+            adder.add(delta);
+        }
+    }
+
+    public long sum() {
+        return adder.sum();
+    }
+}
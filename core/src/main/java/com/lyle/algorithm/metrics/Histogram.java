@@ -0,0 +1,177 @@
+package com.lyle.algorithm.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数分桶的直方图，用于记录耗时（纳秒）、查找步数这类非负整数，思路与 HdrHistogram 相同
+ * <p>
+ * 0 ~ 15 每个值一个桶；更大的值按最高位所在的位置分组，每组再按最高位之后的 4 位分成 16 个桶：
+ * <pre>
+ *     [16, 32)   每个桶宽 1
+ *     [32, 64)   每个桶宽 2
+ *     [64, 128)  每个桶宽 4
+ *     ......
+ * </pre>
+ * 每个桶的相对误差不超过 1/16，全部 long 范围只需要 960 个桶
+ * <p>
+ * 为了减少多线程记录时的争用，桶按线程 id 分成若干份（stripe），读取时再加总。
+ * {@link Metrics#ENABLED} 为 false 时不分配桶，record 是空操作
+ */
+public final class Histogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+    private final String name;
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name) {
+        this.name = name;
+        int stripeCount = Metrics.ENABLED ? Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors() * 2)) : 0;
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param value 负数按 0 记录
+     */
+    public void record(long value) {
+        if (Metrics.ENABLED) {
+            value = Math.max(value, 0);
+            stripes[(int) Thread.currentThread().getId() & stripeMask].getAndIncrement(indexOf(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+    }
+
+    /**
+     * 计时开始，与 {@link #recordSince(long)} 配合使用；关闭时不读时钟
+     */
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 记录从 {@link #start()} 到现在经过的纳秒数
+     */
+    public void recordSince(long startNanos) {
+        if (Metrics.ENABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new Snapshot(count.sum(), sum.sum(), max.get(), counts);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);//最高位的位置，>= SUB_BUCKET_BITS
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return 桶 index 中的最小值
+     */
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return 桶 index 中的最大值
+     */
+    static long upperBound(int index) {
+        return index + 1 >= BUCKETS ? Long.MAX_VALUE : lowerBound(index + 1) - 1;
+    }
+
+    /**
+     * 某一时刻的直方图，不再变化
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long[] counts;
+
+        Snapshot(long count, long sum, long max, long[] counts) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.counts = counts;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile 0 ~ 100
+         * @return 不小于 percentile% 的记录值的桶上界，不超过 max
+         */
+        public long getValueAtPercentile(double percentile) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1f p50=%d p99=%d p999=%d max=%d", count, getMean(),
+                    getValueAtPercentile(50), getValueAtPercentile(99), getValueAtPercentile(99.9), max);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.lyle.algorithm.metrics;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按实例汇总的仪表：读取时对所有仍然存活的实例调用 reader 再求和，例如所有跳表的节点总数
+ * <p>
+ * 实例以弱引用登记，不再被引用的实例被 GC 回收后自动从汇总中消失，
+ * 不会像累加计数器那样把丢弃的实例一直算在里面。
+ * {@link Metrics#ENABLED} 为 false 时 register 是空操作
+ */
+public final class InstanceGauge<T> {
+    private final Set<T> instances = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final ToLongFunction<? super T> reader;
+
+    InstanceGauge(ToLongFunction<? super T> reader) {
+        this.reader = reader;
+    }
+
+    public void register(T instance) {
+        if (Metrics.ENABLED) {
+            instances.add(instance);
+        }
+    }
+
+    long sum() {
+        long sum = 0;
+        synchronized (instances) {
+            for (T instance : instances) {
+                sum += reader.applyAsLong(instance);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,110 @@
+package com.lyle.algorithm.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 热点路径上的指标：计数器 {@link Counter}、直方图 {@link Histogram}、仪表（gauge，读取时回调，按实例汇总的见 {@link InstanceGauge}）
+ * <p>
+ * 默认关闭，启动时加 -Dcom.lyle.algorithm.metrics=true 打开。
+ * ENABLED 是 static final 常量，关闭时 JIT 把 {@code if (Metrics.ENABLED)} 整段当作死代码删掉，
+ * 热点路径上不多一次读内存、不多一个分支；运行中不能再切换
+ * <p>
+ * 打开后读取指标有两种方式：
+ * <pre>
+ *     拉取     Metrics.snapshot()
+ *     JMX      ObjectName = com.lyle.algorithm:type=Metrics，类加载时自动注册
+ * </pre>
+ * 指标按名字注册，同名返回同一个实例，一般放在使用方的 static final 字段里
+ * <p>
+ * 本包不依赖任何算法包，演示见 {@code com.lyle.algorithm.MetricsDemo}
+ */
+public final class Metrics {
+
+    public static final String PROPERTY = "com.lyle.algorithm.metrics";
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+    public static final String OBJECT_NAME = "com.lyle.algorithm:type=Metrics";
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * 注册一个仪表，读取指标时才调用 supplier；关闭时不注册
+     */
+    public static void gauge(String name, LongSupplier supplier) {
+        if (ENABLED) {
+            GAUGES.put(name, supplier);
+        }
+    }
+
+    /**
+     * 注册一个按实例汇总的仪表，实例创建时调用 {@link InstanceGauge#register}，读取时对存活的实例求和
+     */
+    public static <T> InstanceGauge<T> instanceGauge(String name, ToLongFunction<? super T> reader) {
+        InstanceGauge<T> gauge = new InstanceGauge<>(reader);
+        gauge(name, gauge::sum);
+        return gauge;
+    }
+
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new HashMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        Map<String, Long> gauges = new HashMap<>();
+        GAUGES.forEach((name, gauge) -> gauges.put(name, gauge.getAsLong()));
+        Map<String, Histogram.Snapshot> histograms = new HashMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> histograms.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(counters, gauges, histograms);
+    }
+
+    /**
+     * 把指标注册到平台 MBeanServer，重复调用无副作用
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("register metrics mbean failed", e);
+        }
+    }
+
+    static Map<String, Counter> counters() {
+        return COUNTERS;
+    }
+
+    static Map<String, Histogram> histograms() {
+        return HISTOGRAMS;
+    }
+
+    static Map<String, LongSupplier> gauges() {
+        return GAUGES;
+    }
+}
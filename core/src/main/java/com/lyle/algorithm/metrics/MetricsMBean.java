@@ -0,0 +1,109 @@
+package com.lyle.algorithm.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 把 {@link Metrics} 中的指标暴露为 JMX 只读属性（jconsole / VisualVM 中可见）
+ * <p>
+ * 指标是运行时动态注册的，所以用 DynamicMBean，每次 getMBeanInfo 都按当前的指标重新生成属性列表：
+ * <pre>
+ *     计数器、仪表       name
+ *     直方图             name.count / name.mean / name.p50 / name.p99 / name.p999 / name.max
+ * </pre>
+ */
+class MetricsMBean implements DynamicMBean {
+
+    private static final String[] HISTOGRAM_FIELDS = {"count", "mean", "p50", "p99", "p999", "max"};
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Counter counter = Metrics.counters().get(attribute);
+        if (counter != null) {
+            return counter.sum();
+        }
+        Map<String, LongSupplier> gauges = Metrics.gauges();
+        if (gauges.containsKey(attribute)) {
+            return gauges.get(attribute).getAsLong();
+        }
+        int dot = attribute.lastIndexOf('.');
+        if (dot > 0) {
+            Histogram histogram = Metrics.histograms().get(attribute.substring(0, dot));
+            if (histogram != null) {
+                Histogram.Snapshot snapshot = histogram.snapshot();
+                switch (attribute.substring(dot + 1)) {
+                    case "count":
+                        return snapshot.getCount();
+                    case "mean":
+                        return snapshot.getMean();
+                    case "p50":
+                        return snapshot.getValueAtPercentile(50);
+                    case "p99":
+                        return snapshot.getValueAtPercentile(99);
+                    case "p999":
+                        return snapshot.getValueAtPercentile(99.9);
+                    case "max":
+                        return snapshot.getMax();
+                    default:
+                }
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) {
+        throw new UnsupportedOperationException("metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException ignored) {
+                //按 DynamicMBean 的约定，取不到的属性直接略过
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : Metrics.counters().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, "long", "counter", true, false, false));
+        }
+        for (String name : Metrics.gauges().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, "long", "gauge", true, false, false));
+        }
+        for (String name : Metrics.histograms().keySet()) {
+            for (String field : HISTOGRAM_FIELDS) {
+                String type = "mean".equals(field) ? "double" : "long";
+                attributes.add(new MBeanAttributeInfo(name + "." + field, type, "histogram " + field, true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "com.lyle.algorithm metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+}
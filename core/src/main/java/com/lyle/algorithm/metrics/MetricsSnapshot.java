@@ -0,0 +1,41 @@
+package com.lyle.algorithm.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 某一时刻全部指标的值，由 {@link Metrics#snapshot()} 生成，按名字排序
+ */
+public final class MetricsSnapshot {
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, Histogram.Snapshot> histograms;
+
+    MetricsSnapshot(Map<String, Long> counters, Map<String, Long> gauges, Map<String, Histogram.Snapshot> histograms) {
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.gauges = Collections.unmodifiableMap(new TreeMap<>(gauges));
+        this.histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, Histogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        counters.forEach((name, value) -> sb.append(name).append(" = ").append(value).append('\n'));
+        gauges.forEach((name, value) -> sb.append(name).append(" = ").append(value).append('\n'));
+        histograms.forEach((name, value) -> sb.append(name).append(": ").append(value).append('\n'));
+        return sb.toString();
+    }
+}
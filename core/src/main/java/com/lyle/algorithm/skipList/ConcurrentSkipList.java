@@ -0,0 +1,249 @@
+package com.lyle.algorithm.skipList;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/**
+ * 无锁并发跳表，key 的用法与 {@link SkipList} 一致（int key）
+ * <p>
+ * 1. 每个 key 只有一个节点，节点内部按层保存后继指针，指针通过 CAS 修改
+ * 2. 删除分两步：先逻辑删除（在每一层的后继指针上打标记），再物理摘除
+ * 3. search 不修改任何指针，也不重试，是 wait-free 的
+ * <p>
+ * add/delete 的线性化点都在最底层指针的 CAS 上，search 以最底层看到的节点是否被标记为准
+ *
+ * <a href="https://www.cs.tau.ac.il/~shanir/concurrent-data-structures.pdf">参考：The Art of Multiprocessor Programming 14.4</a>
+ */
+public class ConcurrentSkipList<T> {
+
+    static final int MAX_LEVEL = 32;//最大的层
+
+    private final Node<T> head;//头节点，key 为 Integer.MIN_VALUE
+    private final Node<T> tail;//尾节点，key 为 Integer.MAX_VALUE
+
+    public ConcurrentSkipList() {
+        head = new Node<>(Integer.MIN_VALUE, null, MAX_LEVEL);
+        tail = new Node<>(Integer.MAX_VALUE, null, MAX_LEVEL);
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i].set(tail, false);
+        }
+    }
+
+    /**
+     * 查找 key 对应的 value，不存在返回 null
+     * 遇到被标记的节点直接跳过，不帮忙摘除，所以不会因为并发修改而重试
+     */
+    public T search(int key) {
+        checkKey(key);
+        boolean[] marked = {false};
+        Node<T> pred = head, curr = null, succ;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (true) {
+                succ = curr.next[level].get(marked);
+                while (marked[0]) {//跳过已逻辑删除的节点
+                    curr = succ;
+                    succ = curr.next[level].get(marked);
+                }
+                if (curr.key < key) {//右侧比较小向右
+                    pred = curr;
+                    curr = succ;
+                } else {//需要下降去寻找
+                    break;
+                }
+            }
+        }
+        return curr.key == key ? curr.value : null;
+    }
+
+    /**
+     * 添加节点，key 已存在时覆盖 value
+     *
+     * @return key 原先不存在返回 true
+     */
+    public boolean add(int key, T value) {
+        checkKey(key);
+        int topLevel = randomLevel();
+        Node<T>[] preds = newNodeArray(MAX_LEVEL);
+        Node<T>[] succs = newNodeArray(MAX_LEVEL);
+        while (true) {
+            if (find(key, preds, succs)) {//已存在，覆盖 value
+                succs[0].value = value;
+                return false;
+            }
+            Node<T> newNode = new Node<>(key, value, topLevel);
+            for (int level = 0; level < topLevel; level++) {
+                newNode.next[level].set(succs[level], false);
+            }
+            //先链入最底层，成功即视为添加成功（线性化点）
+            if (!preds[0].next[0].compareAndSet(succs[0], newNode, false, false)) {
+                continue;
+            }
+            //再自底向上链入其余各层，失败就重新定位前驱
+            for (int level = 1; level < topLevel; level++) {
+                while (true) {
+                    Node<T> succ = newNode.next[level].getReference();
+                    if (succ != succs[level] && !newNode.next[level].compareAndSet(succ, succs[level], false, false)) {
+                        //newNode 已被其他线程标记删除，不需要再向上链入
+                        return true;
+                    }
+                    if (preds[level].next[level].compareAndSet(succs[level], newNode, false, false)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 删除节点
+     *
+     * @return key 存在并由本线程删除返回 true
+     */
+    public boolean delete(int key) {
+        checkKey(key);
+        Node<T>[] preds = newNodeArray(MAX_LEVEL);
+        Node<T>[] succs = newNodeArray(MAX_LEVEL);
+        if (!find(key, preds, succs)) {
+            return false;
+        }
+        Node<T> victim = succs[0];
+        //自顶向下标记上层指针
+        for (int level = victim.topLevel - 1; level >= 1; level--) {
+            boolean[] marked = {false};
+            Node<T> succ = victim.next[level].get(marked);
+            while (!marked[0]) {
+                victim.next[level].attemptMark(succ, true);
+                succ = victim.next[level].get(marked);
+            }
+        }
+        //标记最底层指针，谁标记成功谁完成删除（线性化点）
+        boolean[] marked = {false};
+        Node<T> succ = victim.next[0].get(marked);
+        while (true) {
+            boolean iMarkedIt = victim.next[0].compareAndSet(succ, succ, false, true);
+            succ = victim.next[0].get(marked);
+            if (iMarkedIt) {
+                find(key, preds, succs);//借助 find 物理摘除
+                return true;
+            } else if (marked[0]) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 定位每一层的前驱和后继，顺带物理摘除遇到的已标记节点
+     *
+     * @return 最底层找到未标记的 key 返回 true
+     */
+    private boolean find(int key, Node<T>[] preds, Node<T>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<T> pred = head, curr, succ;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (true) {
+                    succ = curr.next[level].get(marked);
+                    while (marked[0]) {//curr 已被逻辑删除，尝试把它从 pred 后面摘掉
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (curr.key < key) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0].key == key;
+        }
+    }
+
+    /**
+     * 投掷硬币决定层数，[1, MAX_LEVEL]
+     */
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && random.nextBoolean()) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Integer.MIN_VALUE 和 Integer.MAX_VALUE 被头尾节点占用
+     */
+    private static void checkKey(int key) {
+        if (key == Integer.MIN_VALUE || key == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("key can't be %d", key));
+        }
+    }
+
+    public void printList() {
+        Node<T> node = head.next[0].getReference();
+        while (node != tail) {
+            if (!node.next[0].isMarked()) {
+                System.out.print(node.key + " ");
+            }
+            node = node.next[0].getReference();
+        }
+        System.out.println();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newNodeArray(int length) {
+        return (Node<T>[]) new Node<?>[length];
+    }
+
+    static final class Node<T> {
+        final int key;
+        volatile T value;
+        final AtomicMarkableReference<Node<T>>[] next;//每一层的后继，标记位表示本节点已被逻辑删除
+        final int topLevel;
+
+        @SuppressWarnings("unchecked")
+        Node(int key, T value, int topLevel) {
+            this.key = key;
+            this.value = value;
+            this.topLevel = topLevel;
+            this.next = (AtomicMarkableReference<Node<T>>[]) new AtomicMarkableReference<?>[topLevel];
+            for (int i = 0; i < topLevel; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        int threads = 8;
+        CountDownLatch cdl = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            new Thread(() -> {
+                for (int i = offset; i < 100; i += threads) {
+                    list.add(i, 666);
+                }
+                for (int i = offset; i < 100; i += threads * 2) {
+                    list.delete(i);
+                }
+                cdl.countDown();
+            }).start();
+        }
+        cdl.await();
+        list.printList();
+        System.out.println(list.search(9));
+        System.out.println(list.search(8));
+    }
+}
@@ -0,0 +1,244 @@
+package com.lyle.algorithm.skipList;
+
+import com.lyle.algorithm.metrics.Histogram;
+import com.lyle.algorithm.metrics.InstanceGauge;
+import com.lyle.algorithm.metrics.Metrics;
+
+/**
+ * 数组塔跳表
+ * <p>
+ * {@link SkipList} 中一个 key 晋升几层就会创建几个 SkipNode，插入时还要借助 Stack 记录每层的前驱。
+ * 这里每个 key 只创建一个节点，节点内用 next 数组保存各层的后继（next[0] 是最底层），
+ * 插入/删除时每层的前驱记录在复用的 update 数组中，除新节点本身外不再分配任何对象
+ * <p>
+ * 非线程安全，与 {@link SkipList} 一致
+ */
+public class IntSkipList<T> {
+    static final int MAX_LEVEL = 32;//最大的层
+
+    private final Node<T> head;//头节点，入口
+    private int level;//当前层数
+    private int size;
+    private int seed;//随机种子，xorshift 生成随机数，避免 Random 内部的 CAS
+    private final Node<T>[] update;//复用的前驱数组
+    private final boolean instrumented;//是否计入指标
+
+    //指标，所有实例共用，见 Metrics
+    static final Histogram searchHops = Metrics.histogram("intSkipList.searchHops");//一次查找比较的节点数
+    static final Histogram nodeLevels = Metrics.histogram("intSkipList.nodeLevel");//新节点的层数
+    static final InstanceGauge<IntSkipList<?>> nodes = Metrics.instanceGauge("intSkipList.nodes", IntSkipList::size);//存活实例的节点总数
+
+    public IntSkipList() {
+        this(true);
+    }
+
+    /**
+     * @param instrumented false 时不计入 intSkipList.* 指标，用于其他结构内部的跳表（如 {@link PersistentSkipList} 的修改集）
+     */
+    IntSkipList(boolean instrumented) {
+        head = new Node<>(Integer.MIN_VALUE, null, MAX_LEVEL);
+        level = 1;
+        seed = (int) System.nanoTime() | 1;
+        update = newNodeArray(MAX_LEVEL);
+        this.instrumented = instrumented;
+        if (Metrics.ENABLED && instrumented) {
+            nodes.register(this);
+        }
+    }
+
+    public T search(int key) {
+        Node<T> x = head;
+        int hops = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            Node<T> next;
+            while ((next = x.next[i]) != null && next.key < key) {//右侧比较小向右
+                x = next;
+                hops++;
+            }
+            hops++;//每层最后一次比较后下降
+        }
+        if (Metrics.ENABLED && instrumented) {
+            searchHops.record(hops);
+        }
+        x = x.next[0];
+        return x != null && x.key == key ? x.value : null;
+    }
+
+    /**
+     * 添加节点，key 已存在时覆盖 value
+     *
+     * @return key 原先不存在返回 true
+     */
+    public boolean add(int key, T value) {
+        Node<T>[] update = this.update;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            Node<T> next;
+            while ((next = x.next[i]) != null && next.key < key) {
+                x = next;
+            }
+            update[i] = x;//记录每一层向下的节点
+        }
+        x = x.next[0];
+        if (x != null && x.key == key) {
+            x.value = value;
+            return false;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {//新增的层前驱都是 head
+            for (int i = level; i < nodeLevel; i++) {
+                update[i] = head;
+            }
+            level = nodeLevel;
+        }
+        Node<T> node = new Node<>(key, value, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+        }
+        size++;
+        if (Metrics.ENABLED && instrumented) {
+            nodeLevels.record(nodeLevel);
+        }
+        return true;
+    }
+
+    /**
+     * @return key 存在并删除返回 true
+     */
+    public boolean delete(int key) {
+        Node<T>[] update = this.update;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            Node<T> next;
+            while ((next = x.next[i]) != null && next.key < key) {
+                x = next;
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || x.key != key) {
+            return false;
+        }
+        for (int i = 0; i < x.next.length; i++) {
+            update[i].next[i] = x.next[i];
+        }
+        while (level > 1 && head.next[level - 1] == null) {//去掉空层
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 最底层第一个节点，沿 next[0] 即可按 key 升序遍历
+     */
+    Node<T> first() {
+        return head.next[0];
+    }
+
+    /**
+     * 晋升概率 0.5：随机数末尾连续 1 的个数即晋升次数
+     */
+    private int randomLevel() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return Math.min(Integer.numberOfTrailingZeros(~x) + 1, MAX_LEVEL);
+    }
+
+    public void printList() {
+        for (int i = level - 1; i >= 0; i--) {
+            System.out.printf("%-8s", "head->");
+            Node<T> bottom = head.next[0];
+            Node<T> x = head.next[i];
+            while (bottom != null) {
+                if (x == bottom) {
+                    System.out.printf("%-5s", x.key + "->");
+                    x = x.next[i];
+                } else {
+                    System.out.printf("%-5s", "");
+                }
+                bottom = bottom.next[0];
+            }
+            System.out.println();
+        }
+    }
+
+    static final class Node<T> {
+        final int key;
+        T value;
+        final Node<T>[] next;//各层的后继，长度即节点层数
+
+        Node(int key, T value, int level) {
+            this.key = key;
+            this.value = value;
+            this.next = newNodeArray(level);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newNodeArray(int length) {
+        return (Node<T>[]) new Node<?>[length];
+    }
+
+    /**
+     * 与 {@link SkipList} 对比：每个 key 占用的堆内存（粗略，基于 Runtime）与单次 search 耗时
+     */
+    public static void main(String[] args) {
+        IntSkipList<Integer> list = new IntSkipList<>();
+        for (int i = 1; i < 10; i++) {
+            list.add(i, 666);
+        }
+        list.printList();
+        list.delete(5);
+        list.printList();
+
+        int n = 1_000_000;
+        Integer value = 666;
+        long before = usedMemory();
+        SkipList<Integer> old = new SkipList<>();
+        for (int i = 0; i < n; i++) {
+            old.add(i, value);
+        }
+        long oldBytes = usedMemory() - before;
+        before = usedMemory();
+        IntSkipList<Integer> tower = new IntSkipList<>();
+        for (int i = 0; i < n; i++) {
+            tower.add(i, value);
+        }
+        long towerBytes = usedMemory() - before;
+        System.out.printf("SkipList     bytes/entry: %.1f%n", (double) oldBytes / n);
+        System.out.printf("IntSkipList  bytes/entry: %.1f%n", (double) towerBytes / n);
+
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            long start = System.nanoTime();
+            long hit = 0;
+            for (int i = 0; i < n; i++) {
+                hit += old.search(i) != null ? 1 : 0;
+            }
+            long oldNs = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                hit += tower.search(i) != null ? 1 : 0;
+            }
+            long towerNs = System.nanoTime() - start;
+            System.out.printf("round %d  SkipList %.1f ns/search, IntSkipList %.1f ns/search (hit %d)%n",
+                    round, (double) oldNs / n, (double) towerNs / n, hit);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,261 @@
+package com.lyle.algorithm.skipList;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 堆外跳表：int key -> long value
+ * <p>
+ * key、value 和各层后继全部存放在堆外的 direct ByteBuffer 中，堆上只剩下几个 slab 的引用，
+ * 节点数量再多 GC 也不需要扫描。结构上与 {@link IntSkipList} 相同，每个 key 一个节点：
+ * <pre>
+ *     | key(4) | level(4) | value(8) | next[0](4) | next[1](4) | ... | next[level-1](4) |
+ * </pre>
+ * 节点地址以 8 字节为单位编码成 int，最多可寻址 16GB；地址 0 是 head，同时表示 null
+ * <p>
+ * 内存由 slab 分配器管理：按 SLAB_SIZE 申请 direct buffer，顺序切分；delete 掉的节点按层数
+ * 挂到对应的空闲链表上，下一次分配同样层数的节点时优先复用
+ * <p>
+ * 非线程安全。direct buffer 只能随 OffHeapSkipList 对象被回收时释放
+ */
+public class OffHeapSkipList {
+    static final int MAX_LEVEL = 32;//最大的层
+    private static final int NIL = 0;//空地址，head 占用地址 0，不会被任何节点指向
+
+    private static final int SLAB_SHIFT = 24;
+    private static final int SLAB_SIZE = 1 << SLAB_SHIFT;//每个 slab 16MB
+    private static final int ALIGN_SHIFT = 3;//地址按 8 字节对齐
+
+    private static final int KEY_OFFSET = 0;
+    private static final int LEVEL_OFFSET = 4;
+    private static final int VALUE_OFFSET = 8;
+    private static final int NEXT_OFFSET = 16;
+
+    private ByteBuffer[] slabs = new ByteBuffer[4];
+    private int slabCount;
+    private int bumpOffset;//当前 slab 中下一个可分配的位置
+    private final int[] freeList = new int[MAX_LEVEL + 1];//按层数划分的空闲链表，链接存放在 next[0]
+
+    private final int head;
+    private int level;//当前层数
+    private int size;
+    private int seed;
+    private final int[] update = new int[MAX_LEVEL];//复用的前驱数组
+
+    public OffHeapSkipList() {
+        head = allocate(MAX_LEVEL);
+        putInt(head, KEY_OFFSET, Integer.MIN_VALUE);
+        level = 1;
+        seed = (int) System.nanoTime() | 1;
+    }
+
+    /**
+     * @param notFound key 不存在时的返回值
+     */
+    public long search(int key, long notFound) {
+        int x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            int next;
+            while ((next = next(x, i)) != NIL && key(next) < key) {
+                x = next;
+            }
+        }
+        x = next(x, 0);
+        return x != NIL && key(x) == key ? getLong(x, VALUE_OFFSET) : notFound;
+    }
+
+    public boolean contains(int key) {
+        int x = findPredecessors(key);
+        return x != NIL && key(x) == key;
+    }
+
+    /**
+     * 添加节点，key 已存在时覆盖 value
+     *
+     * @return key 原先不存在返回 true
+     */
+    public boolean add(int key, long value) {
+        int x = findPredecessors(key);
+        if (x != NIL && key(x) == key) {
+            putLong(x, VALUE_OFFSET, value);
+            return false;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                update[i] = head;
+            }
+            level = nodeLevel;
+        }
+        int node = allocate(nodeLevel);
+        putInt(node, KEY_OFFSET, key);
+        putLong(node, VALUE_OFFSET, value);
+        for (int i = 0; i < nodeLevel; i++) {
+            setNext(node, i, next(update[i], i));
+            setNext(update[i], i, node);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * @return key 存在并删除返回 true
+     */
+    public boolean delete(int key) {
+        int x = findPredecessors(key);
+        if (x == NIL || key(x) != key) {
+            return false;
+        }
+        int nodeLevel = getInt(x, LEVEL_OFFSET);
+        for (int i = 0; i < nodeLevel; i++) {
+            setNext(update[i], i, next(x, i));
+        }
+        while (level > 1 && next(head, level - 1) == NIL) {
+            level--;
+        }
+        free(x, nodeLevel);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已申请的堆外内存字节数
+     */
+    public long reservedBytes() {
+        return (long) slabCount * SLAB_SIZE;
+    }
+
+    /**
+     * 把每一层的前驱记录到 update 中
+     *
+     * @return 最底层前驱的后继，即第一个 key 不小于目标的节点
+     */
+    private int findPredecessors(int key) {
+        int x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            int next;
+            while ((next = next(x, i)) != NIL && key(next) < key) {
+                x = next;
+            }
+            update[i] = x;
+        }
+        return next(x, 0);
+    }
+
+    //-------------------------------- slab 分配器 --------------------------------
+
+    private int allocate(int nodeLevel) {
+        int addr = freeList[nodeLevel];
+        if (addr != NIL) {//复用已删除的节点
+            freeList[nodeLevel] = next(addr, 0);
+        } else {
+            int bytes = (NEXT_OFFSET + 4 * nodeLevel + 7) & ~7;
+            if (slabCount == 0 || bumpOffset + bytes > SLAB_SIZE) {
+                newSlab();
+            }
+            long position = ((long) (slabCount - 1) << SLAB_SHIFT) + bumpOffset;
+            if ((position >>> ALIGN_SHIFT) > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError("OffHeapSkipList can't address more than 16GB");
+            }
+            addr = (int) (position >>> ALIGN_SHIFT);
+            bumpOffset += bytes;
+        }
+        putInt(addr, LEVEL_OFFSET, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            setNext(addr, i, NIL);
+        }
+        return addr;
+    }
+
+    private void free(int addr, int nodeLevel) {
+        setNext(addr, 0, freeList[nodeLevel]);
+        freeList[nodeLevel] = addr;
+    }
+
+    private void newSlab() {
+        if (slabCount == slabs.length) {
+            slabs = Arrays.copyOf(slabs, slabs.length * 2);
+        }
+        slabs[slabCount++] = ByteBuffer.allocateDirect(SLAB_SIZE).order(ByteOrder.nativeOrder());
+        bumpOffset = 0;
+    }
+
+    //-------------------------------- 节点字段访问 --------------------------------
+
+    private int key(int addr) {
+        return getInt(addr, KEY_OFFSET);
+    }
+
+    private int next(int addr, int i) {
+        return getInt(addr, NEXT_OFFSET + 4 * i);
+    }
+
+    private void setNext(int addr, int i, int next) {
+        putInt(addr, NEXT_OFFSET + 4 * i, next);
+    }
+
+    private ByteBuffer slab(int addr) {
+        return slabs[addr >>> (SLAB_SHIFT - ALIGN_SHIFT)];
+    }
+
+    private static int offset(int addr, int field) {
+        return ((addr << ALIGN_SHIFT) & (SLAB_SIZE - 1)) + field;
+    }
+
+    private int getInt(int addr, int field) {
+        return slab(addr).getInt(offset(addr, field));
+    }
+
+    private void putInt(int addr, int field, int value) {
+        slab(addr).putInt(offset(addr, field), value);
+    }
+
+    private long getLong(int addr, int field) {
+        return slab(addr).getLong(offset(addr, field));
+    }
+
+    private void putLong(int addr, int field, long value) {
+        slab(addr).putLong(offset(addr, field), value);
+    }
+
+    private int randomLevel() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return Math.min(Integer.numberOfTrailingZeros(~x) + 1, MAX_LEVEL);
+    }
+
+    public void printList() {
+        int x = next(head, 0);
+        while (x != NIL) {
+            System.out.print(key(x) + "=" + getLong(x, VALUE_OFFSET) + " ");
+            x = next(x, 0);
+        }
+        System.out.println();
+    }
+
+    public static void main(String[] args) {
+        OffHeapSkipList list = new OffHeapSkipList();
+        for (int i = 1; i < 10; i++) {
+            list.add(i, i * 100L);
+        }
+        list.printList();
+        list.delete(5);
+        list.add(50, 5000L);//复用 5 的节点空间（层数相同时）
+        list.printList();
+        System.out.println(list.search(50, -1L) + " " + list.search(5, -1L));
+
+        int n = 5_000_000;
+        for (int i = 0; i < n; i++) {
+            list.add(i, i);
+        }
+        System.out.println("size " + list.size() + ", off-heap bytes " + list.reservedBytes());
+    }
+}
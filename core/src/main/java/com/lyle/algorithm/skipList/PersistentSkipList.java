@@ -0,0 +1,432 @@
+package com.lyle.algorithm.skipList;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 持久化跳表：int key -> long value
+ * <p>
+ * 目录下有两个文件：
+ * <pre>
+ * checkpoint.dat  | magic(4) | count(8) | key(4) value(8) | key(4) value(8) | ...   按 key 升序
+ * wal.log         | op(1) | key(4) | value(8) | crc32(4) | ...                      追加写
+ * </pre>
+ * 1. add/delete 先追加到 wal.log，再写入内存中的 {@link IntSkipList}（只保存上次 checkpoint 之后的修改，删除记为墓碑）
+ * 2. checkpoint() 把 checkpoint.dat 与内存中的修改归并成新的有序文件，写临时文件后原子改名，再清空 wal.log；
+ *    wal.log 中的记录数达到 checkpointInterval 时自动 checkpoint，wal.log 和内存中的修改不会无限增长
+ * 3. open 时只 mmap checkpoint.dat，不做反序列化；最底层就是映射文件本身，
+ *    上层索引（每 INDEX_INTERVAL 个 key 取一个）在第一次查找时才构建
+ * 4. wal.log 按记录校验 crc，遇到写了一半的尾部记录直接截断，之前的记录照常重放；
+ *    重放只写入内存中的修改（删除一律记为墓碑），不查 checkpoint.dat，所以 open 时不会构建上层索引，
+ *    size 在第一次使用时再由修改与 checkpoint.dat 算出
+ * <p>
+ * 先 checkpoint 改名并 force 所在目录、后清空 wal.log，中间崩溃时重放 wal.log 得到的结果不变
+ * <p>
+ * 非线程安全
+ */
+public class PersistentSkipList implements Closeable {
+    private static final String CHECKPOINT = "checkpoint.dat";
+    private static final String WAL = "wal.log";
+
+    private static final int MAGIC = 0x534B4950;//"SKIP"
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 12;//key(4) + value(8)
+    private static final int RECORDS_PER_CHUNK = (1 << 30) / RECORD_BYTES;//一个 MappedByteBuffer 最多 2GB，按 1GB 分段映射
+    private static final int INDEX_INTERVAL = 64;//上层索引的间隔
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 1 << 20;//wal.log 中 1M 条记录（17MB）时自动 checkpoint
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int WAL_RECORD_BYTES = 17;//op(1) + key(4) + value(8) + crc(4)
+    private static final Object TOMBSTONE = new Object();//删除标记
+
+    private final Path dir;
+    private final boolean syncEveryWrite;//每次修改后是否 force 到磁盘
+    private final long checkpointInterval;//wal.log 中的记录数达到这个值时自动 checkpoint
+    private final FileChannel wal;
+    private final ByteBuffer walBuffer = ByteBuffer.allocate(WAL_RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer[] chunks;//checkpoint.dat 的映射，最底层
+    private long baseCount;
+    private int[] index;//上层索引，懒加载
+    private IntSkipList<Object> delta = new IntSkipList<>(false);//checkpoint 之后的修改，value 为 Long 或 TOMBSTONE
+    private long size;//-1 表示还没有算出来，见 size()
+    private long walRecords;//wal.log 中的记录数
+
+    private PersistentSkipList(Path dir, boolean syncEveryWrite, long checkpointInterval) throws IOException {
+        this.dir = dir;
+        this.syncEveryWrite = syncEveryWrite;
+        this.checkpointInterval = checkpointInterval;
+        Files.createDirectories(dir);
+        mapCheckpoint();
+        wal = FileChannel.open(dir.resolve(WAL), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            replayWal();
+        } catch (IOException | RuntimeException e) {//构造失败时调用方拿不到实例，这里关闭 wal.log 并释放映射
+            try {
+                wal.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            chunks = null;//MappedByteBuffer 没有显式 unmap，去掉引用后由 GC 解除映射
+            delta = null;
+            throw e;
+        }
+    }
+
+    /**
+     * 打开（或创建）目录下的跳表
+     *
+     * @param syncEveryWrite true 时每次修改都 force 到磁盘，否则只在 checkpoint/close 时 force
+     */
+    public static PersistentSkipList open(Path dir, boolean syncEveryWrite) throws IOException {
+        return open(dir, syncEveryWrite, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * @param checkpointInterval wal.log 中的记录数达到这个值时自动 checkpoint，Long.MAX_VALUE 表示只手动 checkpoint
+     */
+    public static PersistentSkipList open(Path dir, boolean syncEveryWrite, long checkpointInterval) throws IOException {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("checkpointInterval must be greater than 0");
+        }
+        return new PersistentSkipList(dir, syncEveryWrite, checkpointInterval);
+    }
+
+    /**
+     * @param notFound key 不存在时的返回值
+     */
+    public long search(int key, long notFound) {
+        Object v = delta.search(key);
+        if (v == TOMBSTONE) {
+            return notFound;
+        }
+        if (v != null) {
+            return (Long) v;
+        }
+        long i = baseSearch(key);
+        return i >= 0 ? baseValue(i) : notFound;
+    }
+
+    public boolean contains(int key) {
+        Object v = delta.search(key);
+        return v != null ? v != TOMBSTONE : baseSearch(key) >= 0;
+    }
+
+    /**
+     * 添加节点，key 已存在时覆盖 value
+     *
+     * @return key 原先不存在返回 true
+     */
+    public boolean add(int key, long value) {
+        boolean absent = !contains(key);
+        appendWal(OP_PUT, key, value);
+        delta.add(key, value);
+        if (absent && size >= 0) {
+            size++;
+        }
+        maybeCheckpoint();
+        return absent;
+    }
+
+    /**
+     * @return key 存在并删除返回 true
+     */
+    public boolean delete(int key) {
+        if (!contains(key)) {
+            return false;
+        }
+        appendWal(OP_DELETE, key, 0L);
+        applyDelete(key);
+        if (size >= 0) {
+            size--;
+        }
+        maybeCheckpoint();
+        return true;
+    }
+
+    public long size() {
+        if (size < 0) {//重放过 wal.log，按修改逐个对照 checkpoint.dat
+            long n = baseCount;
+            for (IntSkipList.Node<Object> node = delta.first(); node != null; node = node.next[0]) {
+                boolean inBase = baseSearch(node.key) >= 0;
+                if (node.value == TOMBSTONE) {
+                    n -= inBase ? 1 : 0;
+                } else {
+                    n += inBase ? 0 : 1;
+                }
+            }
+            size = n;
+        }
+        return size;
+    }
+
+    /**
+     * 把内存中的修改与 checkpoint.dat 归并成新的 checkpoint，然后清空 wal.log
+     */
+    public void checkpoint() throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+            buffer.position(HEADER_BYTES);
+            long count = 0;
+            long i = 0;
+            IntSkipList.Node<Object> node = delta.first();
+            while (i < baseCount || node != null) {//有序归并，墓碑直接丢弃
+                int key;
+                long value;
+                if (node == null || (i < baseCount && baseKey(i) < node.key)) {
+                    key = baseKey(i);
+                    value = baseValue(i++);
+                } else {
+                    if (i < baseCount && baseKey(i) == node.key) {
+                        i++;//被 delta 覆盖
+                    }
+                    key = node.key;
+                    Object v = node.value;
+                    node = node.next[0];
+                    if (v == TOMBSTONE) {
+                        continue;
+                    }
+                    value = (Long) v;
+                }
+                if (buffer.remaining() < RECORD_BYTES) {
+                    writeFully(out, buffer);
+                }
+                buffer.putInt(key).putLong(value);
+                count++;
+            }
+            writeFully(out, buffer);
+            buffer.putInt(MAGIC).putLong(count);
+            buffer.flip();
+            out.write(buffer, 0);
+            out.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(dir);//改名先落盘，否则崩溃后可能留下清空的 wal.log 和旧的 checkpoint.dat
+        wal.truncate(0);
+        wal.force(true);
+        walRecords = 0;
+        delta = new IntSkipList<>(false);
+        mapCheckpoint();
+        size = baseCount;
+    }
+
+    private void maybeCheckpoint() {
+        if (walRecords >= checkpointInterval) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * force 目录本身，使其中的改名落盘；部分平台（如 Windows）不能以读方式打开目录，忽略
+     */
+    private static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        wal.force(true);
+        wal.close();
+    }
+
+    //-------------------------------- checkpoint.dat --------------------------------
+
+    private void mapCheckpoint() throws IOException {
+        Path path = dir.resolve(CHECKPOINT);
+        index = null;
+        if (!Files.exists(path)) {
+            chunks = new MappedByteBuffer[0];
+            baseCount = 0;
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Corrupted checkpoint file: " + path);
+            }
+            baseCount = header.getLong();
+            int chunkCount = (int) ((baseCount + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK);
+            chunks = new MappedByteBuffer[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long records = Math.min(RECORDS_PER_CHUNK, baseCount - (long) c * RECORDS_PER_CHUNK);
+                long position = HEADER_BYTES + (long) c * RECORDS_PER_CHUNK * RECORD_BYTES;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position, records * RECORD_BYTES);
+            }
+        }
+    }
+
+    private int baseKey(long i) {
+        return chunks[(int) (i / RECORDS_PER_CHUNK)].getInt((int) (i % RECORDS_PER_CHUNK) * RECORD_BYTES);
+    }
+
+    private long baseValue(long i) {
+        return chunks[(int) (i / RECORDS_PER_CHUNK)].getLong((int) (i % RECORDS_PER_CHUNK) * RECORD_BYTES + 4);
+    }
+
+    /**
+     * 先在上层索引中二分定位区间，再在映射文件的该区间内二分
+     *
+     * @return 下标，不存在返回 -1
+     */
+    private long baseSearch(int key) {
+        if (baseCount == 0) {
+            return -1;
+        }
+        int[] index = this.index;
+        if (index == null) {
+            index = buildIndex();
+        }
+        int lo = 0, hi = index.length - 1, block = -1;
+        while (lo <= hi) {//最后一个 <= key 的索引
+            int mid = (lo + hi) >>> 1;
+            if (index[mid] <= key) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+        long low = (long) block * INDEX_INTERVAL;
+        long high = Math.min(low + INDEX_INTERVAL, baseCount) - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int k = baseKey(mid);
+            if (k < key) {
+                low = mid + 1;
+            } else if (k > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int[] buildIndex() {
+        int[] index = new int[(int) ((baseCount + INDEX_INTERVAL - 1) / INDEX_INTERVAL)];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = baseKey((long) i * INDEX_INTERVAL);
+        }
+        return this.index = index;
+    }
+
+    //-------------------------------- wal.log --------------------------------
+
+    private void appendWal(byte op, int key, long value) {
+        walBuffer.clear();
+        walBuffer.put(op).putInt(key).putLong(value);
+        crc.reset();
+        crc.update(walBuffer.array(), 0, WAL_RECORD_BYTES - 4);
+        walBuffer.putInt((int) crc.getValue());
+        try {
+            writeFully(wal, walBuffer);
+            walRecords++;
+            if (syncEveryWrite) {
+                wal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 重放 wal.log，截断末尾不完整或校验失败的记录
+     */
+    private void replayWal() throws IOException {
+        long valid = 0;
+        byte[] record = new byte[WAL_RECORD_BYTES];
+        InputStream in = new BufferedInputStream(Channels.newInputStream(wal.position(0)), 1 << 16);
+        DataInputStream data = new DataInputStream(in);
+        while (true) {
+            try {
+                data.readFully(record);
+            } catch (EOFException e) {
+                break;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            byte op = buffer.get();
+            int key = buffer.getInt();
+            long value = buffer.getLong();
+            crc.reset();
+            crc.update(record, 0, WAL_RECORD_BYTES - 4);
+            if (buffer.getInt() != (int) crc.getValue() || (op != OP_PUT && op != OP_DELETE)) {
+                break;
+            }
+            delta.add(key, op == OP_PUT ? (Object) value : TOMBSTONE);//墓碑对 checkpoint.dat 中没有的 key 也无害
+            valid += WAL_RECORD_BYTES;
+            walRecords++;
+        }
+        wal.truncate(valid);
+        wal.position(valid);
+        size = valid == 0 ? baseCount : -1;
+    }
+
+    private void applyDelete(int key) {
+        if (baseSearch(key) >= 0) {
+            delta.add(key, TOMBSTONE);//底层文件中有，需要墓碑覆盖
+        } else {
+            delta.delete(key);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("skiplist");
+        int n = 5_000_000;
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+            for (int i = 0; i < n; i++) {
+                list.add(i, i * 10L);
+            }
+            list.checkpoint();
+            list.delete(7);
+            list.add(n, 1L);//只在 wal.log 中
+        }
+        long start = System.nanoTime();
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+            System.out.printf("reopen in %.1f ms, %d keys%n", (System.nanoTime() - start) / 1e6, list.size());
+            System.out.println(list.search(6, -1L) + " " + list.search(7, -1L) + " " + list.search(n, -1L));
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.lyle.algorithm.skipList;
+
+import com.lyle.algorithm.metrics.Histogram;
+import com.lyle.algorithm.metrics.InstanceGauge;
+import com.lyle.algorithm.metrics.Metrics;
+
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Stack;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <a href="https://zhuanlan.zhihu.com/p/339750543">参考地址</a>
+ */
+public class SkipList<T> {
+    SkipNode<T> entrypoint;//头节点，入口
+    int layer;//层数
+    Random random;// 用于投掷硬币
+    final int MAX_LEVEL = 32;//最大的层
+    int size;//最底层节点个数
+
+    //指标，所有实例共用，见 Metrics
+    static final Histogram searchHops = Metrics.histogram("skipList.searchHops");//一次查找经过的节点数
+    static final Histogram nodeLevels = Metrics.histogram("skipList.nodeLevel");//新节点的层数
+    static final InstanceGauge<SkipList<?>> nodes = Metrics.instanceGauge("skipList.nodes", list -> list.size);//存活实例的节点总数
+
+    SkipList() {
+        random = new Random();
+        entrypoint = new SkipNode<>(Integer.MIN_VALUE, null);
+        layer = 0;
+        nodes.register(this);
+    }
+
+    /**
+     * 创建空跳表，供包外使用（构造器包内可见）
+     */
+    public static <T> SkipList<T> create() {
+        return new SkipList<>();
+    }
+
+    public SkipNode<T> search(int key) {
+        SkipNode<T> team = entrypoint;
+        int hops = 0;
+        while (team != null) {
+            hops++;
+            if (team.key == key) {
+                searchHops.record(hops);
+                return team;
+            } else if (team.right == null) {//右侧没有了，只能下降
+                team = team.down;
+            } else if (team.right.key > key) {//需要下降去寻找
+                team = team.down;
+            } else {//右侧比较小向右
+                team = team.right;
+            }
+        }
+        searchHops.record(hops);
+        return null;
+    }
+
+    public void delete(int key) {//删除不需要考虑层数
+        SkipNode<T> team = entrypoint;
+        while (team != null) {
+            if (team.right == null) {//右侧没有了，说明这一层找到，没有只能下降
+                team = team.down;
+            } else if (team.right.key == key) {//找到节点，右侧即为待删除节点
+                team.right = team.right.right;//删除右侧节点
+                if (team.down == null) {//最底层删除才算删除了一个节点
+                    size--;
+                }
+                team = team.down;//向下继续查找删除
+            } else if (team.right.key > key) {//右侧已经不可能了，向下
+                team = team.down;
+            } else { //节点还在右侧
+                team = team.right;
+            }
+        }
+    }
+
+    /**
+     * 添加节点，key 已存在时覆盖 value
+     */
+    public void add(int key, T value) {
+        add(new SkipNode<>(key, value));
+    }
+
+    public void add(SkipNode<T> node) {
+        int key = node.key;
+        SkipNode<T> findNode = search(key);
+        if (findNode != null) {//如果存在这个key的节点
+            while (findNode != null) {//search 可能停在上层，同一 key 的每一层都要更新
+                findNode.value = node.value;
+                findNode = findNode.down;
+            }
+            return;
+        }
+        Stack<SkipNode<T>> stack = new Stack<>();//存储向下的节点，这些节点可能在右侧插入节点
+        SkipNode<T> temp = entrypoint;//查找待插入的节点   找到最底层的哪个节点。
+        while (temp != null) {//进行查找操作
+            if (temp.right == null) {//右侧没有了，只能下降
+                stack.add(temp);//将曾经向下的节点记录一下
+                temp = temp.down;
+            } else if (temp.right.key > key) {//需要下降去寻找
+                stack.add(temp);//将曾经向下的节点记录一下
+                temp = temp.down;
+            } else {//向右
+                temp = temp.right;
+            }
+        }
+        size++;
+        int currentLayer = 1;//当前层数，从第一层添加(第一层必须添加，先添加再判断)
+        SkipNode<T> downNode = null;//保持前驱节点(即down的指向，初始为null)
+        while (!stack.isEmpty()) {
+            //在该层插入node
+            temp = stack.pop();//抛出待插入的左侧节点
+            SkipNode<T> insertNode = new SkipNode<>(node.key, node.value);//节点需要重新创建，因为在循环中
+            insertNode.down = downNode;//处理竖方向
+            downNode = insertNode;//标记新的节点下次使用
+            if (temp.right == null) {//右侧为null 说明插入在末尾
+                temp.right = insertNode;
+            } else {//右侧还有节点，插入在两者之间
+                insertNode.right = temp.right;
+                temp.right = insertNode;
+            }
+            //考虑是否需要向上
+            if (currentLayer > MAX_LEVEL)//已经到达最高级的节点啦
+                break;
+            double num = random.nextDouble();//[0-1]随机数
+            if (num > 0.5)//运气不好结束
+                break;
+            currentLayer++;
+            if (currentLayer > layer){
+                layer = currentLayer;
+                //需要创建一个新的节点
+                SkipNode<T> newEntryPoint = new SkipNode<>(Integer.MIN_VALUE, null);
+                newEntryPoint.down = entrypoint;
+                entrypoint = newEntryPoint;//改变head
+                stack.add(entrypoint);//下次抛出head
+            }
+        }
+        nodeLevels.record(currentLayer);
+    }
+
+    /**
+     * 由有序数组一次性构建跳表，从左到右只扫描一遍，每一层只在末尾追加，O(n)
+     *
+     * @param keys          严格递增的 key
+     * @param values        与 keys 一一对应，可以为 null
+     * @param deterministic true：第 i 个 key（从 1 开始）的层数为 i 末尾 0 的个数 + 1，得到完全平衡的跳表；
+     *                      false：与 add 一样投掷硬币
+     */
+    public static <T> SkipList<T> bulkLoad(int[] keys, T[] values, boolean deterministic) {
+        checkBatch(keys, values);
+        SkipList<T> list = new SkipList<>();
+        @SuppressWarnings("unchecked")
+        SkipNode<T>[] tails = (SkipNode<T>[]) new SkipNode<?>[list.MAX_LEVEL + 1];//每一层当前的末尾节点，下标 0 是最底层
+        tails[0] = list.entrypoint;
+        int levels = 1;
+        for (int i = 0; i < keys.length; i++) {
+            T value = values == null ? null : values[i];
+            int nodeLevel = deterministic ? Integer.numberOfTrailingZeros(i + 1) + 1 : list.randomLevel();
+            nodeLevels.record(nodeLevel);
+            SkipNode<T> downNode = null;
+            for (int l = 0; l < nodeLevel; l++) {
+                if (l == levels) {//需要创建一个新的 head
+                    SkipNode<T> newEntryPoint = new SkipNode<>(Integer.MIN_VALUE, null);
+                    newEntryPoint.down = list.entrypoint;
+                    list.entrypoint = newEntryPoint;
+                    tails[levels++] = newEntryPoint;
+                }
+                SkipNode<T> node = new SkipNode<>(keys[i], value);
+                node.down = downNode;
+                downNode = node;
+                tails[l].right = node;
+                tails[l] = node;
+            }
+        }
+        list.layer = levels > 1 ? levels : 0;
+        list.size = keys.length;
+        return list;
+    }
+
+    /**
+     * 把有序的一批 key 合并进跳表，已存在的 key 覆盖 value
+     * 由于 key 递增，每一层的前驱只会向右移动，下一个 key 从上一个 key 的前驱接着找，不必每次都从 entrypoint 出发
+     *
+     * @param keys   严格递增的 key
+     * @param values 与 keys 一一对应，可以为 null
+     */
+    public void merge(int[] keys, T[] values) {
+        checkBatch(keys, values);
+        @SuppressWarnings("unchecked")
+        SkipNode<T>[] preds = (SkipNode<T>[]) new SkipNode<?>[MAX_LEVEL + 1];//每一层的前驱，下标 0 是最底层
+        int levels = 0;
+        for (SkipNode<T> head = entrypoint; head != null; head = head.down) {
+            levels++;
+        }
+        SkipNode<T> head = entrypoint;
+        for (int l = levels - 1; l >= 0; l--) {
+            preds[l] = head;
+            head = head.down;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            int key = keys[i];
+            T value = values == null ? null : values[i];
+            boolean exists = false;
+            for (int l = levels - 1; l >= 0; l--) {
+                SkipNode<T> pred = preds[l];
+                if (l + 1 < levels && preds[l + 1].down != null && preds[l + 1].down.key > pred.key) {
+                    pred = preds[l + 1].down;//上一层已经走得更远，从它的正下方接着找
+                }
+                while (pred.right != null && pred.right.key < key) {
+                    pred = pred.right;
+                }
+                preds[l] = pred;
+                if (pred.right != null && pred.right.key == key) {
+                    pred.right.value = value;
+                    exists = true;
+                }
+            }
+            if (exists) {
+                continue;
+            }
+            int nodeLevel = randomLevel();
+            nodeLevels.record(nodeLevel);
+            SkipNode<T> downNode = null;
+            for (int l = 0; l < nodeLevel; l++) {
+                if (l == levels) {
+                    SkipNode<T> newEntryPoint = new SkipNode<>(Integer.MIN_VALUE, null);
+                    newEntryPoint.down = entrypoint;
+                    entrypoint = newEntryPoint;
+                    preds[levels++] = newEntryPoint;
+                }
+                SkipNode<T> node = new SkipNode<>(key, value);
+                node.down = downNode;
+                downNode = node;
+                node.right = preds[l].right;
+                preds[l].right = node;
+                preds[l] = node;
+            }
+            size++;
+        }
+        layer = Math.max(layer, levels > 1 ? levels : 0);
+    }
+
+    /**
+     * 投掷硬币决定层数，与 add 的晋升规则一致（晋升概率 0.5，最多 MAX_LEVEL + 1 层）
+     * 一次取 32 个随机位，末尾连续 1 的个数即晋升次数
+     */
+    private int randomLevel() {
+        return Math.min(Integer.numberOfTrailingZeros(~random.nextInt()) + 1, MAX_LEVEL + 1);
+    }
+
+    private static void checkBatch(int[] keys, Object[] values) {
+        if (values != null && values.length != keys.length) {
+            throw new IllegalArgumentException(String.format("keys.length %d != values.length %d", keys.length, values.length));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == Integer.MIN_VALUE || (i > 0 && keys[i] <= keys[i - 1])) {
+                throw new IllegalArgumentException(String.format("keys must be strictly increasing and greater than %d, index %d", Integer.MIN_VALUE, i));
+            }
+        }
+    }
+
+    /**
+     * 小于等于 key 的最大节点（最底层），不存在返回 null
+     */
+    public SkipNode<T> floor(int key) {
+        SkipNode<T> team = entrypoint;
+        while (true) {
+            while (team.right != null && team.right.key <= key) {//右侧不大于 key 向右
+                team = team.right;
+            }
+            if (team.down == null) {
+                break;
+            }
+            team = team.down;
+        }
+        return team.key == Integer.MIN_VALUE ? null : team;//停在 head 说明没有
+    }
+
+    /**
+     * 大于等于 key 的最小节点（最底层），不存在返回 null
+     */
+    public SkipNode<T> ceiling(int key) {
+        SkipNode<T> team = floor(key);
+        if (team != null && team.key == key) {
+            return team;
+        }
+        return team == null ? bottomHead().right : team.right;
+    }
+
+    /**
+     * [from, to] 范围内的节点，沿最底层惰性遍历
+     */
+    public Stream<SkipNode<T>> rangeScan(int from, int to) {
+        return StreamSupport.stream(spliterator(from, to), false);
+    }
+
+    /**
+     * 全部 key，parallel() 时按上层节点切分
+     */
+    public IntStream keys() {
+        return StreamSupport.stream(spliterator(Integer.MIN_VALUE, Integer.MAX_VALUE), false).mapToInt(node -> node.key);
+    }
+
+    public Spliterator<SkipNode<T>> spliterator(int from, int to) {
+        //在最高层找到 from 之前的节点，作为切分的起点
+        SkipNode<T> row = entrypoint;
+        while (row.right != null && row.right.key < from) {
+            row = row.right;
+        }
+        return new NodeSpliterator<>(row, ceiling(from), to, size);
+    }
+
+    private SkipNode<T> bottomHead() {
+        SkipNode<T> last = entrypoint;
+        while (last.down != null) {
+            last = last.down;
+        }
+        return last;
+    }
+
+    /**
+     * 最底层链表的 Spliterator
+     * trySplit 时在 row 所在的上层先向右走到 current 上方，再取右侧节点作为切分点，前半段交给新的 Spliterator，
+     * 切不动（右侧节点不在剩余范围内）就下降一层，直到第一层之上没有可用的节点
+     */
+    static final class NodeSpliterator<T> implements Spliterator<SkipNode<T>> {
+        private SkipNode<T> row;//用于切分的上层节点
+        private SkipNode<T> current;//下一个要输出的最底层节点，null 表示结束
+        private final int to;//包含
+        private long est;
+
+        NodeSpliterator(SkipNode<T> row, SkipNode<T> current, int to, long est) {
+            this.row = row;
+            this.current = current;
+            this.to = to;
+            this.est = est;
+        }
+
+        @Override
+        public Spliterator<SkipNode<T>> trySplit() {
+            SkipNode<T> c = current;
+            if (c == null || c.key > to) {
+                return null;
+            }
+            for (SkipNode<T> q = row; q != null && q.down != null; q = row = q.down) {
+                while (q.right != null && q.right.key <= c.key) {//前面可能已经输出或切走了一段，先追到 current 上方
+                    q = q.right;
+                }
+                row = q;
+                SkipNode<T> s = q.right;
+                if (s != null && s.key <= to) {
+                    SkipNode<T> bottom = s;
+                    while (bottom.down != null) {
+                        bottom = bottom.down;
+                    }
+                    NodeSpliterator<T> prefix = new NodeSpliterator<>(q.down, c, s.key - 1, est >>> 1);
+                    current = bottom;
+                    row = s.right != null ? s : s.down;
+                    est -= est >>> 1;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super SkipNode<T>> action) {
+            SkipNode<T> c = current;
+            if (c == null || c.key > to) {
+                return false;
+            }
+            current = c.right;
+            action.accept(c);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super SkipNode<T>> action) {
+            SkipNode<T> c = current;
+            while (c != null && c.key <= to) {
+                action.accept(c);
+                c = c.right;
+            }
+            current = c;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+    }
+
+    public void printList() {
+        SkipNode<T> temp = entrypoint;
+        SkipNode<T> last = temp;
+        //last 指向最后一层的head
+        while (last.down != null) {
+            last = last.down;
+        }
+        while (temp != null) {
+            SkipNode<T> tr = temp.right;
+            SkipNode<T> lr = last.right;
+            System.out.printf("%-8s", "head->");
+            while (lr != null && tr != null) {//先是第一层和最后一层处理，而后第二层和最后一层处理...
+                if (lr.key == tr.key) {
+                    System.out.printf("%-5s", tr.key + "->");
+                    lr = lr.right;
+                    tr = tr.right;
+                } else {//两个不在一个纵向时
+                    lr = lr.right;
+                    System.out.printf("%-5s", "");
+                }
+            }
+            temp = temp.down;
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) {
+        SkipList<Integer> list = new SkipList<>();
+        for (int i = 1; i < 5; i++) {
+            list.add(new SkipNode<>(i, 666));
+        }
+        list.printList();
+        System.out.println(list.floor(3).key + " " + list.ceiling(0).key);
+        list.rangeScan(2, 3).forEach(node -> System.out.print(node.key + "=" + node.value + " "));
+        System.out.println();
+        System.out.println(list.keys().parallel().sum());
+
+        int n = 1_000_000;
+        int[] keys = new int[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i * 2;
+            values[i] = i;
+        }
+        long start = System.nanoTime();
+        SkipList<Integer> one = new SkipList<>();
+        for (int i = 0; i < n; i++) {
+            one.add(new SkipNode<>(keys[i], values[i]));
+        }
+        long addNs = System.nanoTime() - start;
+        start = System.nanoTime();
+        SkipList<Integer> bulk = SkipList.bulkLoad(keys, values, false);
+        long bulkNs = System.nanoTime() - start;
+        System.out.printf("add %.1f ms, bulkLoad %.1f ms%n", addNs / 1e6, bulkNs / 1e6);
+        for (int i = 0; i < n; i++) {
+            keys[i] = i * 2 + 1;
+        }
+        bulk.merge(keys, values);
+        System.out.println(bulk.size + " " + bulk.search(1001).value);
+        //list.delete(4);
+        //list.delete(8);
+        //list.printList();
+    }
+}
\ No newline at end of file
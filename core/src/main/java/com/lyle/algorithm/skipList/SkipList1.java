@@ -0,0 +1,424 @@
+package com.lyle.algorithm.skipList;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 每个结点记录 span：本层从该结点到右侧结点之间跨过的最底层结点数（与 Redis zset 的做法相同），
+ * 查找时累加 span 即可得到排名，rank/select/countInRange 都是 O(log n)
+ */
+public class SkipList1 {
+    //结点“晋升”的概率
+    private static final double PROMOTE_RATE = 0.5;
+    private Node head, tail;
+    private int maxLevel;
+    private int size;
+
+    public SkipList1() {
+        head = new Node(Integer.MIN_VALUE);
+        tail = new Node(Integer.MAX_VALUE);
+        head.right = tail;
+        tail.left = head;
+    }
+
+    //查找结点，并打印是否找到
+    public Node search(int data) {
+        Node p = find(data);
+        if (p != null) {
+            System.out.println("找到结点：" + data);
+            return p;
+        }
+        System.out.println("未找到结点：" + data);
+        return null;
+    }
+
+    //查找结点，不打印，不存在返回 null
+    public Node find(int data) {
+        Node p = findNode(data);
+        return p.data == data ? p : null;
+    }
+
+    //找到值对应的前置结点
+    private Node findNode(int data) {
+        Node node = head;
+        while (true) {
+            while (node.right.data != Integer.MAX_VALUE && node.right.data <= data) {
+                node = node.right;
+            }
+            if (node.down == null) {
+                break;
+            }
+            node = node.down;
+        }
+        return node;
+    }
+
+    //插入结点
+    public void insert(int data) {
+        Node preNode = findNode(data);
+        //如果data相同，直接返回
+        if (preNode.data == data) {
+            return;
+        }
+        Node node = new Node(data);
+        appendNode(preNode, node);
+        preNode.span = 1;
+        node.span = 1;
+        int distance = 1;//新结点与本层前置结点之间的 span
+        int currentLevel = 0;
+        //随机决定结点是否“晋升”
+        Random random = new Random();
+        while (random.nextDouble() < PROMOTE_RATE) {
+            //如果当前层已经是最高层，需要增加一层
+            if (currentLevel == maxLevel) {
+                addLevel();
+            }
+            //找到上一层的前置节点
+            while (preNode.up == null) {
+                preNode = preNode.left;
+                distance += preNode.span;
+            }
+            preNode = preNode.up;
+            preNode.span++;//底层多了一个结点
+            //把“晋升”的新结点插入到上一层
+            Node upperNode = new Node(data);
+            appendNode(preNode, upperNode);
+            upperNode.span = preNode.span - distance;
+            preNode.span = distance;
+            upperNode.down = node;
+            node.up = upperNode;
+            node = upperNode;
+            currentLevel++;
+        }
+        //更高的层中跨过新结点的 span 加 1
+        while ((preNode = upperPreNode(preNode)) != null) {
+            preNode.span++;
+        }
+        size++;
+    }
+
+    //上一层中位于 node 左侧（含正上方）的第一个结点，已是最高层返回 null
+    private Node upperPreNode(Node node) {
+        while (node.up == null && node.left != null) {
+            node = node.left;
+        }
+        return node.up;
+    }
+
+    //在前置结点后面添加新结点
+    private void appendNode(Node preNode, Node newNode) {
+        newNode.left = preNode;
+        newNode.right = preNode.right;
+        preNode.right.left = newNode;
+        preNode.right = newNode;
+    }
+
+    //增加一层
+    private void addLevel() {
+        maxLevel++;
+        Node p1 = new Node(Integer.MIN_VALUE);
+        Node p2 = new Node(Integer.MAX_VALUE);
+        p1.right = p2;
+        p2.left = p1;
+        p1.span = size + 1;//head 到 tail 跨过全部结点
+        p1.down = head;
+        head.up = p1;
+        p2.down = tail;
+        tail.up = p2;
+        head = p1;
+        tail = p2;
+    }
+
+    //删除结点
+    public boolean remove(int data) {
+        Node removedNode = find(data);
+        if (removedNode == null) {
+            return false;
+        }
+        size--;
+        int currentLevel = 0;
+        Node preNode = null;
+        while (removedNode != null) {
+            preNode = removedNode.left;
+            preNode.span += removedNode.span - 1;
+            removedNode.right.left = removedNode.left;
+            removedNode.left.right = removedNode.right;
+            //如果不是最底层，且只有无穷小和无穷大结点，删除该层
+            if (currentLevel != 0 && removedNode.left.data == Integer.MIN_VALUE && removedNode.right.data == Integer.MAX_VALUE) {
+                removeLevel(removedNode.left);
+            } else {
+                currentLevel++;
+            }
+            removedNode = removedNode.up;
+        }
+        //更高的层中跨过被删结点的 span 减 1
+        while ((preNode = upperPreNode(preNode)) != null) {
+            preNode.span--;
+        }
+        return true;
+    }
+
+    //删除一层
+    private void removeLevel(Node leftNode) {
+        Node rightNode = leftNode.right;
+        //如果删除层是最高层
+        if (leftNode.up == null) {
+            leftNode.down.up = null;
+            rightNode.down.up = null;
+            head = leftNode.down;
+            tail = rightNode.down;
+        } else {
+            leftNode.up.down = leftNode.down;
+            leftNode.down.up = leftNode.up;
+            rightNode.up.down = rightNode.down;
+            rightNode.down.up = rightNode.up;
+        }
+        maxLevel--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //data 的排名（从 0 开始），不存在返回 -1
+    public int rank(int data) {
+        Node node = head;
+        int rank = 0;
+        while (true) {
+            while (node.right.data != Integer.MAX_VALUE && node.right.data <= data) {
+                rank += node.span;
+                node = node.right;
+            }
+            if (node.data == data && data != Integer.MIN_VALUE) {
+                return rank - 1;
+            }
+            if (node.down == null) {
+                return -1;
+            }
+            node = node.down;
+        }
+    }
+
+    //第 index 个结点（从 0 开始），越界返回 null
+    public Node select(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int target = index + 1;
+        int traversed = 0;
+        Node node = head;
+        while (true) {
+            while (node.right.data != Integer.MAX_VALUE && traversed + node.span <= target) {
+                traversed += node.span;
+                node = node.right;
+            }
+            if (traversed == target) {
+                return node;
+            }
+            node = node.down;
+        }
+    }
+
+    //[from, to] 范围内的结点个数
+    public int countInRange(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        return countLessOrEqual(to) - (from == Integer.MIN_VALUE ? 0 : countLessOrEqual(from - 1));
+    }
+
+    //小于等于 data 的结点个数
+    private int countLessOrEqual(int data) {
+        Node node = head;
+        int count = 0;
+        while (true) {
+            while (node.right.data != Integer.MAX_VALUE && node.right.data <= data) {
+                count += node.span;
+                node = node.right;
+            }
+            if (node.down == null) {
+                return count;
+            }
+            node = node.down;
+        }
+    }
+
+    //小于等于 data 的最大结点，不存在返回 null
+    public Node floor(int data) {
+        Node p = findNode(data);
+        return p.data == Integer.MIN_VALUE ? null : p;
+    }
+
+    //大于等于 data 的最小结点，不存在返回 null
+    public Node ceiling(int data) {
+        Node p = findNode(data);
+        if (p.data == data && p.data != Integer.MIN_VALUE) {
+            return p;
+        }
+        p = p.right;
+        return p.data == Integer.MAX_VALUE ? null : p;
+    }
+
+    //[from, to] 范围内的结点值，沿底层链表惰性遍历
+    public IntStream rangeScan(int from, int to) {
+        return StreamSupport.intStream(spliterator(from, to), false);
+    }
+
+    //底层链表的全部结点值，parallel() 时按上层结点切分
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(Integer.MIN_VALUE, Integer.MAX_VALUE), false);
+    }
+
+    public Spliterator.OfInt spliterator(int from, int to) {
+        //在最高层找到 from 之前的结点，作为切分的起点
+        Node row = head;
+        while (row.right.data != Integer.MAX_VALUE && row.right.data < from) {
+            row = row.right;
+        }
+        Node first = ceiling(from);
+        return new NodeSpliterator(row, first == null ? tailOfBottom() : first, to, size);
+    }
+
+    private Node tailOfBottom() {
+        Node node = tail;
+        while (node.down != null) {
+            node = node.down;
+        }
+        return node;
+    }
+
+    /**
+     * 底层链表的 Spliterator
+     * trySplit 时在 row 所在的上层先向右走到 current 上方，再取右侧结点作为切分点，前半段交给新的 Spliterator，
+     * 切不动（右侧结点不在剩余范围内）就下降一层，直到第一层之上没有可用的结点
+     */
+    static final class NodeSpliterator implements Spliterator.OfInt {
+        private Node row;//用于切分的上层结点
+        private Node current;//下一个要输出的底层结点
+        private final int to;//包含
+        private long est;
+
+        NodeSpliterator(Node row, Node current, int to, long est) {
+            this.row = row;
+            this.current = current;
+            this.to = to;
+            this.est = est;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            Node c = current;
+            if (c.data == Integer.MAX_VALUE || c.data > to) {
+                return null;
+            }
+            for (Node q = row; q != null && q.down != null; q = row = q.down) {
+                while (q.right.data != Integer.MAX_VALUE && q.right.data <= c.data) {//前面可能已经输出或切走了一段，先追到 current 上方
+                    q = q.right;
+                }
+                row = q;
+                Node s = q.right;
+                if (s.data != Integer.MAX_VALUE && s.data <= to) {
+                    Node bottom = s;
+                    while (bottom.down != null) {
+                        bottom = bottom.down;
+                    }
+                    NodeSpliterator prefix = new NodeSpliterator(q.down, c, s.data - 1, est >>> 1);
+                    current = bottom;
+                    row = s.right.data != Integer.MAX_VALUE ? s : s.down;
+                    est -= est >>> 1;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Node c = current;
+            if (c.data == Integer.MAX_VALUE || c.data > to) {
+                return false;
+            }
+            current = c.right;
+            action.accept(c.data);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Node c = current;
+            while (c.data != Integer.MAX_VALUE && c.data <= to) {
+                action.accept(c.data);
+                c = c.right;
+            }
+            current = c;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;//自然顺序
+        }
+    }
+
+    //输出底层链表
+    public void printList() {
+        Node node = head;
+        while (node.down != null) {
+            node = node.down;
+        }
+        while (node.right.data != Integer.MAX_VALUE) {
+            System.out.print(node.right.data + " ");
+            node = node.right;
+        }
+        System.out.println();
+    }
+
+    //链表结点类
+    public static class Node {
+        public int data;
+        //跳表结点的前后和上下都有指针
+        public Node up, down, left, right;
+        //本层到 right 之间跨过的最底层结点数
+        int span;
+
+        public Node(int data) {
+            this.data = data;
+        }
+    }
+
+    public static void main(String[] args) {
+        SkipList1 list = new SkipList1();
+        list.insert(50);
+        list.insert(15);
+        list.insert(13);
+        list.insert(20);
+        list.insert(100);
+        list.insert(75);
+        list.insert(99);
+        list.insert(76);
+        list.insert(83);
+        list.insert(65);
+        list.printList();
+        list.search(50);
+        list.remove(50);
+        list.search(50);
+        System.out.println(list.floor(74).data + " " + list.ceiling(74).data);
+        System.out.println(list.rangeScan(15, 83).boxed().collect(Collectors.toList()));
+        System.out.println(list.stream().parallel().sum());
+        System.out.println(list.rank(76) + " " + list.select(3).data + " " + list.countInRange(20, 83));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.lyle.algorithm.skipList;
+
+/**
+ * {@link SkipList} 的节点，每层一个，同一 key 的各层通过 down 相连
+ * <p>
+ * floor/ceiling/rangeScan 返回最底层节点，包外只能通过 {@link #key()}、{@link #value()} 读取，指针只在包内修改
+ */
+public class SkipNode<T> {
+    int key;
+    T value;
+    SkipNode<T> right, down;//左右上下四个方向的指针
+
+    /**
+     * @param key   key
+     * @param value value
+     */
+    public SkipNode(int key, T value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public int key() {
+        return key;
+    }
+
+    public T value() {
+        return value;
+    }
+}
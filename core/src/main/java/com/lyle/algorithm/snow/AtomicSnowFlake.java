@@ -0,0 +1,135 @@
+package com.lyle.algorithm.snow;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁雪花算法
+ * <p>
+ * 与 {@link SnowFlake} 的 ID 布局、单调递增的保证完全一致，只是去掉了 synchronized：
+ * 把 lastTimestamp 和 sequence 合成一个 long 放进 AtomicLong，通过 CAS 推进
+ *
+ * <pre>
+ *             |-----------------41bit时间戳-----------------|                 |-12bit序列号-|
+ * state:  0 - 00000000 00000000 00000000 00000000 00000000 0 - 00000000 00 - 00000000 0000
+ *                                                              |---------|
+ *                                                              始终为 0
+ * </pre>
+ * state 就是不带机器位的 ID，生成 ID 时再或上 dataCenterId/workerId 即可
+ */
+public class AtomicSnowFlake extends SnowFlake {
+
+    private final long machineBits;//数据标识和机器标识移位后的值
+    private final AtomicLong state = new AtomicLong();//(上次时间戳 - twEpoch) << 22 | sequence
+
+    public AtomicSnowFlake(int workerId, int dataCenterId) {
+        super(workerId, dataCenterId);
+        this.machineBits = (this.dataCenterId << dataCenterIdShift) | (this.workerId << workerIdShift);
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            //先读 state 再读时钟，保证读到的时间不早于 state 中的时间（时钟本身不回退的前提下）
+            long current = state.get();
+            long lastTimestamp = (current >>> timestampLeftShift) + twEpoch;
+            long currentMills = currentMills();
+            if (currentMills < lastTimestamp) {
+                clockBackwards.increment();
+                throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+            }
+            long next;
+            if (currentMills == lastTimestamp) {
+                if ((current & maxSequence) == maxSequence) {
+                    // 毫秒内序列用完，park 到下一毫秒再重新竞争，不让每个竞争线程都空转占满一个核
+                    parkTilNextMillis(lastTimestamp, this::currentMills);
+                    continue;
+                }
+                next = current + 1;
+            } else { // 时间戳改变，毫秒内序列重置
+                next = (currentMills - twEpoch) << timestampLeftShift;
+            }
+            if (state.compareAndSet(current, next)) {
+                idsGenerated.increment();
+                return next | machineBits;
+            }
+        }
+    }
+
+    /**
+     * 一次 CAS 预留当前毫秒内剩余的一段连续序列号，不够再进入下一毫秒
+     */
+    @Override
+    public void fill(long[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        while (len > 0) {
+            long current = state.get();
+            long lastTimestamp = (current >>> timestampLeftShift) + twEpoch;
+            long currentMills = currentMills();
+            if (currentMills < lastTimestamp) {
+                clockBackwards.increment();
+                throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+            }
+            long first;//本次预留的第一个 state
+            if (currentMills == lastTimestamp) {
+                if ((current & maxSequence) == maxSequence) {
+                    parkTilNextMillis(lastTimestamp, this::currentMills);
+                    continue;
+                }
+                first = current + 1;
+            } else {
+                first = (currentMills - twEpoch) << timestampLeftShift;
+            }
+            int count = (int) Math.min(len, maxSequence + 1 - (first & maxSequence));
+            if (state.compareAndSet(current, first + count - 1)) {
+                idsGenerated.add(count);
+                for (int i = 0; i < count; i++) {
+                    dst[off++] = (first + i) | machineBits;
+                }
+                len -= count;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        AtomicSnowFlake snowFlake = new AtomicSnowFlake(9, 20);
+        int threads = 1000;
+        int perThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                long last = -1;
+                for (int j = 0; j < perThread; j++) {
+                    long id = snowFlake.nextId();
+                    if (id <= last) {
+                        throw new IllegalStateException("not monotonic: " + last + " -> " + id);
+                    }
+                    last = id;
+                    ids.add(id);
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.printf("%d unique ids in %.1f ms%n", ids.size(), (System.nanoTime() - begin) / 1e6);
+
+        System.out.println(Arrays.toString(snowFlake.nextIds(5)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.lyle.algorithm.snow;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度时钟
+ * 后台守护线程每隔 tick 读一次 System.currentTimeMillis() 写入 volatile 变量，
+ * 读取方只需一次 volatile 读；代价是读到的时间最多落后一个 tick
+ */
+public final class CoarseClock implements AutoCloseable {
+
+    private static final CoarseClock DEFAULT = new CoarseClock(1);//全局共享，1ms 刷新一次
+
+    private volatile long now;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickMillis 刷新间隔（毫秒）
+     */
+    public CoarseClock(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be greater than 0");
+        }
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        now = System.currentTimeMillis();
+        Thread ticker = new Thread(() -> {
+            while (running) {
+                now = System.currentTimeMillis();
+                LockSupport.parkNanos(tickNanos);
+            }
+        }, "coarse-clock-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    public static CoarseClock getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return 当前时间(毫秒)
+     */
+    public long millis() {
+        return now;
+    }
+
+    /**
+     * 停止后台线程，全局共享的时钟不会被停止
+     */
+    @Override
+    public void close() {
+        if (this != DEFAULT) {
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.lyle.algorithm.snow;
+
+import java.util.Arrays;
+
+/**
+ * 按 {@link SnowFlakeLayout} 生成 ID 的雪花算法，算法与 {@link SnowFlake#nextId()} 相同
+ * <p>
+ * 布局中的移位位数、掩码在构造时全部拷贝到本类的 final 字段中，nextId 不再经过 layout 间接访问；
+ * 机器位提前移位合并成一个常量，每次只需一次移位和两次或运算
+ * <p>
+ * 本毫秒序列号用完时与 {@link AtomicSnowFlake} 一样 park 到下一毫秒，指标计入 SnowFlake 的 snowflake.* 计数器
+ */
+public final class ConfigurableSnowFlake {
+
+    private final SnowFlakeLayout layout;
+    private final long twEpoch;
+    private final long maxSequence;
+    private final long maxTimestamp;
+    private final int timestampLeftShift;
+    private final long machineBits;//数据标识和机器标识移位后的值
+
+    private long sequence = 0;
+    private long lastTimestamp = -1L;
+
+    public ConfigurableSnowFlake(SnowFlakeLayout layout, int workerId, int dataCenterId) {
+        if (workerId > layout.maxWorkerId || workerId < 0) {
+            throw new IllegalArgumentException(String.format("workerId can't be greater than %d or less than 0", layout.maxWorkerId));
+        }
+        if (dataCenterId > layout.maxDataCenterId || dataCenterId < 0) {
+            throw new IllegalArgumentException(String.format("dataCenterId can't be greater than %d or less than 0", layout.maxDataCenterId));
+        }
+        this.layout = layout;
+        this.twEpoch = layout.twEpoch;
+        this.maxSequence = layout.maxSequence;
+        this.maxTimestamp = layout.maxTimestamp;
+        this.timestampLeftShift = layout.timestampLeftShift;
+        this.machineBits = ((long) dataCenterId << layout.dataCenterIdShift) | ((long) workerId << layout.workerIdShift);
+    }
+
+    public SnowFlakeLayout getLayout() {
+        return layout;
+    }
+
+    public synchronized long nextId() {
+        long currentMills = currentMills();
+        if (currentMills < lastTimestamp) {
+            SnowFlake.clockBackwards.increment();
+            throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+        }
+        if (lastTimestamp == currentMills) {
+            sequence = (sequence + 1) & maxSequence;
+            if (sequence == 0) {//本毫秒已用完，park 到下一毫秒，计入 sequenceExhausted/waitNanos
+                currentMills = SnowFlake.parkTilNextMillis(lastTimestamp, this::currentMills);
+            }
+        } else {
+            sequence = 0L;
+        }
+        lastTimestamp = currentMills;
+        long timestamp = currentMills - twEpoch;
+        if (timestamp > maxTimestamp || timestamp < 0) {
+            throw new IllegalStateException(String.format("Timestamp %d is out of range for layout %s", currentMills, layout));
+        }
+        SnowFlake.idsGenerated.increment();
+        return (timestamp << timestampLeftShift) | machineBits | sequence;
+    }
+
+    private long currentMills() {
+        return System.currentTimeMillis();
+    }
+
+    public static void main(String[] args) {
+        //更多序列号，更少的数据中心位：41/2/6/14
+        SnowFlakeLayout layout = SnowFlakeLayout.builder()
+                .dataCenterIdBits(2)
+                .workerIdBits(6)
+                .sequenceBits(14)
+                .build();
+        ConfigurableSnowFlake snowFlake = new ConfigurableSnowFlake(layout, 40, 3);
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = snowFlake.nextId();
+        }
+        SnowFlakeLayout.DecodedIds decoded = layout.decode(ids);
+        System.out.println(layout);
+        System.out.println(Arrays.toString(decoded.timestamps));
+        System.out.println(Arrays.toString(decoded.dataCenterIds));
+        System.out.println(Arrays.toString(decoded.workerIds));
+        System.out.println(Arrays.toString(decoded.sequences));
+
+        //默认布局与 SnowFlake 完全一致，可以直接拆解 SnowFlake 生成的 ID
+        long id = new SnowFlake(9, 20).nextId();
+        System.out.println(SnowFlakeLayout.DEFAULT.workerIdOf(id) + " " + SnowFlakeLayout.DEFAULT.dataCenterIdOf(id));
+    }
+}
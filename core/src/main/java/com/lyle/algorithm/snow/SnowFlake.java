@@ -1,10 +1,17 @@
 package com.lyle.algorithm.snow;
 
 import com.lyle.algorithm.bit.MaxNum;
+import com.lyle.algorithm.metrics.Counter;
+import com.lyle.algorithm.metrics.Histogram;
+import com.lyle.algorithm.metrics.Metrics;
 
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 
 /**
  * flakes of snow 雪花
@@ -22,31 +29,36 @@ import java.util.concurrent.CountDownLatch;
  */
 public class SnowFlake {
 
-    private final long workerId; //工作机器ID
-    private final long dataCenterId; //数据中心ID
+    final long workerId; //工作机器ID
+    final long dataCenterId; //数据中心ID
     /**
      * 起初第一次运行使用0，最后一次使用4095，共 4096个
      */
-    private long sequence = 0; //1毫秒内序号(0~4095)
+    long sequence = 0; //1毫秒内序号(0~4095)
 
     /**
      * 开始时间截 (2023-10-24)
      */
-    private static final long twEpoch = 1698076800000L;
-    private static final int sequenceBits = 12;//序列id所占位数
-    private static final int workerIdBits = 5;//机器ID所占位数
-    private static final int dataCenterIdBits = 5;//数据中心所占位数
+    static final long twEpoch = 1698076800000L;
+    static final int sequenceBits = 12;//序列id所占位数
+    static final int workerIdBits = 5;//机器ID所占位数
+    static final int dataCenterIdBits = 5;//数据中心所占位数
 
     /**
      * 最大机器ID: 31
      */
-    private static final long maxWorkerId = MaxNum.maxNumByXBits(workerIdBits);
+    static final long maxWorkerId = MaxNum.maxNumByXBits(workerIdBits);
     //最大数据中心ID
-    private static final long maxDataCenterId = MaxNum.maxNumByXBits(dataCenterIdBits);
+    static final long maxDataCenterId = MaxNum.maxNumByXBits(dataCenterIdBits);
     /**
      * 最大序列号: 4095
      */
-    private final long maxSequence = MaxNum.maxNumByXBits(sequenceBits);
+    static final long maxSequence = MaxNum.maxNumByXBits(sequenceBits);
+
+    /**
+     * 无锁实现中本毫秒序列号用完时 park 的时间：不空转占满一个核，又远小于 1 毫秒
+     */
+    static final long EXHAUSTED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 
 
     /**
@@ -59,20 +71,26 @@ public class SnowFlake {
     /**
      * 时间截向左移22位(5+5+12)
      */
-    private static final long timestampLeftShift = sequenceBits + workerIdBits + dataCenterIdBits;
+    static final long timestampLeftShift = sequenceBits + workerIdBits + dataCenterIdBits;
     /**
      * 数据标识id向左移17位(12+5)
      */
-    private static final long dataCenterIdShift = sequenceBits + workerIdBits;
+    static final long dataCenterIdShift = sequenceBits + workerIdBits;
     /**
      * 机器ID向左移12位
      */
-    private static final long workerIdShift = sequenceBits;
+    static final long workerIdShift = sequenceBits;
 
     /**
      * 上次生成ID的时间截
      */
-    private long lastTimestamp = -1L;
+    long lastTimestamp = -1L;
+
+    //指标，所有实例共用，见 Metrics
+    static final Counter idsGenerated = Metrics.counter("snowflake.ids");
+    static final Counter sequenceExhausted = Metrics.counter("snowflake.sequenceExhausted");//毫秒内序列用完的次数
+    static final Counter clockBackwards = Metrics.counter("snowflake.clockBackwards");
+    static final Histogram waitNanos = Metrics.histogram("snowflake.waitNextMillisNanos");//序列用完后等待下一毫秒的时间
 
     public SnowFlake(int workerId, int dataCenterId) {
         if (workerId > maxWorkerId || workerId < 0) {
@@ -89,6 +107,7 @@ public class SnowFlake {
         long currentMills = currentMills();
         // 如果当前时间小于上一次ID生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
         if (currentMills < lastTimestamp) {
+            clockBackwards.increment();
             throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
         }
         // 如果是同一时间生成的，则进行毫秒内序列
@@ -98,13 +117,17 @@ public class SnowFlake {
             //sequence == 0 ，就是1毫秒用完了4096个数
             if (sequence == 0) {
                 // 阻塞到下一个毫秒,获得新的时间戳
+                sequenceExhausted.increment();
+                long start = waitNanos.start();
                 currentMills = tilNextMillis(lastTimestamp);
+                waitNanos.recordSince(start);
             }
         } else { // 时间戳改变，毫秒内序列重置
             sequence = 0L;
         }
         // 上次生成ID的时间截
         lastTimestamp = currentMills;
+        idsGenerated.increment();
 
         // 移位并通过或运算拼到一起组成64位的ID
         return ((currentMills - twEpoch) << timestampLeftShift) // 时间戳左移22位
@@ -113,6 +136,53 @@ public class SnowFlake {
                 | sequence;
     }
 
+    /**
+     * 批量生成 n 个 ID
+     */
+    public long[] nextIds(int n) {
+        long[] result = new long[n];
+        fill(result, 0, n);
+        return result;
+    }
+
+    /**
+     * 批量生成 ID 写入 dst[off, off + len)
+     * 每次加锁预留当前毫秒内剩余的一段连续序列号，不够再进入下一毫秒，
+     * 相比循环调用 nextId，加锁和取时间的次数从每个 ID 一次降为每毫秒一次
+     */
+    public synchronized void fill(long[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        while (len > 0) {
+            long currentMills = currentMills();
+            if (currentMills < lastTimestamp) {
+                clockBackwards.increment();
+                throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+            }
+            long from = 0;//本次预留的起始序列号
+            if (lastTimestamp == currentMills) {
+                if (sequence == maxSequence) {//本毫秒已用完
+                    sequenceExhausted.increment();
+                    long start = waitNanos.start();
+                    currentMills = tilNextMillis(lastTimestamp);
+                    waitNanos.recordSince(start);
+                } else {
+                    from = sequence + 1;
+                }
+            }
+            int count = (int) Math.min(len, maxSequence + 1 - from);
+            long base = ((currentMills - twEpoch) << timestampLeftShift)
+                    | (dataCenterId << dataCenterIdShift)
+                    | (workerId << workerIdShift);
+            for (int i = 0; i < count; i++) {
+                dst[off++] = base | (from + i);
+            }
+            sequence = from + count - 1;
+            lastTimestamp = currentMills;
+            idsGenerated.add(count);
+            len -= count;
+        }
+    }
+
     /**
      * 阻塞到下一个毫秒，直到获得新的时间戳
      *
@@ -126,6 +196,24 @@ public class SnowFlake {
         }
         return currentMills;
     }
+    /**
+     * 无锁实现中本毫秒序列号用完时的等待：每次 park {@link #EXHAUSTED_PARK_NANOS}，直到时钟越过 lastTimestamp，
+     * 与 nextId 中的 tilNextMillis 一样，每次等待计一次 sequenceExhausted，并把整段等待计入 waitNanos
+     *
+     * @param clock 当前时间(毫秒)
+     * @return 越过 lastTimestamp 的当前时间戳
+     */
+    static long parkTilNextMillis(long lastTimestamp, LongSupplier clock) {
+        sequenceExhausted.increment();
+        long start = waitNanos.start();
+        long currentMills;
+        while ((currentMills = clock.getAsLong()) <= lastTimestamp) {
+            LockSupport.parkNanos(EXHAUSTED_PARK_NANOS);
+        }
+        waitNanos.recordSince(start);
+        return currentMills;
+    }
+
     /**
      * 返回以毫秒为单位的当前时间
      *
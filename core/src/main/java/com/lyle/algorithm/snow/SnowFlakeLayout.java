@@ -0,0 +1,203 @@
+package com.lyle.algorithm.snow;
+
+import com.lyle.algorithm.bit.MaxNum;
+
+/**
+ * 雪花 ID 的位布局：时间戳 / 数据中心 / 机器 / 序列号 各占多少位，以及开始时间截
+ * <p>
+ * 时间戳位数 = 63 - dataCenterIdBits - workerIdBits - sequenceBits，至少 MIN_TIMESTAMP_BITS 位（约 1 年）
+ * <p>
+ * 同一个布局既用来生成 ID（{@link ConfigurableSnowFlake}），也用来把 ID 拆回各个部分（{@link #decode(long[])}）
+ */
+public final class SnowFlakeLayout {
+
+    public static final int MIN_TIMESTAMP_BITS = 35;
+
+    /**
+     * 与 {@link SnowFlake} 相同的 41/5/5/12 布局
+     */
+    public static final SnowFlakeLayout DEFAULT = builder().build();
+
+    final long twEpoch;
+    final int timestampBits;
+    final int dataCenterIdBits;
+    final int workerIdBits;
+    final int sequenceBits;
+
+    final long maxDataCenterId;
+    final long maxWorkerId;
+    final long maxSequence;
+    final long maxTimestamp;
+
+    final int timestampLeftShift;
+    final int dataCenterIdShift;
+    final int workerIdShift;
+
+    private SnowFlakeLayout(Builder builder) {
+        this.twEpoch = builder.twEpoch;
+        this.dataCenterIdBits = builder.dataCenterIdBits;
+        this.workerIdBits = builder.workerIdBits;
+        this.sequenceBits = builder.sequenceBits;
+        this.timestampBits = 63 - dataCenterIdBits - workerIdBits - sequenceBits;
+        this.maxDataCenterId = MaxNum.maxNumByXBits(dataCenterIdBits);
+        this.maxWorkerId = MaxNum.maxNumByXBits(workerIdBits);
+        this.maxSequence = MaxNum.maxNumByXBits(sequenceBits);
+        this.maxTimestamp = MaxNum.maxNumByXBits(timestampBits);
+        this.workerIdShift = sequenceBits;
+        this.dataCenterIdShift = sequenceBits + workerIdBits;
+        this.timestampLeftShift = sequenceBits + workerIdBits + dataCenterIdBits;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getTwEpoch() {
+        return twEpoch;
+    }
+
+    public int getTimestampBits() {
+        return timestampBits;
+    }
+
+    public int getDataCenterIdBits() {
+        return dataCenterIdBits;
+    }
+
+    public int getWorkerIdBits() {
+        return workerIdBits;
+    }
+
+    public int getSequenceBits() {
+        return sequenceBits;
+    }
+
+    public long getMaxDataCenterId() {
+        return maxDataCenterId;
+    }
+
+    public long getMaxWorkerId() {
+        return maxWorkerId;
+    }
+
+    public long getMaxSequence() {
+        return maxSequence;
+    }
+
+    //-------------------------------- 拆解 ID --------------------------------
+
+    /**
+     * @return 生成 ID 时的时间戳（毫秒）
+     */
+    public long timestampOf(long id) {
+        return (id >>> timestampLeftShift) + twEpoch;
+    }
+
+    public int dataCenterIdOf(long id) {
+        return (int) ((id >>> dataCenterIdShift) & maxDataCenterId);
+    }
+
+    public int workerIdOf(long id) {
+        return (int) ((id >>> workerIdShift) & maxWorkerId);
+    }
+
+    public int sequenceOf(long id) {
+        return (int) (id & maxSequence);
+    }
+
+    /**
+     * 批量拆解，结果按字段分成多个数组（struct-of-arrays），便于后续按列统计
+     */
+    public DecodedIds decode(long[] ids) {
+        DecodedIds decoded = new DecodedIds(ids.length);
+        decode(ids, 0, ids.length, decoded, 0);
+        return decoded;
+    }
+
+    /**
+     * 把 ids[off, off + len) 拆解到 dst 的 [dstOff, dstOff + len)，dst 可复用
+     */
+    public void decode(long[] ids, int off, int len, DecodedIds dst, int dstOff) {
+        long[] timestamps = dst.timestamps;
+        int[] dataCenterIds = dst.dataCenterIds;
+        int[] workerIds = dst.workerIds;
+        int[] sequences = dst.sequences;
+        for (int i = 0; i < len; i++) {//每个字段一次移位一次与运算，循环体内没有分支
+            long id = ids[off + i];
+            timestamps[dstOff + i] = (id >>> timestampLeftShift) + twEpoch;
+            dataCenterIds[dstOff + i] = (int) ((id >>> dataCenterIdShift) & maxDataCenterId);
+            workerIds[dstOff + i] = (int) ((id >>> workerIdShift) & maxWorkerId);
+            sequences[dstOff + i] = (int) (id & maxSequence);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d/%d/%d(epoch=%d)", timestampBits, dataCenterIdBits, workerIdBits, sequenceBits, twEpoch);
+    }
+
+    /**
+     * 拆解结果，每个字段一个数组，下标与输入的 ID 一一对应
+     */
+    public static final class DecodedIds {
+        public final long[] timestamps;
+        public final int[] dataCenterIds;
+        public final int[] workerIds;
+        public final int[] sequences;
+
+        public DecodedIds(int capacity) {
+            timestamps = new long[capacity];
+            dataCenterIds = new int[capacity];
+            workerIds = new int[capacity];
+            sequences = new int[capacity];
+        }
+    }
+
+    public static final class Builder {
+        private long twEpoch = SnowFlake.twEpoch;
+        private int dataCenterIdBits = SnowFlake.dataCenterIdBits;
+        private int workerIdBits = SnowFlake.workerIdBits;
+        private int sequenceBits = SnowFlake.sequenceBits;
+
+        private Builder() {
+        }
+
+        public Builder twEpoch(long twEpoch) {
+            this.twEpoch = twEpoch;
+            return this;
+        }
+
+        public Builder dataCenterIdBits(int dataCenterIdBits) {
+            this.dataCenterIdBits = dataCenterIdBits;
+            return this;
+        }
+
+        public Builder workerIdBits(int workerIdBits) {
+            this.workerIdBits = workerIdBits;
+            return this;
+        }
+
+        public Builder sequenceBits(int sequenceBits) {
+            this.sequenceBits = sequenceBits;
+            return this;
+        }
+
+        public SnowFlakeLayout build() {
+            if (twEpoch < 0) {
+                throw new IllegalArgumentException("twEpoch can't be less than 0");
+            }
+            if (dataCenterIdBits < 0 || workerIdBits < 0) {
+                throw new IllegalArgumentException("dataCenterIdBits and workerIdBits can't be less than 0");
+            }
+            if (sequenceBits < 1) {
+                throw new IllegalArgumentException("sequenceBits can't be less than 1");
+            }
+            int timestampBits = 63 - dataCenterIdBits - workerIdBits - sequenceBits;
+            if (timestampBits < MIN_TIMESTAMP_BITS) {
+                throw new IllegalArgumentException(String.format("dataCenterIdBits + workerIdBits + sequenceBits can't be greater than %d, timestamp needs at least %d bits",
+                        63 - MIN_TIMESTAMP_BITS, MIN_TIMESTAMP_BITS));
+            }
+            return new SnowFlakeLayout(this);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.lyle.algorithm.snow;
+
+import com.lyle.algorithm.bit.MaxNum;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分片雪花算法
+ * <p>
+ * 把 12bit 序列号再切成两段：高 shardBits 位是分片号，低 (12 - shardBits) 位是分片内的序列号。
+ * 每个分片独立维护自己的时间戳和序列号，线程第一次生成 ID 时按轮询绑定一个分片，之后一直使用它
+ *
+ * <pre>
+ *             |-----------------41bit时间戳-----------------|                 |-12bit序列号-|
+ *         0 - 00000000 00000000 00000000 00000000 00000000 0 - 00000000 00 - 0000 00000000
+ *                                                                            |--|
+ *                                                                     shardBits 分片号
+ * </pre>
+ * 1. 不同分片的分片号不同，所以 ID 全局唯一
+ * 2. 同一线程始终使用同一个分片，所以每个线程拿到的 ID 单调递增（不同线程之间不保证先后）
+ * 3. 线程数不超过分片数时各分片没有共享写；超过时同一分片的线程之间通过 CAS 竞争
+ * 4. 每个分片每毫秒最多 2^(12 - shardBits) 个 ID：分片越多，单个分片的每毫秒容量越小，总容量不变
+ * 5. 各分片的 state 放在同一个 AtomicLongArray 中，相邻分片间隔 {@link #PADDING} 个 long（128 字节），
+ *    避免不同核上的分片落在同一个缓存行里互相失效（伪共享）
+ * 6. 指标与 {@link SnowFlake} 共用（snowflake.*）
+ */
+public class StripedSnowFlake {
+
+    /**
+     * 相邻分片 state 之间的间隔（long 的个数），两个缓存行，同时避开相邻缓存行预取
+     */
+    static final int PADDING = 16;
+
+    private final Shard[] shards;
+    private final AtomicLongArray states;//分片 i 的 state 在 (i + 1) * PADDING
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ThreadLocal<Shard> localShard;
+
+    /**
+     * @param shardBits 分片号所占位数 [0, 12]，分片数为 2^shardBits
+     */
+    public StripedSnowFlake(int workerId, int dataCenterId, int shardBits) {
+        if (workerId > SnowFlake.maxWorkerId || workerId < 0) {
+            throw new IllegalArgumentException(String.format("workerId can't be greater than %d or less than 0", SnowFlake.maxWorkerId));
+        }
+        if (dataCenterId > SnowFlake.maxDataCenterId || dataCenterId < 0) {
+            throw new IllegalArgumentException(String.format("dataCenterId can't be greater than %d or less than 0", SnowFlake.maxDataCenterId));
+        }
+        if (shardBits < 0 || shardBits > SnowFlake.sequenceBits) {
+            throw new IllegalArgumentException(String.format("shardBits can't be greater than %d or less than 0", SnowFlake.sequenceBits));
+        }
+        int shardSequenceBits = SnowFlake.sequenceBits - shardBits;
+        long machineBits = ((long) dataCenterId << SnowFlake.dataCenterIdShift) | ((long) workerId << SnowFlake.workerIdShift);
+        shards = new Shard[1 << shardBits];
+        states = new AtomicLongArray((shards.length + 1) * PADDING);//首尾各留出一段，与数组头和其他对象隔开
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(states, (i + 1) * PADDING, machineBits | ((long) i << shardSequenceBits), MaxNum.maxNumByXBits(shardSequenceBits));
+        }
+        localShard = ThreadLocal.withInitial(() -> shards[nextShard.getAndIncrement() & (shards.length - 1)]);
+    }
+
+    /**
+     * 根据 CPU 核数选择分片数（不小于核数的 2 的幂，最多 4096）
+     */
+    public static StripedSnowFlake perCore(int workerId, int dataCenterId) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int shardBits = Math.min(32 - Integer.numberOfLeadingZeros(cores - 1), SnowFlake.sequenceBits);
+        return new StripedSnowFlake(workerId, dataCenterId, shardBits);
+    }
+
+    public long nextId() {
+        return localShard.get().nextId();
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 单个分片，与 {@link AtomicSnowFlake} 相同：state = (上次时间戳 - twEpoch) << 22 | 分片内序列号
+     * <p>
+     * 自身只有只读字段，可写的 state 在 states[slot]
+     */
+    static final class Shard {
+        private final AtomicLongArray states;
+        private final int slot;
+        private final long fixedBits;//数据标识、机器标识、分片号
+        private final long maxSequence;//分片内最大序列号
+
+        Shard(AtomicLongArray states, int slot, long fixedBits, long maxSequence) {
+            this.states = states;
+            this.slot = slot;
+            this.fixedBits = fixedBits;
+            this.maxSequence = maxSequence;
+        }
+
+        long nextId() {
+            while (true) {
+                long current = states.get(slot);
+                long lastTimestamp = (current >>> SnowFlake.timestampLeftShift) + SnowFlake.twEpoch;
+                long currentMills = System.currentTimeMillis();
+                if (currentMills < lastTimestamp) {
+                    SnowFlake.clockBackwards.increment();
+                    throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+                }
+                long next;
+                if (currentMills == lastTimestamp) {
+                    if ((current & maxSequence) == maxSequence) {//本分片本毫秒已用完，park 到下一毫秒
+                        SnowFlake.parkTilNextMillis(lastTimestamp, System::currentTimeMillis);
+                        continue;
+                    }
+                    next = current + 1;
+                } else {
+                    next = (currentMills - SnowFlake.twEpoch) << SnowFlake.timestampLeftShift;
+                }
+                if (states.compareAndSet(slot, current, next)) {
+                    SnowFlake.idsGenerated.increment();
+                    return next | fixedBits;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        StripedSnowFlake snowFlake = StripedSnowFlake.perCore(9, 20);
+        int threads = 64;
+        int perThread = 20000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                long last = -1;
+                for (int j = 0; j < perThread; j++) {
+                    long id = snowFlake.nextId();
+                    if (id <= last) {
+                        throw new IllegalStateException("not monotonic: " + last + " -> " + id);
+                    }
+                    last = id;
+                    ids.add(id);
+                }
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.printf("%d shards, %d unique ids in %.1f ms%n", snowFlake.shardCount(), ids.size(), (System.nanoTime() - begin) / 1e6);
+    }
+}
@@ -0,0 +1,163 @@
+package com.lyle.algorithm.snow;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 容忍时钟回拨的雪花算法
+ * <p>
+ * 1. 时钟回拨不超过 maxDriftMillis 时不抛异常，继续使用上次的时间戳（"借用"未来的时间）；
+ *    当前毫秒的序列号用完时，只要不超出 maxDriftMillis，也直接借用下一毫秒而不等待
+ * 2. 超出借用窗口才需要等待，等待时 park 而不是像 tilNextMillis 那样空转
+ * 3. 时间从 {@link CoarseClock} 读取，每次只有一次 volatile 读
+ * 4. borrowedMillis 统计借用过的毫秒数，waits 统计等待次数
+ * <p>
+ * 回拨超过 maxDriftMillis 时仍然抛出异常。ID 布局与 {@link SnowFlake} 相同，同样保证单调递增
+ */
+public class TolerantSnowFlake extends SnowFlake {
+
+    private final long maxDriftMillis;//最多借用多少毫秒
+    private final CoarseClock clock;
+    private volatile long borrowedMillis;
+    private volatile long waits;
+
+    public TolerantSnowFlake(int workerId, int dataCenterId, long maxDriftMillis) {
+        this(workerId, dataCenterId, maxDriftMillis, CoarseClock.getDefault());
+    }
+
+    public TolerantSnowFlake(int workerId, int dataCenterId, long maxDriftMillis, CoarseClock clock) {
+        super(workerId, dataCenterId);
+        if (maxDriftMillis < 0) {
+            throw new IllegalArgumentException("maxDriftMillis can't be less than 0");
+        }
+        this.maxDriftMillis = maxDriftMillis;
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    @Override
+    public synchronized long nextId() {
+        long currentMills = currentMills();
+        if (lastTimestamp - currentMills > maxDriftMillis) {
+            clockBackwards.increment();
+            throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+        }
+        long timestamp = Math.max(currentMills, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & maxSequence;
+            if (sequence == 0) {// 毫秒内序列溢出，进入下一毫秒
+                sequenceExhausted.increment();
+                timestamp++;
+                if (timestamp - currentMills > maxDriftMillis) {//超出借用窗口，等待时钟追上来
+                    long start = waitNanos.start();
+                    currentMills = tilNextMillis(timestamp - maxDriftMillis - 1);
+                    waitNanos.recordSince(start);
+                    timestamp = Math.max(currentMills, timestamp);
+                }
+            }
+        } else {
+            sequence = 0L;
+        }
+        if (timestamp > currentMills && timestamp != lastTimestamp) {
+            borrowedMillis++;
+        }
+        lastTimestamp = timestamp;
+        idsGenerated.increment();
+        return ((timestamp - twEpoch) << timestampLeftShift)
+                | (dataCenterId << dataCenterIdShift)
+                | (workerId << workerIdShift)
+                | sequence;
+    }
+
+    /**
+     * 与 {@link SnowFlake#fill} 一样每次预留一毫秒内剩余的一段连续序列号，借用规则与 nextId 相同：
+     * 本毫秒用完时直接借用下一毫秒，超出 maxDriftMillis 才等待
+     */
+    @Override
+    public synchronized void fill(long[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        while (len > 0) {
+            long currentMills = currentMills();
+            if (lastTimestamp - currentMills > maxDriftMillis) {
+                clockBackwards.increment();
+                throw new RuntimeException(String.format("Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentMills));
+            }
+            long timestamp = Math.max(currentMills, lastTimestamp);
+            long from = 0;//本次预留的起始序列号
+            if (timestamp == lastTimestamp) {
+                if (sequence == maxSequence) {//本毫秒已用完，进入下一毫秒
+                    sequenceExhausted.increment();
+                    timestamp++;
+                    if (timestamp - currentMills > maxDriftMillis) {//超出借用窗口，等待时钟追上来
+                        long start = waitNanos.start();
+                        currentMills = tilNextMillis(timestamp - maxDriftMillis - 1);
+                        waitNanos.recordSince(start);
+                        timestamp = Math.max(currentMills, timestamp);
+                    }
+                } else {
+                    from = sequence + 1;
+                }
+            }
+            if (timestamp > currentMills && timestamp != lastTimestamp) {
+                borrowedMillis++;
+            }
+            int count = (int) Math.min(len, maxSequence + 1 - from);
+            long base = ((timestamp - twEpoch) << timestampLeftShift)
+                    | (dataCenterId << dataCenterIdShift)
+                    | (workerId << workerIdShift);
+            for (int i = 0; i < count; i++) {
+                dst[off++] = base | (from + i);
+            }
+            sequence = from + count - 1;
+            lastTimestamp = timestamp;
+            idsGenerated.add(count);
+            len -= count;
+        }
+    }
+
+    /**
+     * park 到下一个毫秒，而不是空转
+     */
+    @Override
+    protected long tilNextMillis(long lastTimestamp) {
+        waits++;
+        long currentMills = currentMills();
+        while (currentMills <= lastTimestamp) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lastTimestamp + 1 - currentMills));
+            currentMills = currentMills();
+        }
+        return currentMills;
+    }
+
+    @Override
+    protected long currentMills() {
+        return clock.millis();
+    }
+
+    /**
+     * @return 借用过的毫秒数
+     */
+    public long getBorrowedMillis() {
+        return borrowedMillis;
+    }
+
+    /**
+     * @return 因超出借用窗口而等待的次数
+     */
+    public long getWaits() {
+        return waits;
+    }
+
+    public static void main(String[] args) {
+        TolerantSnowFlake snowFlake = new TolerantSnowFlake(9, 20, 5);
+        long last = -1;
+        for (int i = 0; i < 1_000_000; i++) {
+            long id = snowFlake.nextId();
+            if (id <= last) {
+                throw new IllegalStateException("not monotonic: " + last + " -> " + id);
+            }
+            last = id;
+        }
+        System.out.printf("borrowed %d ms, waits %d%n", snowFlake.getBorrowedMillis(), snowFlake.getWaits());
+    }
+}
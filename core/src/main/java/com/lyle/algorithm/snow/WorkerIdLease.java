@@ -0,0 +1,247 @@
+package com.lyle.algorithm.snow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 机器ID租约
+ * <p>
+ * 在共享目录下为每个 (dataCenterId, workerId) 建一个租约文件，谁持有文件锁谁就拥有这个 workerId，
+ * 进程退出（包括崩溃）时操作系统自动释放文件锁，相当于本机版的协调服务
+ * <p>
+ * 租约文件里保存一个时间戳上界 reservedUntil：本进程生成的 ID 时间戳一定不超过它。
+ * 1. 后台线程每隔 renewInterval 把 reservedUntil 推进到 now + 2 * renewInterval
+ * 2. 生成 ID 时如果时间超过了 reservedUntil（例如续租线程被卡住），同步续租后再生成
+ * 3. 正常关闭时写入实际的最后时间戳；没有创建过生成器就关闭时恢复上一个持有者的上界，下一个持有者不必多等
+ * 4. 下一个拿到这个 workerId 的进程先等到时钟越过 reservedUntil 再生成 ID，所以不会和上一个进程重复
+ * <p>
+ * 申请租约只需要依次 tryLock 几个文件，不等待任何锁
+ */
+public class WorkerIdLease implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(WorkerIdLease.class.getName());
+
+    private final int workerId;
+    private final int dataCenterId;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final long previousReservedUntil;//上一个持有者留下的时间戳上界
+    private final long renewMillis;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+    private final ScheduledExecutorService renewer;
+
+    private volatile long reservedUntil;
+    private volatile boolean closed;
+    private volatile LeasedSnowFlake snowFlake;
+
+    private WorkerIdLease(int workerId, int dataCenterId, FileChannel channel, FileLock lock,
+                          long previousReservedUntil, long renewMillis) throws IOException {
+        this.workerId = workerId;
+        this.dataCenterId = dataCenterId;
+        this.channel = channel;
+        this.lock = lock;
+        this.previousReservedUntil = previousReservedUntil;
+        this.renewMillis = renewMillis;
+        reserve(Math.max(System.currentTimeMillis(), previousReservedUntil) + 2 * renewMillis);
+        renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "worker-id-lease-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewer.scheduleWithFixedDelay(this::renew, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在 dir 下申请 dataCenterId 中一个空闲的 workerId
+     *
+     * @param renewInterval 续租间隔
+     * @throws IllegalStateException 所有 workerId 都被占用
+     */
+    public static WorkerIdLease acquire(Path dir, int dataCenterId, Duration renewInterval) throws IOException {
+        if (dataCenterId > SnowFlake.maxDataCenterId || dataCenterId < 0) {
+            throw new IllegalArgumentException(String.format("dataCenterId can't be greater than %d or less than 0", SnowFlake.maxDataCenterId));
+        }
+        Files.createDirectories(dir);
+        int total = (int) SnowFlake.maxWorkerId + 1;
+        int start = (int) (ProcessHandle.current().pid() % total);//不同进程从不同位置开始尝试，减少冲突
+        for (int i = 0; i < total; i++) {
+            int workerId = (start + i) % total;
+            Path file = dir.resolve(String.format("dc-%d-worker-%d.lease", dataCenterId, workerId));
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {//同一个 JVM 已持有
+                lock = null;
+            }
+            if (lock == null) {
+                channel.close();
+                continue;
+            }
+            try {
+                ByteBuffer previous = ByteBuffer.allocate(Long.BYTES);
+                while (previous.hasRemaining() && channel.read(previous, previous.position()) > 0) {
+                }
+                long previousReservedUntil = previous.position() == Long.BYTES ? previous.flip().getLong() : -1L;
+                return new WorkerIdLease(workerId, dataCenterId, channel, lock, previousReservedUntil, renewInterval.toMillis());
+            } catch (IOException | RuntimeException e) {//关闭 channel 同时释放文件锁，否则这个 workerId 在本 JVM 退出前都拿不到
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+        throw new IllegalStateException(String.format("No free workerId in dataCenter %d under %s", dataCenterId, dir));
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public int getDataCenterId() {
+        return dataCenterId;
+    }
+
+    /**
+     * @return 上一个持有者留下的时间戳上界，没有返回 -1
+     */
+    public long getPreviousReservedUntil() {
+        return previousReservedUntil;
+    }
+
+    /**
+     * 创建使用本租约 workerId 的生成器，等到时钟越过上一个持有者的时间戳上界后返回
+     */
+    public synchronized SnowFlake newSnowFlake() {
+        if (snowFlake == null) {
+            long waitMillis;
+            while ((waitMillis = previousReservedUntil - System.currentTimeMillis()) >= 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(waitMillis + 1));
+            }
+            snowFlake = new LeasedSnowFlake(this);
+        }
+        return snowFlake;
+    }
+
+    /**
+     * 后台续租。异常不能抛出去，否则 ScheduledExecutorService 会取消之后所有的续租；
+     * 这次没写成功也不要紧，生成 ID 时发现超过 reservedUntil 会同步续租，那时再失败会抛给调用方
+     */
+    private void renew() {
+        try {
+            reserve(System.currentTimeMillis() + 2 * renewMillis);
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, String.format("renew lease of dataCenter %d worker %d failed", dataCenterId, workerId), e);
+        }
+    }
+
+    /**
+     * 推进时间戳上界并落盘
+     */
+    private synchronized void reserve(long until) {
+        if (until <= reservedUntil || closed) {
+            return;
+        }
+        write(until);
+        reservedUntil = until;
+    }
+
+    private void write(long timestamp) {
+        buffer.clear();
+        buffer.putLong(timestamp).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写入实际的最后时间戳并释放租约，之后生成器不能再生成 ID
+     * 加锁顺序与 nextId 一致：先生成器，后租约
+     */
+    @Override
+    public void close() throws IOException {
+        LeasedSnowFlake snowFlake = this.snowFlake;
+        synchronized (snowFlake != null ? snowFlake : this) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                renewer.shutdownNow();
+                try {
+                    if (this.snowFlake == null) {//没有创建过生成器，不会有本进程的 ID，恢复上一个持有者的上界
+                        write(previousReservedUntil);
+                    } else if (snowFlake == this.snowFlake) {//持有生成器的锁，不会有正在生成的 ID
+                        write(snowFlake.lastTimestamp);
+                    }//否则生成器是在读取 this.snowFlake 之后才创建的，保留 reservedUntil
+                } finally {//写失败时文件里仍是 reservedUntil，照样释放租约
+                    try {
+                        lock.release();
+                    } finally {
+                        channel.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 生成 ID 前确认时间戳在租约上界之内
+     */
+    static final class LeasedSnowFlake extends SnowFlake {
+        private final WorkerIdLease lease;
+
+        LeasedSnowFlake(WorkerIdLease lease) {
+            super(lease.workerId, lease.dataCenterId);
+            this.lease = lease;
+        }
+
+        @Override
+        protected long currentMills() {
+            if (lease.closed) {
+                throw new IllegalStateException("WorkerIdLease is closed");
+            }
+            long currentMills = super.currentMills();
+            if (currentMills > lease.reservedUntil) {//续租线程没跟上，同步续租
+                lease.reserve(currentMills + 2 * lease.renewMillis);
+            }
+            return currentMills;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("worker-lease");
+        long start = System.nanoTime();
+        try (WorkerIdLease first = WorkerIdLease.acquire(dir, 1, Duration.ofSeconds(1));
+             WorkerIdLease second = WorkerIdLease.acquire(dir, 1, Duration.ofSeconds(1))) {
+            System.out.printf("acquired workerId %d and %d in %.1f ms%n", first.getWorkerId(), second.getWorkerId(), (System.nanoTime() - start) / 1e6);
+            System.out.println(first.newSnowFlake().nextId());
+        }
+        start = System.nanoTime();
+        try (WorkerIdLease again = WorkerIdLease.acquire(dir, 1, Duration.ofSeconds(1))) {
+            SnowFlake snowFlake = again.newSnowFlake();
+            System.out.printf("re-acquired workerId %d (previous reservedUntil %d) in %.1f ms, id %d%n",
+                    again.getWorkerId(), again.getPreviousReservedUntil(), (System.nanoTime() - start) / 1e6, snowFlake.nextId());
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.heap.HeapSort;
+import com.lyle.algorithm.metrics.Counter;
+import com.lyle.algorithm.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 自适应排序（introsort），通过 {@link SortEngine#adaptiveSort(int[])} 调用
+ * <p>
+ * 1. 先扫描一遍找升序段（降序段原地翻转），段数不超过 MAX_RUNS 时认为基本有序，
+ *    直接两两归并这些段：已经有序的数组只扫描一遍，O(n)
+ * 2. 否则快速排序：三数取中（长区间取九数中位数）选主元，三路划分为 &lt; p、= p、&gt; p 三段，
+ *    重复值多时中间一段很大且不再参与递归
+ * 3. 递归深度超过 2*log2(n) 说明主元一直选得不好，剩下的区间改用 {@link HeapSort#sort(int[], int, int)}，
+ *    保证最坏 O(n log n)
+ * 4. 区间不超过 insertionCutoff 时交给 {@link SortEngine#sortSmall(int[], int, int)}（插入排序）
+ * <p>
+ * 只递归较短的一段，较长的一段在循环中继续处理，栈深度 O(log n)
+ */
+final class AdaptiveSort {
+
+    /**
+     * 升序段超过这个数就不再按基本有序处理
+     */
+    static final int MAX_RUNS = 64;
+
+    /**
+     * 区间超过这个长度时用九数取中
+     */
+    static final int NINTHER_THRESHOLD = 128;
+
+    static final Counter presorted = Metrics.counter("sort.adaptive.presorted");//按基本有序归并完成的次数
+    static final Counter heapFallbacks = Metrics.counter("sort.adaptive.heapFallbacks");//退化为堆排序的次数
+
+    private AdaptiveSort() {
+    }
+
+    static void sort(int[] arr, int from, int to, SortEngine engine) {
+        int n = to - from;
+        if (n <= engine.insertionCutoff) {
+            engine.sortSmall(arr, from, to);
+            return;
+        }
+        if (tryMergeRuns(arr, from, to)) {
+            presorted.increment();
+            return;
+        }
+        introSort(arr, from, to, 2 * (31 - Integer.numberOfLeadingZeros(n)), engine);
+    }
+
+    static void sort(long[] arr, int from, int to, SortEngine engine) {
+        int n = to - from;
+        if (n <= engine.insertionCutoff) {
+            engine.sortSmall(arr, from, to);
+            return;
+        }
+        if (tryMergeRuns(arr, from, to)) {
+            presorted.increment();
+            return;
+        }
+        introSort(arr, from, to, 2 * (31 - Integer.numberOfLeadingZeros(n)), engine);
+    }
+
+    //-------------------------------- 有序段检测 --------------------------------
+
+    /**
+     * @return 段数不超过 MAX_RUNS，已归并完成
+     */
+    static boolean tryMergeRuns(int[] arr, int from, int to) {
+        //bounds[k] 为第 k 段的起点，bounds[count] 为终点
+        int[] bounds = new int[MAX_RUNS + 1];
+        bounds[0] = from;
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int start = i++;
+            if (i < to && arr[i] < arr[i - 1]) {//降序，翻转后变成升序（基本类型不需要稳定，相等的元素也一起翻转）
+                while (i < to && arr[i] <= arr[i - 1]) {
+                    i++;
+                }
+                reverse(arr, start, i);
+            } else {
+                while (i < to && arr[i] >= arr[i - 1]) {
+                    i++;
+                }
+            }
+            if (count > 0 && arr[start - 1] <= arr[start]) {//与上一段首尾相接，合并成一段
+                bounds[count] = i;
+            } else if (count == MAX_RUNS) {
+                return false;
+            } else {
+                bounds[++count] = i;
+            }
+        }
+        if (count > 1) {
+            mergeRuns(arr, bounds, count);
+        }
+        return true;
+    }
+
+    static boolean tryMergeRuns(long[] arr, int from, int to) {
+        int[] bounds = new int[MAX_RUNS + 1];
+        bounds[0] = from;
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int start = i++;
+            if (i < to && arr[i] < arr[i - 1]) {
+                while (i < to && arr[i] <= arr[i - 1]) {
+                    i++;
+                }
+                reverse(arr, start, i);
+            } else {
+                while (i < to && arr[i] >= arr[i - 1]) {
+                    i++;
+                }
+            }
+            if (count > 0 && arr[start - 1] <= arr[start]) {
+                bounds[count] = i;
+            } else if (count == MAX_RUNS) {
+                return false;
+            } else {
+                bounds[++count] = i;
+            }
+        }
+        if (count > 1) {
+            mergeRuns(arr, bounds, count);
+        }
+        return true;
+    }
+
+    /**
+     * 相邻的段两两归并，每一轮段数减半，在 arr 与辅助数组之间来回搬运
+     */
+    private static void mergeRuns(int[] arr, int[] bounds, int count) {
+        int from = bounds[0];
+        int[] buf = new int[bounds[count] - from];
+        int[] src = arr;
+        int[] dst = buf;
+        int srcBase = 0;//下标 i 在 src 中的位置为 i - srcBase
+        int dstBase = from;
+        while (count > 1) {
+            for (int r = 0; r < count; r += 2) {
+                int lo = bounds[r];
+                int mid = bounds[r + 1];
+                if (r + 1 == count) {//落单的最后一段直接拷贝
+                    System.arraycopy(src, lo - srcBase, dst, lo - dstBase, mid - lo);
+                    bounds[r / 2 + 1] = mid;
+                } else {
+                    int hi = bounds[r + 2];
+                    ParallelMergeSort.merge(src, lo - srcBase, mid - srcBase, mid - srcBase, hi - srcBase, dst, lo - dstBase);
+                    bounds[r / 2 + 1] = hi;
+                }
+            }
+            count = (count + 1) / 2;
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempBase = srcBase;
+            srcBase = dstBase;
+            dstBase = tempBase;
+        }
+        if (src != arr) {
+            System.arraycopy(buf, 0, arr, from, buf.length);
+        }
+    }
+
+    private static void mergeRuns(long[] arr, int[] bounds, int count) {
+        int from = bounds[0];
+        long[] buf = new long[bounds[count] - from];
+        long[] src = arr;
+        long[] dst = buf;
+        int srcBase = 0;
+        int dstBase = from;
+        while (count > 1) {
+            for (int r = 0; r < count; r += 2) {
+                int lo = bounds[r];
+                int mid = bounds[r + 1];
+                if (r + 1 == count) {
+                    System.arraycopy(src, lo - srcBase, dst, lo - dstBase, mid - lo);
+                    bounds[r / 2 + 1] = mid;
+                } else {
+                    int hi = bounds[r + 2];
+                    ParallelMergeSort.merge(src, lo - srcBase, mid - srcBase, mid - srcBase, hi - srcBase, dst, lo - dstBase);
+                    bounds[r / 2 + 1] = hi;
+                }
+            }
+            count = (count + 1) / 2;
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempBase = srcBase;
+            srcBase = dstBase;
+            dstBase = tempBase;
+        }
+        if (src != arr) {
+            System.arraycopy(buf, 0, arr, from, buf.length);
+        }
+    }
+
+    private static void reverse(int[] arr, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+    }
+
+    private static void reverse(long[] arr, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            long temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+    }
+
+    //-------------------------------- introsort --------------------------------
+
+    static void introSort(int[] arr, int lo, int hi, int depth, SortEngine engine) {
+        while (hi - lo > engine.insertionCutoff) {
+            if (depth-- == 0) {//主元一直选得不好，改用堆排序
+                heapFallbacks.increment();
+                HeapSort.sort(arr, lo, hi);
+                return;
+            }
+            int pivot = choosePivot(arr, lo, hi);
+            //三路划分：[lo, lt) < pivot，[lt, gt] == pivot，(gt, hi) > pivot
+            int lt = lo;
+            int gt = hi - 1;
+            for (int i = lo; i <= gt; ) {
+                int v = arr[i];
+                if (v < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (v > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - lo < hi - gt - 1) {//递归较短的一段
+                introSort(arr, lo, lt, depth, engine);
+                lo = gt + 1;
+            } else {
+                introSort(arr, gt + 1, hi, depth, engine);
+                hi = lt;
+            }
+        }
+        engine.sortSmall(arr, lo, hi);
+    }
+
+    static void introSort(long[] arr, int lo, int hi, int depth, SortEngine engine) {
+        while (hi - lo > engine.insertionCutoff) {
+            if (depth-- == 0) {
+                heapFallbacks.increment();
+                HeapSort.sort(arr, lo, hi);
+                return;
+            }
+            long pivot = choosePivot(arr, lo, hi);
+            int lt = lo;
+            int gt = hi - 1;
+            for (int i = lo; i <= gt; ) {
+                long v = arr[i];
+                if (v < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (v > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (lt - lo < hi - gt - 1) {
+                introSort(arr, lo, lt, depth, engine);
+                lo = gt + 1;
+            } else {
+                introSort(arr, gt + 1, hi, depth, engine);
+                hi = lt;
+            }
+        }
+        engine.sortSmall(arr, lo, hi);
+    }
+
+    /**
+     * 三数取中，区间较长时取三组三数中位数的中位数
+     */
+    private static int choosePivot(int[] arr, int lo, int hi) {
+        int n = hi - lo;
+        int mid = (lo + hi) >>> 1;
+        if (n <= NINTHER_THRESHOLD) {
+            return median(arr[lo], arr[mid], arr[hi - 1]);
+        }
+        int step = n / 8;
+        return median(median(arr[lo], arr[lo + step], arr[lo + 2 * step]),
+                median(arr[mid - step], arr[mid], arr[mid + step]),
+                median(arr[hi - 1 - 2 * step], arr[hi - 1 - step], arr[hi - 1]));
+    }
+
+    private static long choosePivot(long[] arr, int lo, int hi) {
+        int n = hi - lo;
+        int mid = (lo + hi) >>> 1;
+        if (n <= NINTHER_THRESHOLD) {
+            return median(arr[lo], arr[mid], arr[hi - 1]);
+        }
+        int step = n / 8;
+        return median(median(arr[lo], arr[lo + step], arr[lo + 2 * step]),
+                median(arr[mid - step], arr[mid], arr[mid + step]),
+                median(arr[hi - 1 - 2 * step], arr[hi - 1 - step], arr[hi - 1]));
+    }
+
+    private static int median(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * 不同分布下与 Arrays.sort、HeapSort 对比，参数：元素个数（默认 200 万）
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+        int[] randomArr = random.ints(n).toArray();
+        int[] sorted = randomArr.clone();
+        Arrays.sort(sorted);
+        int[] reversed = new int[n];
+        for (int i = 0; i < n; i++) {
+            reversed[i] = sorted[n - 1 - i];
+        }
+        int[] nearlySorted = sorted.clone();
+        for (int i = 0; i < 10; i++) {//随机交换 10 对
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            int temp = nearlySorted[a];
+            nearlySorted[a] = nearlySorted[b];
+            nearlySorted[b] = temp;
+        }
+        int[] fewUnique = random.ints(n, 0, 16).toArray();
+        int[] sawtooth = new int[n];
+        for (int i = 0; i < n; i++) {
+            sawtooth[i] = i % (n / 16);
+        }
+        String[] names = {"random", "sorted", "reversed", "nearly sorted", "few unique", "sawtooth"};
+        int[][] inputs = {randomArr, sorted, reversed, nearlySorted, fewUnique, sawtooth};
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            System.out.printf("round %d, n = %d%n", round, n);
+            for (int i = 0; i < inputs.length; i++) {
+                System.out.printf("  %-14s Arrays.sort %7.1f ms, HeapSort %7.1f ms, adaptiveSort %7.1f ms%n", names[i],
+                        time(inputs[i], Arrays::sort), time(inputs[i], HeapSort::sort), time(inputs[i], SortEngine.DEFAULT::adaptiveSort));
+            }
+        }
+    }
+
+    private static double time(int[] source, Consumer<int[]> sorter) {
+        int[] arr = source.clone();
+        long start = System.nanoTime();
+        sorter.accept(arr);
+        long elapsed = System.nanoTime() - start;
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) {
+                throw new IllegalStateException("not sorted at " + i);
+            }
+        }
+        return elapsed / 1e6;
+    }
+}
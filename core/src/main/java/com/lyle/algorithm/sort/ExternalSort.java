@@ -0,0 +1,546 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.heap.IndexedMinHeap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 外部排序：对超出内存的 int/long 二进制文件排序（大端，定长记录，没有文件头）
+ * <p>
+ * 1. 切分：每次读入 memoryBudget 允许的记录数，用 {@link SortEngine#parallelMergeSort(long[], int, int, long[])} 并行排序，
+ *    通过 FileChannel 写成一个有序的 run 文件。归并排序需要等长的辅助数组，所以一个 run 占 memoryBudget / 2，
+ *    run 数组和辅助数组只分配一次，所有 run 复用
+ * 2. 归并：每个 run 按 readAheadBytes 分段 mmap，映射后立即 load() 把这一段读入内存（预读），
+ *    各 run 的当前记录放在 {@link IndexedMinHeap} 中，id 就是第几个 run，与 {@link com.lyle.algorithm.heap.KWayMerge} 相同。
+ *    run 的个数超过 fanIn 时先分组归并成更大的 run，直到不超过 fanIn 再做最后一轮。
+ *    同时映射的 fanIn 段不超过 memoryBudget：readAheadBytes 大于 memoryBudget / fanIn 时按后者取
+ * 3. 输出：最后一轮归并写入输出文件，或者作为 LongStream 惰性输出（关闭流时删除临时文件）
+ * <p>
+ * 读写文件另用一块 1MB 的直接内存缓冲区，不计入 memoryBudget
+ * <p>
+ * 临时文件放在 tempDir 下新建的目录中，排序结束后删除
+ */
+public final class ExternalSort {
+
+    /**
+     * 记录格式
+     */
+    public enum Format {
+        INT(Integer.BYTES), LONG(Long.BYTES);
+
+        final int bytes;
+
+        Format(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;//用于释放映射，见 unmap
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Format format;
+    private final long memoryBudgetBytes;
+    private final int readAheadBytes;
+    private final int fanIn;
+    private final Path tempDir;
+    private final SortEngine engine;
+
+    private ExternalSort(Builder builder) {
+        this.format = builder.format;
+        this.memoryBudgetBytes = builder.memoryBudgetBytes;
+        //归并时同时映射 fanIn 段，限制在 memoryBudget 以内；按记录对齐，至少一条记录
+        long readAhead = Math.min(builder.readAheadBytes, builder.memoryBudgetBytes / builder.fanIn);
+        this.readAheadBytes = (int) Math.max(builder.format.bytes, readAhead / builder.format.bytes * builder.format.bytes);
+        this.fanIn = builder.fanIn;
+        this.tempDir = builder.tempDir;
+        this.engine = builder.engine;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 对 input 排序，结果写入 output
+     */
+    public void sort(Path input, Path output) throws IOException {
+        Path workDir = Files.createTempDirectory(tempDir, "external-sort");
+        try {
+            List<Path> runs = mergePasses(createRuns(input, workDir), workDir);
+            try (MergeIterator merged = new MergeIterator(runs, format, readAheadBytes)) {
+                write(merged, output);
+            }
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * 对 input 排序，按升序惰性输出（int 记录扩展为 long）。用完后需要关闭流以删除临时文件
+     */
+    public LongStream sortedStream(Path input) throws IOException {
+        Path workDir = Files.createTempDirectory(tempDir, "external-sort");
+        MergeIterator merged;
+        try {
+            merged = new MergeIterator(mergePasses(createRuns(input, workDir), workDir), format, readAheadBytes);
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(workDir);
+            throw e;
+        }
+        return StreamSupport.longStream(Spliterators.spliterator(merged, merged.remaining, Spliterator.ORDERED | Spliterator.SORTED), false)
+                .onClose(() -> {
+                    try {
+                        try {
+                            merged.close();
+                        } finally {
+                            deleteRecursively(workDir);//与 sort(Path, Path) 一样，关闭失败也要删除临时文件
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * 第 1 步：按内存预算切分、排序，写成 run 文件
+     */
+    List<Path> createRuns(Path input, Path workDir) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % format.bytes != 0) {
+                throw new IllegalArgumentException(String.format("size of %s must be a multiple of %d", input, format.bytes));
+            }
+            long totalRecords = size / format.bytes;
+            int runRecords = (int) Math.min(totalRecords, Math.min(Integer.MAX_VALUE - 8, memoryBudgetBytes / (2L * format.bytes)));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+            //run 与归并排序的辅助数组各占一半预算，所有 run 复用这两个数组，最后一个较短的 run 只用前 count 个元素
+            if (format == Format.LONG) {
+                long[] run = new long[runRecords];
+                long[] scratch = new long[runRecords];
+                for (long done = 0; done < totalRecords; done += runRecords) {
+                    int count = (int) Math.min(runRecords, totalRecords - done);
+                    readFully(in, buffer, run, count);
+                    engine.parallelMergeSort(run, 0, count, scratch);
+                    runs.add(writeRun(workDir, runs.size(), run, count, buffer));
+                }
+            } else {
+                int[] run = new int[runRecords];
+                int[] scratch = new int[runRecords];
+                for (long done = 0; done < totalRecords; done += runRecords) {
+                    int count = (int) Math.min(runRecords, totalRecords - done);
+                    readFully(in, buffer, run, count);
+                    engine.parallelMergeSort(run, 0, count, scratch);
+                    runs.add(writeRun(workDir, runs.size(), run, count, buffer));
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * 第 2 步：run 超过 fanIn 个时分组归并，直到不超过 fanIn
+     */
+    List<Path> mergePasses(List<Path> runs, Path workDir) throws IOException {
+        int pass = 0;
+        while (runs.size() > fanIn) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += fanIn) {
+                List<Path> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                Path out = workDir.resolve(String.format("pass-%d-run-%d.bin", pass, merged.size()));
+                try (MergeIterator iterator = new MergeIterator(group, format, readAheadBytes)) {
+                    write(iterator, out);
+                }
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                merged.add(out);
+            }
+            runs = merged;
+            pass++;
+        }
+        return runs;
+    }
+
+    private void write(PrimitiveIterator.OfLong values, Path output) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (values.hasNext()) {
+                if (buffer.remaining() < format.bytes) {
+                    writeFully(out, buffer);
+                }
+                if (format == Format.LONG) {
+                    buffer.putLong(values.nextLong());
+                } else {
+                    buffer.putInt((int) values.nextLong());
+                }
+            }
+            writeFully(out, buffer);
+        }
+    }
+
+    private static Path writeRun(Path workDir, int index, long[] arr, int count, ByteBuffer buffer) throws IOException {
+        Path path = workDir.resolve(String.format("run-%d.bin", index));
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < count; ) {
+                int n = Math.min(count - i, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(arr, i, n);
+                buffer.position(buffer.position() + n * Long.BYTES);
+                i += n;
+                writeFully(out, buffer);
+            }
+        }
+        return path;
+    }
+
+    private static Path writeRun(Path workDir, int index, int[] arr, int count, ByteBuffer buffer) throws IOException {
+        Path path = workDir.resolve(String.format("run-%d.bin", index));
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < count; ) {
+                int n = Math.min(count - i, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(arr, i, n);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                i += n;
+                writeFully(out, buffer);
+            }
+        }
+        return path;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long[] arr, int count) throws IOException {
+        for (int i = 0; i < count; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), (long) (count - i) * Long.BYTES));
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of input");
+                }
+            }
+            buffer.flip();
+            int n = buffer.remaining() / Long.BYTES;
+            buffer.asLongBuffer().get(arr, i, n);
+            i += n;
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, int[] arr, int count) throws IOException {
+        for (int i = 0; i < count; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), (long) (count - i) * Integer.BYTES));
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of input");
+                }
+            }
+            buffer.flip();
+            int n = buffer.remaining() / Integer.BYTES;
+            buffer.asIntBuffer().get(arr, i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * 写出 buffer 中 [0, position) 的内容并清空
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());//先删文件，后删目录
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * 立即释放映射。MappedByteBuffer 要等 GC 回收时才解除映射，大文件逐段映射时映射数会一直累积，
+     * 可能超过 vm.max_map_count，所以换段时通过 Unsafe.invokeCleaner 主动释放；不可用时交给 GC
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            //忽略，交给 GC
+        }
+    }
+
+    /**
+     * 顺序读取一个 run 文件，每次 mmap 一段并预读
+     */
+    static final class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final Format format;
+        private final long size;
+        private final int windowBytes;
+        private long windowEnd;//已映射到文件的哪个位置
+        private MappedByteBuffer window;
+        long head;//当前记录
+
+        RunReader(Path path, Format format, int windowBytes) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.format = format;
+            this.size = channel.size();
+            this.windowBytes = windowBytes;
+        }
+
+        /**
+         * 读入下一条记录到 head
+         *
+         * @return 已经读完返回 false
+         */
+        boolean advance() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (windowEnd >= size) {
+                    return false;
+                }
+                long length = Math.min(windowBytes, size - windowEnd);
+                unmap(window);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+                window.load();//预读，归并时不再因缺页而阻塞
+                windowEnd += length;
+            }
+            head = format == Format.LONG ? window.getLong() : window.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            unmap(window);
+            window = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * 多个 run 的归并迭代器
+     */
+    static final class MergeIterator implements PrimitiveIterator.OfLong, Closeable {
+        private final RunReader[] readers;
+        private final IndexedMinHeap heap;
+        long remaining;
+
+        MergeIterator(List<Path> runs, Format format, int readAheadBytes) throws IOException {
+            readers = new RunReader[runs.size()];
+            heap = new IndexedMinHeap(runs.size());
+            try {
+                for (int i = 0; i < readers.length; i++) {
+                    readers[i] = new RunReader(runs.get(i), format, readAheadBytes);
+                    remaining += readers[i].size / format.bytes;
+                    if (readers[i].advance()) {
+                        heap.insert(i, readers[i].head);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public long nextLong() {
+            if (heap.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            int id = heap.peekId();
+            RunReader reader = readers[id];
+            long value = reader.head;
+            try {
+                if (reader.advance()) {
+                    heap.increaseKey(id, reader.head);//run 是升序的，只会增大
+                } else {
+                    heap.remove(id);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            remaining--;
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (RunReader reader : readers) {
+                if (reader == null) {
+                    continue;
+                }
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    public static final class Builder {
+        private Format format = Format.LONG;
+        private long memoryBudgetBytes = 256L << 20;
+        private int readAheadBytes = 1 << 20;
+        private int fanIn = 64;
+        private Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+        private SortEngine engine = SortEngine.DEFAULT;
+
+        private Builder() {
+        }
+
+        public Builder format(Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * 切分 run 的数组与归并时的映射最多使用的内存（不含 1MB 的读写缓冲区）
+         */
+        public Builder memoryBudgetBytes(long memoryBudgetBytes) {
+            this.memoryBudgetBytes = memoryBudgetBytes;
+            return this;
+        }
+
+        /**
+         * 归并时每个 run 每次映射、预读的字节数，最多 memoryBudgetBytes / fanIn
+         */
+        public Builder readAheadBytes(int readAheadBytes) {
+            this.readAheadBytes = readAheadBytes;
+            return this;
+        }
+
+        /**
+         * 一轮最多同时归并多少个 run
+         */
+        public Builder fanIn(int fanIn) {
+            this.fanIn = fanIn;
+            return this;
+        }
+
+        public Builder tempDir(Path tempDir) {
+            this.tempDir = tempDir;
+            return this;
+        }
+
+        public Builder engine(SortEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        public ExternalSort build() {
+            if (format == null || tempDir == null || engine == null) {
+                throw new IllegalArgumentException("format, tempDir and engine can't be null");
+            }
+            if (memoryBudgetBytes < 2L * format.bytes) {
+                throw new IllegalArgumentException(String.format("memoryBudgetBytes can't be less than %d", 2 * format.bytes));
+            }
+            if (readAheadBytes < format.bytes) {
+                throw new IllegalArgumentException(String.format("readAheadBytes can't be less than %d", format.bytes));
+            }
+            if (fanIn < 2) {
+                throw new IllegalArgumentException("fanIn can't be less than 2");
+            }
+            return new ExternalSort(this);
+        }
+    }
+
+    /**
+     * 生成随机 long 文件，用较小的内存预算排序并校验，参数：记录数（默认 2000 万，约 160MB）
+     */
+    public static void main(String[] args) throws IOException {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        Path dir = Files.createTempDirectory("external-sort-demo");
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        try {
+            Random random = new Random(42);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+            try (FileChannel out = FileChannel.open(input, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                for (long i = 0; i < n; i++) {
+                    if (!buffer.hasRemaining()) {
+                        writeFully(out, buffer);
+                    }
+                    buffer.putLong(random.nextLong());
+                }
+                writeFully(out, buffer);
+            }
+            ExternalSort sorter = builder().memoryBudgetBytes(32L << 20).fanIn(8).tempDir(dir).build();
+            long start = System.nanoTime();
+            sorter.sort(input, output);
+            System.out.printf("sort %d longs to file with 32MB budget: %.1f ms%n", n, (System.nanoTime() - start) / 1e6);
+
+            start = System.nanoTime();
+            long[] previousAndCount = {Long.MIN_VALUE, 0};
+            try (LongStream sorted = sorter.sortedStream(input)) {
+                sorted.forEach(v -> {
+                    if (v < previousAndCount[0]) {
+                        throw new IllegalStateException("not sorted");
+                    }
+                    previousAndCount[0] = v;
+                    previousAndCount[1]++;
+                });
+            }
+            long count = previousAndCount[1];
+            System.out.printf("sort %d longs as LongStream: %.1f ms, count = %d%n", n, (System.nanoTime() - start) / 1e6, count);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+}
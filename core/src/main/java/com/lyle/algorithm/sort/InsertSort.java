@@ -0,0 +1,69 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.util.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * 插入排序
+ * <p>
+ * 1. [0, 1) 已经有序，把 arr[1] 插入到前面合适的位置，[0, 2) 有序
+ * 2. 把 arr[2] 插入到 [0, 2) 中合适的位置，[0, 3) 有序
+ * ..........................
+ * N-1. 把 arr[N-1] 插入到 [0, N-1) 中，全部有序
+ * <p>
+ * 插入时与 {@link com.lyle.algorithm.heap.HeapSort#adjustHeap(int[], int, int)} 一样先取出当前元素，
+ * 比它大的元素依次后移一位，最后把当前元素放到空出来的位置，不做交换。
+ * 元素少或基本有序时很快，所以也用作其它排序在小区间上的收尾
+ */
+public class InsertSort {
+
+
+    public static void main(String[] args) {
+        int[] arr = {99, 345, 23, 0, 9999, 12, 45, 32, 43, 5, 6, 9};
+        int[] compare = arr.clone();
+        insertSort(arr);
+        ArrayUtils.printArr(arr);
+
+        Arrays.sort(compare);
+        ArrayUtils.printArr(compare);
+    }
+
+    public static void insertSort(int[] arr) {
+        insertSort(arr, 0, arr.length);
+    }
+
+    /**
+     * 对 [from, to) 排序
+     */
+    public static void insertSort(int[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int temp = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > temp) {//比 temp 大的后移一位
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = temp;
+        }
+    }
+
+    public static void insertSort(long[] arr) {
+        insertSort(arr, 0, arr.length);
+    }
+
+    /**
+     * 对 [from, to) 排序，long[] 版本
+     */
+    public static void insertSort(long[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long temp = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > temp) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = temp;
+        }
+    }
+}
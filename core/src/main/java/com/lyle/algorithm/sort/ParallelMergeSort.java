@@ -0,0 +1,302 @@
+package com.lyle.algorithm.sort;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * fork-join 归并排序，通过 {@link SortEngine#parallelMergeSort(int[])} 调用
+ * <p>
+ * 需要一个与原数组等长的辅助数组 buf。为了避免每层都把合并结果拷回原数组，两个数组轮流作为目标：
+ * 要把结果放到 a 中，就先把左右两半分别排序到 b 中，再从 b 合并回 a，反之亦然
+ * <pre>
+ *     sort(lo, hi, 目标 a)
+ *       = sort(lo, mid, 目标 b) || sort(mid, hi, 目标 b)    两半并行
+ *       + merge(b[lo, mid), b[mid, hi)) -> a[lo, hi)        合并也并行
+ * </pre>
+ * 并行合并：取较长一段的中间元素 x，在另一段中二分查找 x 的位置，x 的最终位置随之确定，
+ * x 左右两侧分别合并，互不影响。区间不超过 sequentialCutoff 后顺序处理，不超过 insertionCutoff 后插入排序
+ */
+final class ParallelMergeSort {
+
+    private ParallelMergeSort() {
+    }
+
+    static void sort(int[] arr, SortEngine engine) {
+        if (arr.length > 1) {
+            sort(arr, 0, arr.length, new int[arr.length], engine);
+        }
+    }
+
+    /**
+     * 对 arr[from, to) 排序，使用调用方提供的 buf[from, to) 作为辅助空间，便于多次排序复用同一个辅助数组
+     */
+    static void sort(int[] arr, int from, int to, int[] buf, SortEngine engine) {
+        if (to - from <= 1) {
+            return;
+        }
+        if (to - from <= engine.sequentialCutoff) {
+            sequentialSort(arr, buf, from, to, false, engine);
+        } else {
+            engine.pool.invoke(new IntSortTask(arr, buf, from, to, false, engine));
+        }
+    }
+
+    static void sort(long[] arr, SortEngine engine) {
+        if (arr.length > 1) {
+            sort(arr, 0, arr.length, new long[arr.length], engine);
+        }
+    }
+
+    static void sort(long[] arr, int from, int to, long[] buf, SortEngine engine) {
+        if (to - from <= 1) {
+            return;
+        }
+        if (to - from <= engine.sequentialCutoff) {
+            sequentialSort(arr, buf, from, to, false, engine);
+        } else {
+            engine.pool.invoke(new LongSortTask(arr, buf, from, to, false, engine));
+        }
+    }
+
+    /**
+     * 对 a[lo, hi) 排序，intoB 为 true 时结果放到 b[lo, hi)，否则放回 a[lo, hi)；b 的这一段作为辅助空间
+     */
+    static void sequentialSort(int[] a, int[] b, int lo, int hi, boolean intoB, SortEngine engine) {
+        if (hi - lo <= engine.insertionCutoff) {
+            engine.sortSmall(a, lo, hi);
+            if (intoB) {
+                System.arraycopy(a, lo, b, lo, hi - lo);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequentialSort(a, b, lo, mid, !intoB, engine);
+        sequentialSort(a, b, mid, hi, !intoB, engine);
+        int[] src = intoB ? a : b;
+        int[] dst = intoB ? b : a;
+        if (src[mid - 1] <= src[mid]) {//两半已经整体有序，直接拷贝
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+        } else {
+            merge(src, lo, mid, mid, hi, dst, lo);
+        }
+    }
+
+    static void sequentialSort(long[] a, long[] b, int lo, int hi, boolean intoB, SortEngine engine) {
+        if (hi - lo <= engine.insertionCutoff) {
+            engine.sortSmall(a, lo, hi);
+            if (intoB) {
+                System.arraycopy(a, lo, b, lo, hi - lo);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        sequentialSort(a, b, lo, mid, !intoB, engine);
+        sequentialSort(a, b, mid, hi, !intoB, engine);
+        long[] src = intoB ? a : b;
+        long[] dst = intoB ? b : a;
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+        } else {
+            merge(src, lo, mid, mid, hi, dst, lo);
+        }
+    }
+
+    /**
+     * 把 src[lo1, hi1) 与 src[lo2, hi2) 合并到 dst[out, ...)
+     */
+    static void merge(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            dst[out++] = src[lo1] <= src[lo2] ? src[lo1++] : src[lo2++];
+        }
+        System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        System.arraycopy(src, lo2, dst, out + hi1 - lo1, hi2 - lo2);
+    }
+
+    static void merge(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int out) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            dst[out++] = src[lo1] <= src[lo2] ? src[lo1++] : src[lo2++];
+        }
+        System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        System.arraycopy(src, lo2, dst, out + hi1 - lo1, hi2 - lo2);
+    }
+
+    /**
+     * @return [lo, hi) 中第一个不小于 key 的位置
+     */
+    static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static int lowerBound(long[] arr, int lo, int hi, long key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static final class IntSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] b;
+        private final int lo;
+        private final int hi;
+        private final boolean intoB;
+        private final SortEngine engine;
+
+        IntSortTask(int[] a, int[] b, int lo, int hi, boolean intoB, SortEngine engine) {
+            this.a = a;
+            this.b = b;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoB = intoB;
+            this.engine = engine;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= engine.sequentialCutoff) {
+                sequentialSort(a, b, lo, hi, intoB, engine);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new IntSortTask(a, b, lo, mid, !intoB, engine), new IntSortTask(a, b, mid, hi, !intoB, engine));
+            int[] src = intoB ? a : b;
+            int[] dst = intoB ? b : a;
+            new IntMergeTask(src, lo, mid, mid, hi, dst, lo, engine.sequentialCutoff).compute();
+        }
+    }
+
+    static final class IntMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int lo1, hi1, lo2, hi2;
+        private final int[] dst;
+        private final int out;
+        private final int cutoff;
+
+        IntMergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out, int cutoff) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            if (len1 + len2 <= cutoff) {
+                merge(src, lo1, hi1, lo2, hi2, dst, out);
+            } else if (len1 >= len2) {//在较长一段上取中间元素
+                int m1 = (lo1 + hi1) >>> 1;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int outMid = out + (m1 - lo1) + (m2 - lo2);
+                dst[outMid] = src[m1];
+                invokeAll(new IntMergeTask(src, lo1, m1, lo2, m2, dst, out, cutoff),
+                        new IntMergeTask(src, m1 + 1, hi1, m2, hi2, dst, outMid + 1, cutoff));
+            } else {
+                int m2 = (lo2 + hi2) >>> 1;
+                int m1 = lowerBound(src, lo1, hi1, src[m2]);
+                int outMid = out + (m1 - lo1) + (m2 - lo2);
+                dst[outMid] = src[m2];
+                invokeAll(new IntMergeTask(src, lo1, m1, lo2, m2, dst, out, cutoff),
+                        new IntMergeTask(src, m1, hi1, m2 + 1, hi2, dst, outMid + 1, cutoff));
+            }
+        }
+    }
+
+    static final class LongSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] a;
+        private final long[] b;
+        private final int lo;
+        private final int hi;
+        private final boolean intoB;
+        private final SortEngine engine;
+
+        LongSortTask(long[] a, long[] b, int lo, int hi, boolean intoB, SortEngine engine) {
+            this.a = a;
+            this.b = b;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoB = intoB;
+            this.engine = engine;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= engine.sequentialCutoff) {
+                sequentialSort(a, b, lo, hi, intoB, engine);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LongSortTask(a, b, lo, mid, !intoB, engine), new LongSortTask(a, b, mid, hi, !intoB, engine));
+            long[] src = intoB ? a : b;
+            long[] dst = intoB ? b : a;
+            new LongMergeTask(src, lo, mid, mid, hi, dst, lo, engine.sequentialCutoff).compute();
+        }
+    }
+
+    static final class LongMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] src;
+        private final int lo1, hi1, lo2, hi2;
+        private final long[] dst;
+        private final int out;
+        private final int cutoff;
+
+        LongMergeTask(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int out, int cutoff) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            if (len1 + len2 <= cutoff) {
+                merge(src, lo1, hi1, lo2, hi2, dst, out);
+            } else if (len1 >= len2) {
+                int m1 = (lo1 + hi1) >>> 1;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int outMid = out + (m1 - lo1) + (m2 - lo2);
+                dst[outMid] = src[m1];
+                invokeAll(new LongMergeTask(src, lo1, m1, lo2, m2, dst, out, cutoff),
+                        new LongMergeTask(src, m1 + 1, hi1, m2, hi2, dst, outMid + 1, cutoff));
+            } else {
+                int m2 = (lo2 + hi2) >>> 1;
+                int m1 = lowerBound(src, lo1, hi1, src[m2]);
+                int outMid = out + (m1 - lo1) + (m2 - lo2);
+                dst[outMid] = src[m2];
+                invokeAll(new LongMergeTask(src, lo1, m1, lo2, m2, dst, out, cutoff),
+                        new LongMergeTask(src, m1, hi1, m2 + 1, hi2, dst, outMid + 1, cutoff));
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.snow.AtomicSnowFlake;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 基数排序，适合 int 和 long（如雪花 ID）这样的定长整数键
+ * <p>
+ * LSD（低位优先）：每次按 digitBits 位的一段"数字"做一次稳定的计数排序，从低位到高位，
+ * 做完最高位就整体有序。每一趟在原数组与辅助数组之间来回搬运，辅助数组由实例持有并复用
+ * <ul>
+ *     <li>所有数字的计数在第一遍扫描时一起统计，之后每一趟只需求前缀和、搬运</li>
+ *     <li>某一段数字所有元素都相同时（雪花 ID 的时间戳高位、机器位往往如此）直接跳过这一趟</li>
+ * </ul>
+ * MSD（高位优先，American flag sort）：按最高 8 位在原数组内做原地置换，分好桶之后每个桶递归处理下一段，
+ * 桶足够小时改用插入排序。只需要一个 256 的计数数组，不需要辅助数组
+ * <p>
+ * 有符号数：取数字之前把符号位取反，负数的最高位由 1 变 0，就排在了非负数前面
+ * <p>
+ * 一个实例复用同一份辅助数组，不是线程安全的
+ */
+public class RadixSort {
+
+    /**
+     * MSD 中桶小于这个长度时改用插入排序
+     */
+    static final int MSD_INSERTION_CUTOFF = 64;
+
+    private final int digitBits;
+    private final int mask;
+    private int[] intScratch = new int[0];
+    private long[] longScratch = new long[0];
+    private int[] indexScratch = new int[0];
+
+    /**
+     * @param digitBits 每一趟处理的位数，8/11/16
+     */
+    public RadixSort(int digitBits) {
+        if (digitBits != 8 && digitBits != 11 && digitBits != 16) {
+            throw new IllegalArgumentException("digitBits must be 8, 11 or 16");
+        }
+        this.digitBits = digitBits;
+        this.mask = (1 << digitBits) - 1;
+    }
+
+    //-------------------------------- LSD --------------------------------
+
+    public void sort(int[] arr) {
+        int n = arr.length;
+        if (n <= 1) {
+            return;
+        }
+        int passes = (32 + digitBits - 1) / digitBits;
+        int[][] counts = new int[passes][mask + 1];
+        for (int v : arr) {
+            int key = v ^ Integer.MIN_VALUE;//符号位取反
+            for (int p = 0; p < passes; p++) {
+                counts[p][(key >>> (p * digitBits)) & mask]++;
+            }
+        }
+        if (intScratch.length < n) {
+            intScratch = new int[n];
+        }
+        int[] src = arr;
+        int[] dst = intScratch;
+        for (int p = 0; p < passes; p++) {
+            int[] count = counts[p];
+            if (toOffsets(count, n)) {//这一段数字全部相同
+                continue;
+            }
+            int shift = p * digitBits;
+            for (int i = 0; i < n; i++) {
+                int v = src[i];
+                dst[count[((v ^ Integer.MIN_VALUE) >>> shift) & mask]++] = v;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    public void sort(long[] arr) {
+        int n = arr.length;
+        if (n <= 1) {
+            return;
+        }
+        int passes = (64 + digitBits - 1) / digitBits;
+        int[][] counts = new int[passes][mask + 1];
+        for (long v : arr) {
+            long key = v ^ Long.MIN_VALUE;
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (key >>> (p * digitBits)) & mask]++;
+            }
+        }
+        if (longScratch.length < n) {
+            longScratch = new long[n];
+        }
+        long[] src = arr;
+        long[] dst = longScratch;
+        for (int p = 0; p < passes; p++) {
+            int[] count = counts[p];
+            if (toOffsets(count, n)) {
+                continue;
+            }
+            int shift = p * digitBits;
+            for (int i = 0; i < n; i++) {
+                long v = src[i];
+                dst[count[(int) ((v ^ Long.MIN_VALUE) >>> shift) & mask]++] = v;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * 按 key(index) 对下标排序，例如按记录的某个 long 字段排序而不移动记录本身。
+     * 排序是稳定的，键相同的下标保持原来的先后顺序
+     *
+     * @param indices 待排序的下标
+     * @param key     下标 -> 键，每个下标只调用一次
+     */
+    public void sortIndices(int[] indices, IntToLongFunction key) {
+        int n = indices.length;
+        if (n <= 1) {
+            return;
+        }
+        //键与下标成对搬运：keys 用 longScratch 的前半部分，另一半作为辅助数组
+        if (longScratch.length < 2 * n) {
+            longScratch = new long[2 * n];
+        }
+        if (indexScratch.length < n) {
+            indexScratch = new int[n];
+        }
+        int passes = (64 + digitBits - 1) / digitBits;
+        int[][] counts = new int[passes][mask + 1];
+        long[] keys = longScratch;
+        for (int i = 0; i < n; i++) {
+            long k = key.applyAsLong(indices[i]) ^ Long.MIN_VALUE;
+            keys[i] = k;
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (k >>> (p * digitBits)) & mask]++;
+            }
+        }
+        int srcKey = 0;
+        int dstKey = n;
+        int[] srcIndex = indices;
+        int[] dstIndex = indexScratch;
+        for (int p = 0; p < passes; p++) {
+            int[] count = counts[p];
+            if (toOffsets(count, n)) {
+                continue;
+            }
+            int shift = p * digitBits;
+            for (int i = 0; i < n; i++) {
+                long k = keys[srcKey + i];
+                int pos = count[(int) (k >>> shift) & mask]++;
+                keys[dstKey + pos] = k;
+                dstIndex[pos] = srcIndex[i];
+            }
+            int temp = srcKey;
+            srcKey = dstKey;
+            dstKey = temp;
+            int[] tempIndex = srcIndex;
+            srcIndex = dstIndex;
+            dstIndex = tempIndex;
+        }
+        if (srcIndex != indices) {
+            System.arraycopy(srcIndex, 0, indices, 0, n);
+        }
+    }
+
+    /**
+     * @return 0 ~ n-1 按 key(index) 排好序的下标
+     */
+    public int[] sortedIndices(int n, IntToLongFunction key) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        sortIndices(indices, key);
+        return indices;
+    }
+
+    /**
+     * 把计数转换成每个数字的起始位置
+     *
+     * @return 所有元素的这一段数字都相同，不需要搬运
+     */
+    private static boolean toOffsets(int[] count, int n) {
+        int sum = 0;
+        for (int d = 0; d < count.length; d++) {
+            int c = count[d];
+            if (c == n) {
+                return true;
+            }
+            count[d] = sum;
+            sum += c;
+        }
+        return false;
+    }
+
+    //-------------------------------- MSD --------------------------------
+
+    /**
+     * 原地 MSD 基数排序（American flag sort），每一段 8 位
+     */
+    public static void americanFlagSort(int[] arr) {
+        americanFlagSort(arr, 0, arr.length, 24);
+    }
+
+    public static void americanFlagSort(long[] arr) {
+        americanFlagSort(arr, 0, arr.length, 56);
+    }
+
+    /**
+     * 原地按 key(index) 对下标排序，不缓存键，每次取数字都重新调用 key，不稳定
+     */
+    public static void americanFlagSort(int[] indices, IntToLongFunction key) {
+        americanFlagSort(indices, key, 0, indices.length, 56);
+    }
+
+    private static void americanFlagSort(int[] arr, int from, int to, int shift) {
+        if (to - from < MSD_INSERTION_CUTOFF) {
+            InsertSort.insertSort(arr, from, to);
+            return;
+        }
+        int[] count = new int[257];
+        for (int i = from; i < to; i++) {
+            count[(((arr[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1]++;
+        }
+        //start[d] = count[d]，next[d] 为数字 d 的下一个写入位置
+        int[] next = new int[256];
+        count[0] = from;
+        for (int d = 0; d < 256; d++) {
+            count[d + 1] += count[d];
+            next[d] = count[d];
+        }
+        for (int d = 0; d < 256; d++) {
+            int end = count[d + 1];
+            while (next[d] < end) {
+                int v = arr[next[d]];
+                int digit = ((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+                while (digit != d) {//把 v 放到它所在的桶，换出来的元素继续放
+                    int temp = arr[next[digit]];
+                    arr[next[digit]++] = v;
+                    v = temp;
+                    digit = ((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+                }
+                arr[next[d]++] = v;
+            }
+        }
+        if (shift > 0) {
+            for (int d = 0; d < 256; d++) {
+                if (count[d + 1] - count[d] > 1) {
+                    americanFlagSort(arr, count[d], count[d + 1], shift - 8);
+                }
+            }
+        }
+    }
+
+    private static void americanFlagSort(long[] arr, int from, int to, int shift) {
+        if (to - from < MSD_INSERTION_CUTOFF) {
+            InsertSort.insertSort(arr, from, to);
+            return;
+        }
+        int[] count = new int[257];
+        for (int i = from; i < to; i++) {
+            count[(int) ((arr[i] ^ Long.MIN_VALUE) >>> shift & 0xFF) + 1]++;
+        }
+        int[] next = new int[256];
+        count[0] = from;
+        for (int d = 0; d < 256; d++) {
+            count[d + 1] += count[d];
+            next[d] = count[d];
+        }
+        for (int d = 0; d < 256; d++) {
+            int end = count[d + 1];
+            while (next[d] < end) {
+                long v = arr[next[d]];
+                int digit = (int) ((v ^ Long.MIN_VALUE) >>> shift & 0xFF);
+                while (digit != d) {
+                    long temp = arr[next[digit]];
+                    arr[next[digit]++] = v;
+                    v = temp;
+                    digit = (int) ((v ^ Long.MIN_VALUE) >>> shift & 0xFF);
+                }
+                arr[next[d]++] = v;
+            }
+        }
+        if (shift > 0) {
+            for (int d = 0; d < 256; d++) {
+                if (count[d + 1] - count[d] > 1) {
+                    americanFlagSort(arr, count[d], count[d + 1], shift - 8);
+                }
+            }
+        }
+    }
+
+    private static void americanFlagSort(int[] indices, IntToLongFunction key, int from, int to, int shift) {
+        if (to - from < MSD_INSERTION_CUTOFF) {
+            for (int i = from + 1; i < to; i++) {//按键插入排序
+                int temp = indices[i];
+                long k = key.applyAsLong(temp);
+                int j = i - 1;
+                while (j >= from && key.applyAsLong(indices[j]) > k) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = temp;
+            }
+            return;
+        }
+        int[] count = new int[257];
+        for (int i = from; i < to; i++) {
+            count[(int) ((key.applyAsLong(indices[i]) ^ Long.MIN_VALUE) >>> shift & 0xFF) + 1]++;
+        }
+        int[] next = new int[256];
+        count[0] = from;
+        for (int d = 0; d < 256; d++) {
+            count[d + 1] += count[d];
+            next[d] = count[d];
+        }
+        for (int d = 0; d < 256; d++) {
+            int end = count[d + 1];
+            while (next[d] < end) {
+                int v = indices[next[d]];
+                int digit = (int) ((key.applyAsLong(v) ^ Long.MIN_VALUE) >>> shift & 0xFF);
+                while (digit != d) {
+                    int temp = indices[next[digit]];
+                    indices[next[digit]++] = v;
+                    v = temp;
+                    digit = (int) ((key.applyAsLong(v) ^ Long.MIN_VALUE) >>> shift & 0xFF);
+                }
+                indices[next[d]++] = v;
+            }
+        }
+        if (shift > 0) {
+            for (int d = 0; d < 256; d++) {
+                if (count[d + 1] - count[d] > 1) {
+                    americanFlagSort(indices, key, count[d], count[d + 1], shift - 8);
+                }
+            }
+        }
+    }
+
+    /**
+     * 打乱顺序的雪花 ID 与 Arrays.sort 对比，参数：ID 个数（默认 200 万）
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long[] ids = new AtomicSnowFlake(1, 1).nextIds(n);
+        Random random = new Random(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long temp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = temp;
+        }
+        RadixSort lsd8 = new RadixSort(8);
+        RadixSort lsd11 = new RadixSort(11);
+        RadixSort lsd16 = new RadixSort(16);
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            System.out.printf("round %d, n = %d%n", round, n);
+            time("Arrays.sort", ids, Arrays::sort);
+            time("LSD 8 bits", ids, lsd8::sort);
+            time("LSD 11 bits", ids, lsd11::sort);
+            time("LSD 16 bits", ids, lsd16::sort);
+            time("American flag", ids, RadixSort::americanFlagSort);
+        }
+    }
+
+    private static void time(String name, long[] source, Consumer<long[]> sorter) {
+        long[] arr = source.clone();
+        long start = System.nanoTime();
+        sorter.accept(arr);
+        long elapsed = System.nanoTime() - start;
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) {
+                throw new IllegalStateException(name + " is not sorted at " + i);
+            }
+        }
+        System.out.printf("  %-16s %8.1f ms%n", name, elapsed / 1e6);
+    }
+}
@@ -0,0 +1,187 @@
+package com.lyle.algorithm.sort;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 采样排序，通过 {@link SortEngine#sampleSort(int[])} 调用
+ * <p>
+ * 1. 随机抽取 buckets * OVERSAMPLING 个元素排序，每隔 OVERSAMPLING 个取一个作为分隔值，共 buckets - 1 个
+ * 2. 把数组切成若干块，各块并行统计每个元素落在哪个桶（二分查找分隔值）
+ * 3. 按 桶 -> 块 的顺序求前缀和，得到每一块中每个桶的写入位置
+ * 4. 各块并行把元素分发到辅助数组中对应的桶里
+ * 5. 各个桶并行排序，结果写回原数组
+ * <p>
+ * 与归并排序相比，数据只在数组之间整体搬运一次，之后各桶完全独立。
+ * 重复值很多时某个桶会特别大，这样的桶在第 5 步里用 {@link ParallelMergeSort} 的并行任务排序，不会拖慢整体
+ */
+final class SampleSort {
+
+    /**
+     * 每个桶抽样的元素个数，越大分桶越均匀
+     */
+    static final int OVERSAMPLING = 32;
+
+    private SampleSort() {
+    }
+
+    /**
+     * 桶的个数：每个线程 4 个，每个桶至少 sequentialCutoff 个元素
+     */
+    static int bucketCount(int length, SortEngine engine) {
+        return Math.min(engine.pool.getParallelism() * 4, length / engine.sequentialCutoff);
+    }
+
+    static void sort(int[] arr, SortEngine engine) {
+        int n = arr.length;
+        int buckets = bucketCount(n, engine);
+        if (buckets < 2) {
+            ParallelMergeSort.sort(arr, engine);
+            return;
+        }
+        int[] splitters = splitters(arr, buckets, engine);
+        int blocks = buckets;
+        int blockSize = (n + blocks - 1) / blocks;
+        //counts[块][桶]：先是计数，求前缀和后变成写入位置
+        int[][] counts = new int[blocks][buckets];
+        engine.forEach(blocks, block -> {
+            int[] count = counts[block];
+            for (int i = block * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                count[bucketOf(splitters, arr[i])]++;
+            }
+        });
+        int[] bucketStart = new int[buckets + 1];
+        int offset = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStart[bucket] = offset;
+            for (int block = 0; block < blocks; block++) {
+                int count = counts[block][bucket];
+                counts[block][bucket] = offset;
+                offset += count;
+            }
+        }
+        bucketStart[buckets] = n;
+
+        int[] buf = new int[n];
+        engine.forEach(blocks, block -> {
+            int[] next = counts[block];
+            for (int i = block * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                buf[next[bucketOf(splitters, arr[i])]++] = arr[i];
+            }
+        });
+        engine.forEach(buckets, bucket -> {
+            int lo = bucketStart[bucket];
+            int hi = bucketStart[bucket + 1];
+            if (hi - lo <= engine.sequentialCutoff) {
+                ParallelMergeSort.sequentialSort(buf, arr, lo, hi, true, engine);
+            } else {
+                new ParallelMergeSort.IntSortTask(buf, arr, lo, hi, true, engine).invoke();
+            }
+        });
+    }
+
+    static void sort(long[] arr, SortEngine engine) {
+        int n = arr.length;
+        int buckets = bucketCount(n, engine);
+        if (buckets < 2) {
+            ParallelMergeSort.sort(arr, engine);
+            return;
+        }
+        long[] splitters = splitters(arr, buckets, engine);
+        int blocks = buckets;
+        int blockSize = (n + blocks - 1) / blocks;
+        int[][] counts = new int[blocks][buckets];
+        engine.forEach(blocks, block -> {
+            int[] count = counts[block];
+            for (int i = block * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                count[bucketOf(splitters, arr[i])]++;
+            }
+        });
+        int[] bucketStart = new int[buckets + 1];
+        int offset = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStart[bucket] = offset;
+            for (int block = 0; block < blocks; block++) {
+                int count = counts[block][bucket];
+                counts[block][bucket] = offset;
+                offset += count;
+            }
+        }
+        bucketStart[buckets] = n;
+
+        long[] buf = new long[n];
+        engine.forEach(blocks, block -> {
+            int[] next = counts[block];
+            for (int i = block * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                buf[next[bucketOf(splitters, arr[i])]++] = arr[i];
+            }
+        });
+        engine.forEach(buckets, bucket -> {
+            int lo = bucketStart[bucket];
+            int hi = bucketStart[bucket + 1];
+            if (hi - lo <= engine.sequentialCutoff) {
+                ParallelMergeSort.sequentialSort(buf, arr, lo, hi, true, engine);
+            } else {
+                new ParallelMergeSort.LongSortTask(buf, arr, lo, hi, true, engine).invoke();
+            }
+        });
+    }
+
+    static int[] splitters(int[] arr, int buckets, SortEngine engine) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] sample = new int[buckets * OVERSAMPLING];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(arr.length)];
+        }
+        ParallelMergeSort.sequentialSort(sample, new int[sample.length], 0, sample.length, false, engine);
+        int[] splitters = new int[buckets - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * OVERSAMPLING];
+        }
+        return splitters;
+    }
+
+    static long[] splitters(long[] arr, int buckets, SortEngine engine) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] sample = new long[buckets * OVERSAMPLING];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(arr.length)];
+        }
+        ParallelMergeSort.sequentialSort(sample, new long[sample.length], 0, sample.length, false, engine);
+        long[] splitters = new long[buckets - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * OVERSAMPLING];
+        }
+        return splitters;
+    }
+
+    /**
+     * @return 不大于 key 的分隔值个数，即 key 所在的桶
+     */
+    static int bucketOf(int[] splitters, int key) {
+        int lo = 0;
+        int hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static int bucketOf(long[] splitters, long key) {
+        int lo = 0;
+        int hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (splitters[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,13 @@
+package com.lyle.algorithm.sort;
+
+/**
+ * 小数组排序内核，对 arr[from, to) 排序，to - from 不超过 {@link SortingNetwork#MAX_SIZE}
+ * <p>
+ * 目前只有 algorithm-vector 模块中的 VectorSmallSort 实现，通过 {@link VectorKernel} 反射加载
+ */
+interface SmallSortKernel {
+
+    void sort(int[] arr, int from, int to);
+
+    void sort(long[] arr, int from, int to);
+}
@@ -0,0 +1,300 @@
+package com.lyle.algorithm.sort;
+
+import com.lyle.algorithm.heap.HeapSort;
+import com.lyle.algorithm.metrics.Counter;
+import com.lyle.algorithm.metrics.Histogram;
+import com.lyle.algorithm.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 排序引擎：int[]/long[] 的并行排序入口，以及这些排序共用的参数
+ * <pre>
+ *     pool              执行并行任务的 ForkJoinPool，默认 commonPool
+ *     sequentialCutoff  区间不超过这个长度时不再拆分任务，在当前线程中顺序排序
+ *     insertionCutoff   区间不超过这个长度时改用小数组排序
+ *     smallSort         小数组排序的实现：插入排序，无分支的排序网络，或者 SIMD 双调排序（后两种 insertionCutoff 不能超过 {@link SortingNetwork#MAX_SIZE}）
+ * </pre>
+ * 1. {@link #parallelMergeSort(int[])}：fork-join 归并排序，左右两半并行排序，合并也按二分拆成并行任务
+ * 2. {@link #sampleSort(int[])}：采样排序，抽样选出分隔值把数据分到若干个桶，各个桶并行排序
+ * 3. {@link #adaptiveSort(int[])}：单线程自适应排序，基本有序时归并有序段，否则 introsort
+ */
+public final class SortEngine {
+
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+    public static final int DEFAULT_INSERTION_CUTOFF = 32;
+
+    public static final SortEngine DEFAULT = builder().build();
+
+    //指标，所有实例共用，见 Metrics
+    static final Counter elements = Metrics.counter("sort.elements");//排序过的元素总数
+    static final Histogram parallelMergeSortNanos = Metrics.histogram("sort.parallelMergeSort.nanos");
+    static final Histogram sampleSortNanos = Metrics.histogram("sort.sampleSort.nanos");
+    static final Histogram adaptiveSortNanos = Metrics.histogram("sort.adaptiveSort.nanos");
+
+    final ForkJoinPool pool;
+    final int sequentialCutoff;
+    final int insertionCutoff;
+    final SmallSort smallSort;
+
+    /**
+     * 小数组排序的实现
+     */
+    public enum SmallSort {
+        INSERTION,
+        NETWORK,
+        /**
+         * 基于 Vector API 的双调排序，需要 classpath 上有 algorithm-vector 并且运行时带 --add-modules jdk.incubator.vector，
+         * 否则退回 {@link #NETWORK}，见 {@link #isVectorAvailable()}
+         */
+        VECTOR
+    }
+
+    private SortEngine(Builder builder) {
+        this.pool = builder.pool;
+        this.sequentialCutoff = builder.sequentialCutoff;
+        this.insertionCutoff = builder.insertionCutoff;
+        this.smallSort = builder.smallSort;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getSequentialCutoff() {
+        return sequentialCutoff;
+    }
+
+    public int getInsertionCutoff() {
+        return insertionCutoff;
+    }
+
+    public SmallSort getSmallSort() {
+        return smallSort;
+    }
+
+    /**
+     * @return {@link SmallSort#VECTOR} 是否真正使用 SIMD 内核
+     */
+    public static boolean isVectorAvailable() {
+        return VectorKernel.available();
+    }
+
+    public void parallelMergeSort(int[] arr) {
+        long start = parallelMergeSortNanos.start();
+        ParallelMergeSort.sort(arr, this);
+        parallelMergeSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    public void parallelMergeSort(long[] arr) {
+        long start = parallelMergeSortNanos.start();
+        ParallelMergeSort.sort(arr, this);
+        parallelMergeSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    /**
+     * 对 arr[from, to) 排序，scratch[from, to) 作为辅助空间，多次排序可以复用同一个 scratch 而不必每次分配
+     *
+     * @param scratch 长度不小于 to
+     */
+    public void parallelMergeSort(int[] arr, int from, int to, int[] scratch) {
+        checkRange(arr.length, from, to, scratch.length);
+        long start = parallelMergeSortNanos.start();
+        ParallelMergeSort.sort(arr, from, to, scratch, this);
+        parallelMergeSortNanos.recordSince(start);
+        elements.add(to - from);
+    }
+
+    public void parallelMergeSort(long[] arr, int from, int to, long[] scratch) {
+        checkRange(arr.length, from, to, scratch.length);
+        long start = parallelMergeSortNanos.start();
+        ParallelMergeSort.sort(arr, from, to, scratch, this);
+        parallelMergeSortNanos.recordSince(start);
+        elements.add(to - from);
+    }
+
+    public void sampleSort(int[] arr) {
+        long start = sampleSortNanos.start();
+        SampleSort.sort(arr, this);
+        sampleSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    public void sampleSort(long[] arr) {
+        long start = sampleSortNanos.start();
+        SampleSort.sort(arr, this);
+        sampleSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    public void adaptiveSort(int[] arr) {
+        long start = adaptiveSortNanos.start();
+        AdaptiveSort.sort(arr, 0, arr.length, this);
+        adaptiveSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    public void adaptiveSort(long[] arr) {
+        long start = adaptiveSortNanos.start();
+        AdaptiveSort.sort(arr, 0, arr.length, this);
+        adaptiveSortNanos.recordSince(start);
+        elements.add(arr.length);
+    }
+
+    private static void checkRange(int length, int from, int to, int scratchLength) {
+        Objects.checkFromToIndex(from, to, length);
+        if (scratchLength < to) {
+            throw new IllegalArgumentException(String.format("scratch length %d is less than %d", scratchLength, to));
+        }
+    }
+
+    /**
+     * 小区间排序，递归排序拆分到 insertionCutoff 以下后都调用这里
+     */
+    void sortSmall(int[] arr, int from, int to) {
+        if (smallSort == SmallSort.NETWORK) {
+            SortingNetwork.sort(arr, from, to);
+        } else if (smallSort == SmallSort.VECTOR) {
+            VectorKernel.sort(arr, from, to);
+        } else {
+            InsertSort.insertSort(arr, from, to);
+        }
+    }
+
+    void sortSmall(long[] arr, int from, int to) {
+        if (smallSort == SmallSort.NETWORK) {
+            SortingNetwork.sort(arr, from, to);
+        } else if (smallSort == SmallSort.VECTOR) {
+            VectorKernel.sort(arr, from, to);
+        } else {
+            InsertSort.insertSort(arr, from, to);
+        }
+    }
+
+    /**
+     * 在 pool 中并行执行 action(0) ~ action(count - 1)，全部完成后返回
+     */
+    void forEach(int count, IntConsumer action) {
+        pool.invoke(new ForEachTask(0, count, action));
+    }
+
+    static final class ForEachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        ForEachTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+            } else if (to > from) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ForEachTask(from, mid, action), new ForEachTask(mid, to, action));
+            }
+        }
+    }
+
+    public static final class Builder {
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int sequentialCutoff = DEFAULT_SEQUENTIAL_CUTOFF;
+        private int insertionCutoff = DEFAULT_INSERTION_CUTOFF;
+        private SmallSort smallSort = SmallSort.INSERTION;
+
+        private Builder() {
+        }
+
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public Builder sequentialCutoff(int sequentialCutoff) {
+            this.sequentialCutoff = sequentialCutoff;
+            return this;
+        }
+
+        public Builder insertionCutoff(int insertionCutoff) {
+            this.insertionCutoff = insertionCutoff;
+            return this;
+        }
+
+        public Builder smallSort(SmallSort smallSort) {
+            this.smallSort = smallSort;
+            return this;
+        }
+
+        public SortEngine build() {
+            if (pool == null || smallSort == null) {
+                throw new IllegalArgumentException("pool and smallSort can't be null");
+            }
+            if (insertionCutoff < 1) {
+                throw new IllegalArgumentException("insertionCutoff can't be less than 1");
+            }
+            if (smallSort != SmallSort.INSERTION && insertionCutoff > SortingNetwork.MAX_SIZE) {
+                throw new IllegalArgumentException(String.format("insertionCutoff can't be greater than %d when using sorting networks or the vector kernel", SortingNetwork.MAX_SIZE));
+            }
+            if (sequentialCutoff < insertionCutoff) {
+                throw new IllegalArgumentException(String.format("sequentialCutoff can't be less than insertionCutoff(%d)", insertionCutoff));
+            }
+            return new SortEngine(this);
+        }
+    }
+
+    /**
+     * 不同并行度下与 Arrays.sort / Arrays.parallelSort / HeapSort 对比，参数：元素个数（默认 1000 万）
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] source = new Random(42).ints(n).toArray();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            System.out.printf("round %d, n = %d%n", round, n);
+            time("Arrays.sort", source, Arrays::sort);
+            time("Arrays.parallelSort", source, Arrays::parallelSort);
+            time("HeapSort.sort", source, HeapSort::sort);
+            time("adaptiveSort(insertion)", source, DEFAULT::adaptiveSort);
+            time("adaptiveSort(network)", source, builder().smallSort(SmallSort.NETWORK).build()::adaptiveSort);
+            time("adaptiveSort(vector)", source, builder().smallSort(SmallSort.VECTOR).build()::adaptiveSort);
+            for (int parallelism = 1; parallelism <= cores; parallelism <<= 1) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                SortEngine engine = builder().pool(pool).build();
+                time("parallelMergeSort(" + parallelism + ")", source, engine::parallelMergeSort);
+                time("sampleSort(" + parallelism + ")", source, engine::sampleSort);
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static void time(String name, int[] source, Consumer<int[]> sorter) {
+        int[] arr = source.clone();
+        long start = System.nanoTime();
+        sorter.accept(arr);
+        long elapsed = System.nanoTime() - start;
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) {
+                throw new IllegalStateException(name + " is not sorted at " + i);
+            }
+        }
+        System.out.printf("  %-24s %8.1f ms%n", name, elapsed / 1e6);
+    }
+}
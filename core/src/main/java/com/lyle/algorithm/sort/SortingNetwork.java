@@ -0,0 +1,152 @@
+package com.lyle.algorithm.sort;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 排序网络：不超过 MAX_SIZE 个元素的小数组排序
+ * <p>
+ * 排序网络是一串固定的比较交换 (i, j)，i &lt; j，执行完 arr[i] &lt;= arr[j]。比较的顺序与数据无关，
+ * 每一步写成 min/max，JIT 会编译成条件传送（cmov），整个排序没有依赖数据的分支，
+ * 不会像 {@link InsertSort} 或 {@link SelectSort} 的交换那样在随机数据上频繁预测失败
+ * <p>
+ * 网络用 Batcher 奇偶归并生成：先为 2 的幂 m &gt;= n 生成网络，再去掉涉及下标 &gt;= n 的比较交换。
+ * 相当于在末尾补了 m - n 个正无穷，这些比较交换本来就不会移动元素，所以去掉后仍然正确
+ */
+public final class SortingNetwork {
+
+    public static final int MAX_SIZE = 32;
+
+    /**
+     * NETWORKS[n] = {i0, j0, i1, j1, ...}
+     */
+    private static final int[][] NETWORKS = new int[MAX_SIZE + 1][];
+
+    static {
+        int[] full = batcher(MAX_SIZE);
+        for (int n = 0; n <= MAX_SIZE; n++) {
+            int m = n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+            int[] pairs = m == MAX_SIZE ? full : batcher(m);
+            int count = 0;
+            int[] kept = new int[pairs.length];
+            for (int k = 0; k < pairs.length; k += 2) {
+                if (pairs[k + 1] < n) {
+                    kept[count++] = pairs[k];
+                    kept[count++] = pairs[k + 1];
+                }
+            }
+            NETWORKS[n] = Arrays.copyOf(kept, count);
+        }
+    }
+
+    private SortingNetwork() {
+    }
+
+    /**
+     * 对 arr[from, to) 排序，to - from 不能超过 MAX_SIZE
+     */
+    public static void sort(int[] arr, int from, int to) {
+        int[] network = network(to - from);
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k];
+            int j = from + network[k + 1];
+            int a = arr[i];
+            int b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+
+    public static void sort(long[] arr, int from, int to) {
+        int[] network = network(to - from);
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k];
+            int j = from + network[k + 1];
+            long a = arr[i];
+            long b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+
+    /**
+     * @return n 个元素的比较交换个数
+     */
+    public static int comparators(int n) {
+        return network(n).length / 2;
+    }
+
+    private static int[] network(int n) {
+        if (n < 0 || n > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format("size can't be greater than %d or less than 0", MAX_SIZE));
+        }
+        return NETWORKS[n];
+    }
+
+    /**
+     * Batcher 奇偶归并排序网络，m 为 2 的幂
+     */
+    private static int[] batcher(int m) {
+        int[] pairs = new int[m * m];
+        int count = 0;
+        for (int p = 1; p < m; p <<= 1) {//归并长度为 p 的两段
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < m; j += 2 * k) {
+                    for (int i = 0; i < k && i + j + k < m; i++) {
+                        //只比较属于同一组 2p 的元素
+                        if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                            pairs[count++] = i + j;
+                            pairs[count++] = i + j + k;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    /**
+     * 大量随机小数组，按元素宽度（int/long）和长度对比插入排序与排序网络
+     */
+    public static void main(String[] args) {
+        int arrays = 200_000;
+        Random random = new Random(42);
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            System.out.printf("round %d%n", round);
+            for (int n : new int[]{4, 8, 16, 24, 32}) {
+                int[] ints = random.ints(arrays * n).toArray();
+                long[] longs = random.longs(arrays * n).toArray();
+
+                int[] a = ints.clone();
+                long start = System.nanoTime();
+                for (int k = 0; k < arrays; k++) {
+                    InsertSort.insertSort(a, k * n, k * n + n);
+                }
+                long intInsertion = System.nanoTime() - start;
+                a = ints.clone();
+                start = System.nanoTime();
+                for (int k = 0; k < arrays; k++) {
+                    sort(a, k * n, k * n + n);
+                }
+                long intNetwork = System.nanoTime() - start;
+
+                long[] b = longs.clone();
+                start = System.nanoTime();
+                for (int k = 0; k < arrays; k++) {
+                    InsertSort.insertSort(b, k * n, k * n + n);
+                }
+                long longInsertion = System.nanoTime() - start;
+                b = longs.clone();
+                start = System.nanoTime();
+                for (int k = 0; k < arrays; k++) {
+                    sort(b, k * n, k * n + n);
+                }
+                long longNetwork = System.nanoTime() - start;
+
+                System.out.printf("  n = %2d (%3d comparators)  int: insertion %6.1f ns, network %6.1f ns   long: insertion %6.1f ns, network %6.1f ns%n",
+                        n, comparators(n), (double) intInsertion / arrays, (double) intNetwork / arrays,
+                        (double) longInsertion / arrays, (double) longNetwork / arrays);
+            }
+        }
+    }
+}
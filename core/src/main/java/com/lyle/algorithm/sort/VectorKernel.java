@@ -0,0 +1,52 @@
+package com.lyle.algorithm.sort;
+
+/**
+ * {@link SortEngine.SmallSort#VECTOR} 的实现
+ * <p>
+ * SIMD 内核用到孵化模块 jdk.incubator.vector，放在单独的 algorithm-vector 模块中，只有那个模块编译时带 --add-modules。
+ * 这里按类名反射加载：classpath 上没有 algorithm-vector，或者运行时没有 --add-modules jdk.incubator.vector，
+ * 加载失败，退回 {@link SortingNetwork}。加载结果放在 static final 字段中，JIT 会把判断折叠掉
+ */
+final class VectorKernel {
+
+    static final String CLASS_NAME = "com.lyle.algorithm.sort.VectorSmallSort";
+
+    private static final System.Logger LOGGER = System.getLogger(VectorKernel.class.getName());
+
+    private static final SmallSortKernel KERNEL = load();
+
+    private VectorKernel() {
+    }
+
+    /**
+     * @return 是否加载到了 SIMD 内核，为 false 时 {@link #sort} 使用排序网络
+     */
+    static boolean available() {
+        return KERNEL != null;
+    }
+
+    static void sort(int[] arr, int from, int to) {
+        if (KERNEL != null) {
+            KERNEL.sort(arr, from, to);
+        } else {
+            SortingNetwork.sort(arr, from, to);
+        }
+    }
+
+    static void sort(long[] arr, int from, int to) {
+        if (KERNEL != null) {
+            KERNEL.sort(arr, from, to);
+        } else {
+            SortingNetwork.sort(arr, from, to);
+        }
+    }
+
+    private static SmallSortKernel load() {
+        try {
+            return (SmallSortKernel) Class.forName(CLASS_NAME).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {//缺少 jdk.incubator.vector 时是 NoClassDefFoundError
+            LOGGER.log(System.Logger.Level.DEBUG, "vector small sort kernel is unavailable, falling back to sorting networks", e);
+            return null;
+        }
+    }
+}
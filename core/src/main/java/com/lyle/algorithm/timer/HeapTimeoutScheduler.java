@@ -0,0 +1,132 @@
+package com.lyle.algorithm.timer;
+
+import com.lyle.algorithm.heap.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于 {@link IndexedMinHeap} 的定时器，作为 {@link TimingWheel} 的对照
+ * <p>
+ * 每个任务占用堆中的一个 id，优先级为到期时间。schedule/cancel/到期都是 O(log n)，
+ * 取消时直接按 id 从堆中移除。id 用完后回收到空闲栈中复用，所以同时存在的任务数不能超过 capacity
+ * <p>
+ * 与 {@link TimingWheel} 一样，单个任务失败交给 errorHandler，不影响同一批的其他任务
+ */
+public class HeapTimeoutScheduler implements TimeoutScheduler {
+
+    private final IndexedMinHeap heap;
+    private final HeapTimeout[] timeouts;//id -> 任务
+    private final int[] freeIds;//空闲 id 栈
+    private int freeCount;
+    private final Executor executor;
+    private final BiConsumer<Runnable, Throwable> errorHandler;
+    private long now;
+
+    /**
+     * @param capacity    同时存在的任务数上限
+     * @param startMillis 起始时间
+     * @param executor    执行到期任务的 executor，为 null 时在推进时间的线程中执行
+     */
+    public HeapTimeoutScheduler(int capacity, long startMillis, Executor executor) {
+        this(capacity, startMillis, executor, TaskDispatcher.DEFAULT_ERROR_HANDLER);
+    }
+
+    /**
+     * @param errorHandler 任务抛出异常或 executor 拒绝执行时调用，参数为任务和异常
+     */
+    public HeapTimeoutScheduler(int capacity, long startMillis, Executor executor, BiConsumer<Runnable, Throwable> errorHandler) {
+        this.heap = new IndexedMinHeap(capacity);
+        this.timeouts = new HeapTimeout[capacity];
+        this.freeIds = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeIds[i] = capacity - 1 - i;
+        }
+        this.freeCount = capacity;
+        this.now = startMillis;
+        this.executor = executor;
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+    }
+
+    @Override
+    public synchronized Timeout schedule(Runnable task, long delayMillis) {
+        if (freeCount == 0) {
+            throw new IllegalStateException(String.format("pending timeouts can't be greater than %d", timeouts.length));
+        }
+        int id = freeIds[--freeCount];
+        long delay = Math.max(delayMillis, 1);
+        long deadline = now + delay;
+        if (deadline < now) {//溢出时饱和到 Long.MAX_VALUE，不回绕成负数
+            deadline = Long.MAX_VALUE;
+        }
+        HeapTimeout timeout = new HeapTimeout(this, task, id, deadline);
+        timeouts[id] = timeout;
+        heap.insert(id, timeout.deadline);
+        return timeout;
+    }
+
+    @Override
+    public int advanceTo(long nowMillis) {
+        List<HeapTimeout> batch = new ArrayList<>();
+        synchronized (this) {
+            now = Math.max(now, nowMillis);
+            while (!heap.isEmpty() && heap.peekKey() <= now) {
+                int id = heap.pollId();
+                batch.add(release(id));
+            }
+        }
+        for (HeapTimeout timeout : batch) {
+            TaskDispatcher.dispatch(timeout.task, executor, errorHandler);
+        }
+        return batch.size();
+    }
+
+    @Override
+    public synchronized int pending() {
+        return heap.size();
+    }
+
+    private HeapTimeout release(int id) {
+        HeapTimeout timeout = timeouts[id];
+        timeouts[id] = null;
+        timeout.id = -1;
+        freeIds[freeCount++] = id;
+        return timeout;
+    }
+
+    private synchronized boolean cancel(HeapTimeout timeout) {
+        //id 为 -1 说明已到期或已取消，id 可能已经被别的任务复用
+        if (timeout.id < 0 || !heap.remove(timeout.id)) {
+            return false;
+        }
+        release(timeout.id);
+        return true;
+    }
+
+    static final class HeapTimeout implements Timeout {
+        private final HeapTimeoutScheduler scheduler;
+        final Runnable task;
+        final long deadline;
+        int id;
+
+        HeapTimeout(HeapTimeoutScheduler scheduler, Runnable task, int id, long deadline) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.id = id;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            return scheduler.cancel(this);
+        }
+
+        @Override
+        public long deadline() {
+            return deadline;
+        }
+    }
+}
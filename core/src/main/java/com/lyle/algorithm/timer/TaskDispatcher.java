@@ -0,0 +1,40 @@
+package com.lyle.algorithm.timer;
+
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * 执行一批已到期的任务
+ * <p>
+ * 这些任务已经从定时器中摘除并标记为到期，某个任务抛出异常（或 executor 拒绝执行）时不能中断整批，
+ * 否则排在后面的任务就永远不会执行了。所以逐个捕获异常交给 errorHandler，然后继续下一个
+ */
+final class TaskDispatcher {
+
+    /**
+     * 默认的错误处理：交给当前线程的 UncaughtExceptionHandler
+     */
+    static final BiConsumer<Runnable, Throwable> DEFAULT_ERROR_HANDLER = (task, e) -> {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    };
+
+    private TaskDispatcher() {
+    }
+
+    /**
+     * @param executor     为 null 时在当前线程中直接执行
+     * @param errorHandler 接收执行失败的任务和异常
+     */
+    static void dispatch(Runnable task, Executor executor, BiConsumer<Runnable, Throwable> errorHandler) {
+        try {
+            if (executor == null) {
+                task.run();
+            } else {
+                executor.execute(task);
+            }
+        } catch (Throwable e) {
+            errorHandler.accept(task, e);
+        }
+    }
+}
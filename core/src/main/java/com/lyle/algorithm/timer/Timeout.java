@@ -0,0 +1,19 @@
+package com.lyle.algorithm.timer;
+
+/**
+ * 已提交的定时任务的句柄
+ */
+public interface Timeout {
+
+    /**
+     * 取消任务
+     *
+     * @return 任务尚未到期且由本次调用取消返回 true
+     */
+    boolean cancel();
+
+    /**
+     * @return 到期时间(毫秒)
+     */
+    long deadline();
+}
@@ -0,0 +1,26 @@
+package com.lyle.algorithm.timer;
+
+/**
+ * 定时器：提交延迟任务，由 advanceTo 推进时间并执行到期的任务
+ * <p>
+ * 时间由调用方推进（或由实现类自己的后台线程推进），便于在同一份负载上比较不同实现
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * @param delayMillis 相对当前时间的延迟(毫秒)
+     */
+    Timeout schedule(Runnable task, long delayMillis);
+
+    /**
+     * 把时间推进到 nowMillis，执行所有到期的任务
+     *
+     * @return 本次到期的任务数
+     */
+    int advanceTo(long nowMillis);
+
+    /**
+     * @return 尚未到期也未取消的任务数
+     */
+    int pending();
+}
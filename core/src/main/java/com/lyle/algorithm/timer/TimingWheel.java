@@ -0,0 +1,320 @@
+package com.lyle.algorithm.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 时间以 tick 为单位，把到期 tick 按 wheelBits 位一组拆成多段"数字"，每一段对应一层时间轮：
+ * <pre>
+ *     第 0 层：每个槽 1 tick，共 2^wheelBits 个槽
+ *     第 1 层：每个槽 2^wheelBits tick
+ *     第 l 层：每个槽 2^(wheelBits*l) tick
+ * </pre>
+ * 任务放在"到期 tick 与当前 tick 最高的不同数字"所在的那一层，槽号就是到期 tick 在这一层的数字。
+ * 时间推进到某一层的数字进位时，把这一层当前槽里的任务重新放置（降到更低的层），
+ * 第 0 层当前槽里的任务全部到期
+ * <p>
+ * 1. schedule/cancel：计算层号、槽号后挂到槽的双向链表上，O(1)
+ * 2. 到期的任务先收集成一批，释放锁之后再统一执行；指定 executor 时交给 executor 执行
+ *    （例如 JDK 21 的 Executors.newVirtualThreadPerTaskExecutor()），否则在推进时间的线程中直接执行。
+ *    单个任务失败交给 errorHandler，不影响同一批的其他任务
+ * 3. 可以调用 advanceTo 手动推进时间，也可以 start() 启动后台线程按墙上时间推进
+ * 4. 推进时不逐个 tick 前进，而是直接跳到下一个有任务的槽，中间的空 tick 不需要处理
+ */
+public class TimingWheel implements TimeoutScheduler, AutoCloseable {
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int mask;
+    private final WheelTimeout[][] buckets;//[层][槽] -> 链表头，按需创建
+    private final Executor executor;
+    private final BiConsumer<Runnable, Throwable> errorHandler;
+    private final List<WheelTimeout> expired = new ArrayList<>();
+
+    private long currentTick;
+    private int pending;
+    private volatile Thread ticker;
+
+    /**
+     * @param tickMillis  每个 tick 的毫秒数
+     * @param wheelBits   每层 2^wheelBits 个槽
+     * @param startMillis 起始时间
+     * @param executor    执行到期任务的 executor，为 null 时在推进时间的线程中执行
+     */
+    public TimingWheel(long tickMillis, int wheelBits, long startMillis, Executor executor) {
+        this(tickMillis, wheelBits, startMillis, executor, TaskDispatcher.DEFAULT_ERROR_HANDLER);
+    }
+
+    /**
+     * @param errorHandler 任务抛出异常或 executor 拒绝执行时调用，参数为任务和异常，默认交给线程的 UncaughtExceptionHandler
+     */
+    public TimingWheel(long tickMillis, int wheelBits, long startMillis, Executor executor,
+                       BiConsumer<Runnable, Throwable> errorHandler) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be greater than 0");
+        }
+        if (wheelBits < 1 || wheelBits > 16) {
+            throw new IllegalArgumentException("wheelBits must be between 1 and 16");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        this.buckets = new WheelTimeout[(63 + wheelBits - 1) / wheelBits][];
+        this.currentTick = startMillis / tickMillis;
+        this.executor = executor;
+        this.errorHandler = Objects.requireNonNull(errorHandler);
+    }
+
+    /**
+     * 到期时间向上取整到 tick，至少在下一个 tick 到期；接近 Long.MAX_VALUE 的延迟饱和到最远的 tick，不会回绕
+     */
+    @Override
+    public synchronized Timeout schedule(Runnable task, long delayMillis) {
+        long delay = Math.max(delayMillis, 0);
+        long ticks = Math.max(1, delay / tickMillis + (delay % tickMillis != 0 ? 1 : 0));
+        long deadlineTick = currentTick + ticks;
+        if (deadlineTick < currentTick) {//ticks > 0，变小说明溢出
+            deadlineTick = Long.MAX_VALUE;
+        }
+        WheelTimeout timeout = new WheelTimeout(this, task, deadlineTick);
+        place(timeout);
+        pending++;
+        return timeout;
+    }
+
+    @Override
+    public int advanceTo(long nowMillis) {
+        List<WheelTimeout> batch;
+        synchronized (this) {
+            long target = nowMillis / tickMillis;
+            while (currentTick < target) {
+                long nextTick = pending == 0 ? Long.MAX_VALUE : nextEventTick();
+                if (nextTick > target) {//目标时间之前没有需要处理的槽，直接跳过去
+                    currentTick = target;
+                    break;
+                }
+                currentTick = nextTick;
+                //自高向低处理发生进位的层，把当前槽中的任务降层
+                int topLevel = Math.min(buckets.length - 1, Long.numberOfTrailingZeros(currentTick) / wheelBits);
+                for (int level = topLevel; level >= 1; level--) {
+                    WheelTimeout head = detach(level, (int) (currentTick >>> (wheelBits * level)) & mask);
+                    while (head != null) {
+                        WheelTimeout next = head.next;
+                        head.prev = head.next = null;
+                        place(head);
+                        head = next;
+                    }
+                }
+                //第 0 层当前槽中的任务全部到期
+                WheelTimeout head = detach(0, (int) currentTick & mask);
+                while (head != null) {
+                    WheelTimeout next = head.next;
+                    head.prev = head.next = null;
+                    expire(head);
+                    head = next;
+                }
+            }
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            batch = new ArrayList<>(expired);
+            expired.clear();
+        }
+        for (WheelTimeout timeout : batch) {
+            TaskDispatcher.dispatch(timeout.task, executor, errorHandler);
+        }
+        return batch.size();
+    }
+
+    @Override
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * 启动后台线程，每个 tick 按 System.currentTimeMillis() 推进一次
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+            while (ticker == Thread.currentThread()) {
+                try {
+                    advanceTo(System.currentTimeMillis());
+                } catch (RuntimeException e) {//任务的异常已在 advanceTo 中处理，这里只会是 errorHandler 自己抛出的
+                    errorHandler.accept(null, e);
+                }
+                LockSupport.parkNanos(tickNanos);
+            }
+        }, "timing-wheel-ticker");
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        ticker = null;
+    }
+
+    /**
+     * 下一个需要处理的 tick
+     * <p>
+     * 第 l 层的任务与 currentTick 在 l 层之上的数字相同、第 l 层的数字更大，所以从第 0 层往上找，
+     * 第一个在当前数字之后有非空槽的层，那个槽进位（第 0 层即到期）的时刻就是下一个事件；
+     * 在此之前更低的层都是空的，中间的 tick 什么也不会发生
+     *
+     * @return 没有任务时返回 Long.MAX_VALUE
+     */
+    private long nextEventTick() {
+        for (int level = 0; level < buckets.length; level++) {
+            WheelTimeout[] wheel = buckets[level];
+            if (wheel == null) {
+                continue;
+            }
+            int shift = wheelBits * level;
+            long prefix = currentTick >>> shift;
+            int digit = (int) prefix & mask;
+            for (int i = digit + 1; i <= mask; i++) {
+                if (wheel[i] != null) {
+                    return (prefix - digit + i) << shift;
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * 放到到期 tick 与当前 tick 最高的不同数字所在的层；已到期的放入 expired
+     */
+    private void place(WheelTimeout timeout) {
+        long diff = timeout.deadlineTick ^ currentTick;
+        if (timeout.deadlineTick <= currentTick || diff == 0) {
+            expire(timeout);
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(diff)) / wheelBits;
+        int index = (int) (timeout.deadlineTick >>> (wheelBits * level)) & mask;
+        WheelTimeout[] wheel = buckets[level];
+        if (wheel == null) {
+            wheel = buckets[level] = new WheelTimeout[mask + 1];
+        }
+        timeout.level = level;
+        timeout.index = index;
+        timeout.next = wheel[index];
+        if (wheel[index] != null) {
+            wheel[index].prev = timeout;
+        }
+        wheel[index] = timeout;
+    }
+
+    private WheelTimeout detach(int level, int index) {
+        WheelTimeout[] wheel = buckets[level];
+        if (wheel == null) {
+            return null;
+        }
+        WheelTimeout head = wheel[index];
+        wheel[index] = null;
+        return head;
+    }
+
+    private void expire(WheelTimeout timeout) {
+        timeout.state = WheelTimeout.EXPIRED;
+        pending--;
+        expired.add(timeout);
+    }
+
+    private synchronized boolean cancel(WheelTimeout timeout) {
+        if (timeout.state != WheelTimeout.PENDING) {
+            return false;
+        }
+        //从槽的双向链表中摘除
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.level][timeout.index] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.state = WheelTimeout.CANCELLED;
+        pending--;
+        return true;
+    }
+
+    static final class WheelTimeout implements Timeout {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private final TimingWheel wheel;
+        final Runnable task;
+        final long deadlineTick;
+        WheelTimeout prev, next;//槽内双向链表
+        int level, index;
+        int state;
+
+        WheelTimeout(TimingWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        @Override
+        public long deadline() {
+            return deadlineTick > Long.MAX_VALUE / wheel.tickMillis ? Long.MAX_VALUE : deadlineTick * wheel.tickMillis;
+        }
+    }
+
+    /**
+     * 与 {@link HeapTimeoutScheduler} 在同一负载上对比：提交 n 个随机延迟的任务，取消一半，再推进到全部到期
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long[] delays = new Random(42).longs(n, 1, 60_000).toArray();
+        Runnable noop = () -> {
+        };
+        for (int round = 0; round < 3; round++) {//前几轮用于预热
+            run("TimingWheel", new TimingWheel(1, 6, 0, null), delays, noop, round);
+            run("HeapTimeoutScheduler", new HeapTimeoutScheduler(n, 0, null), delays, noop, round);
+        }
+    }
+
+    private static void run(String name, TimeoutScheduler scheduler, long[] delays, Runnable task, int round) {
+        Timeout[] timeouts = new Timeout[delays.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < delays.length; i++) {
+            timeouts[i] = scheduler.schedule(task, delays[i]);
+        }
+        long scheduleNs = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < delays.length; i += 2) {
+            timeouts[i].cancel();
+        }
+        long cancelNs = System.nanoTime() - start;
+        start = System.nanoTime();
+        int fired = 0;
+        for (long now = 0; now <= 60_000; now += 10) {//每 10ms 推进一次
+            fired += scheduler.advanceTo(now);
+        }
+        long expireNs = System.nanoTime() - start;
+        System.out.printf("round %d  %-22s schedule %.1f ns/op, cancel %.1f ns/op, expire %.1f ns/op (fired %d)%n", round, name,
+                (double) scheduleNs / delays.length, (double) cancelNs / (delays.length / 2), (double) expireNs / Math.max(fired, 1), fired);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HeapSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 17, 1_000, 100_000};
+
+    @Test
+    void heapSort() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            int[] arr = random.ints(n).toArray();
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+            HeapSort.sort(arr);
+            assertArrayEquals(expected, arr, "n = " + n);
+        }
+    }
+
+    @Test
+    void heapSortRange() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            int[] arr = random.ints(n + 6, -50, 50).toArray();
+            int[] expected = arr.clone();
+            Arrays.sort(expected, 3, 3 + n);
+            HeapSort.sort(arr, 3, 3 + n);
+            assertArrayEquals(expected, arr, "int, n = " + n);
+
+            long[] longs = random.longs(n + 6).toArray();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs, 3, 3 + n);
+            HeapSort.sort(longs, 3, 3 + n);
+            assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+        }
+    }
+
+    @Test
+    void daryHeapSort() {
+        Random random = new Random(42);
+        for (int arity : new int[]{2, 4, 8, 16}) {
+            for (int n : SIZES) {
+                int[] arr = random.ints(n, -1_000, 1_000).toArray();
+                int[] expected = arr.clone();
+                Arrays.sort(expected);
+                DaryHeapSort.sort(arr, arity);
+                assertArrayEquals(expected, arr, "arity " + arity + ", n = " + n);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> DaryHeapSort.sort(new int[4], 3));
+    }
+
+    @Test
+    void daryMinHeapPopsInOrder() {
+        Random random = new Random(42);
+        for (int arity : new int[]{2, 4, 8, 16}) {
+            int[] values = random.ints(10_000).toArray();
+            IntDaryMinHeap heap = IntDaryMinHeap.heapify(values.clone(), arity);
+            int[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < 5_000; i++) {
+                assertEquals(sorted[i], heap.pop(), "arity " + arity);
+            }
+            IntDaryMinHeap pushed = new IntDaryMinHeap(arity, 1);
+            for (int v : values) {
+                pushed.push(v);
+            }
+            for (int expected : sorted) {
+                assertEquals(expected, pushed.pop(), "arity " + arity);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedMinHeapTest {
+
+    private static final int CAPACITY = 500;
+
+    /**
+     * 随机 insert/poll/decreaseKey/increaseKey/changeKey/remove，与按 (key, id) 排序的 TreeSet 对比。
+     * 相同 key 时堆顶可以是其中任意一个 id，所以只比较堆顶的 key
+     */
+    @Test
+    void matchesModel() {
+        IndexedMinHeap heap = new IndexedMinHeap(CAPACITY);
+        long[] keys = new long[CAPACITY];
+        TreeSet<Integer> model = new TreeSet<>((a, b) -> keys[a] != keys[b] ? Long.compare(keys[a], keys[b]) : Integer.compare(a, b));
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int id = random.nextInt(CAPACITY);
+            long key = random.nextInt(1_000) - 500;
+            boolean present = model.contains(id);
+            assertEquals(present, heap.contains(id));
+            switch (random.nextInt(6)) {
+                case 0:
+                    if (!present) {
+                        keys[id] = key;
+                        heap.insert(id, key);
+                        model.add(id);
+                    }
+                    break;
+                case 1:
+                    if (!model.isEmpty()) {
+                        long minKey = keys[model.first()];
+                        assertEquals(minKey, heap.peekKey());
+                        int polled = heap.pollId();
+                        assertEquals(minKey, keys[polled]);
+                        assertTrue(model.remove(polled));
+                    }
+                    break;
+                case 2:
+                    if (present) {
+                        model.remove(id);
+                        keys[id] = Math.min(keys[id], key);
+                        heap.decreaseKey(id, keys[id]);
+                        model.add(id);
+                    }
+                    break;
+                case 3:
+                    if (present) {
+                        model.remove(id);
+                        keys[id] = Math.max(keys[id], key);
+                        heap.increaseKey(id, keys[id]);
+                        model.add(id);
+                    }
+                    break;
+                case 4:
+                    if (present) {
+                        model.remove(id);
+                        keys[id] = key;
+                        heap.changeKey(id, key);
+                        model.add(id);
+                    }
+                    break;
+                default:
+                    assertEquals(present, heap.remove(id));
+                    model.remove(id);
+            }
+            assertEquals(model.size(), heap.size());
+            if (!model.isEmpty()) {
+                assertEquals(keys[model.first()], heap.peekKey());
+            }
+            if (model.contains(id)) {
+                assertEquals(keys[id], heap.keyOf(id));
+            }
+        }
+        long last = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long key = heap.peekKey();
+            assertTrue(key >= last);
+            last = key;
+            model.remove(heap.pollId());
+        }
+        assertTrue(model.isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidOperations() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        assertThrows(NoSuchElementException.class, heap::peekId);
+        assertThrows(NoSuchElementException.class, heap::pollId);
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> heap.contains(-1));
+        heap.insert(1, 10);
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(1, 5));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(1, 11));
+        assertThrows(IllegalArgumentException.class, () -> heap.increaseKey(1, 9));
+        assertThrows(NoSuchElementException.class, () -> heap.keyOf(2));
+        assertThrows(NoSuchElementException.class, () -> heap.decreaseKey(2, 0));
+        assertFalse(heap.remove(2));
+        assertEquals(10, heap.keyOf(1));
+    }
+}
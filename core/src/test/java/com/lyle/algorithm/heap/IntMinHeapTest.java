@@ -0,0 +1,84 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * heapify/push/pop/replaceTop/peek 与 PriorityQueue 一致，空堆抛出 NoSuchElementException
+ */
+class IntMinHeapTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 17, 1_000, 100_000};
+
+    @Test
+    void heapifyThenPopIsSorted() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            int[] values = random.ints(n, -50, 50).toArray();//有重复值
+            IntMinHeap heap = IntMinHeap.heapify(values);
+            PriorityQueue<Integer> model = new PriorityQueue<>();
+            for (int value : values) {
+                model.add(value);
+            }
+            assertEquals(n, heap.size());
+            while (!model.isEmpty()) {
+                assertEquals(model.peek(), heap.peek(), "n = " + n);
+                assertEquals(model.poll(), heap.pop(), "n = " + n);
+            }
+            assertTrue(heap.isEmpty(), "n = " + n);
+        }
+    }
+
+    @Test
+    void mixedOperationsMatchPriorityQueue() {
+        Random random = new Random(42);
+        IntMinHeap heap = new IntMinHeap(1);//从最小容量开始，push 时反复扩容
+        PriorityQueue<Integer> model = new PriorityQueue<>();
+        for (int i = 0; i < 200_000; i++) {
+            int op = random.nextInt(4);
+            if (model.isEmpty() || op <= 1) {
+                int value = random.nextInt();
+                heap.push(value);
+                model.add(value);
+            } else if (op == 2) {
+                assertEquals(model.poll(), heap.pop());
+            } else {
+                int value = random.nextInt();
+                assertEquals(model.poll(), heap.replaceTop(value));
+                model.add(value);
+            }
+            assertEquals(model.size(), heap.size());
+            if (!model.isEmpty()) {
+                assertEquals(model.peek(), heap.peek());
+            }
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.push(Integer.MAX_VALUE);
+        heap.push(Integer.MIN_VALUE);
+        assertEquals(Integer.MIN_VALUE, heap.replaceTop(0));
+        assertEquals(0, heap.pop());
+        assertEquals(Integer.MAX_VALUE, heap.pop());
+    }
+
+    @Test
+    void emptyHeapThrows() {
+        IntMinHeap heap = IntMinHeap.heapify(new int[0]);
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, heap::pop);
+        assertThrows(NoSuchElementException.class, () -> heap.replaceTop(1));
+        heap.push(1);
+        assertFalse(heap.isEmpty());
+        assertEquals(1, heap.pop());
+        assertThrows(NoSuchElementException.class, heap::pop);
+    }
+}
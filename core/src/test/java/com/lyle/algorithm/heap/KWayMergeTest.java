@@ -0,0 +1,59 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 多路归并的输出等于所有元素排序后的结果，包括空数组、单路、重复值
+ */
+class KWayMergeTest {
+
+    @Test
+    void mergeInts() {
+        Random random = new Random(42);
+        for (int ways : new int[]{0, 1, 2, 7, 64}) {
+            int[][] sources = new int[ways][];
+            for (int i = 0; i < ways; i++) {
+                sources[i] = random.ints(random.nextInt(4) == 0 ? 0 : random.nextInt(2_000), -100, 100).sorted().toArray();
+            }
+            int[] expected = Arrays.stream(sources).flatMapToInt(Arrays::stream).sorted().toArray();
+            assertArrayEquals(expected, KWayMerge.mergedStream(sources).toArray(), "ways = " + ways);
+
+            PrimitiveIterator.OfInt iterator = KWayMerge.merge(sources);
+            for (int value : expected) {
+                assertEquals(value, iterator.nextInt(), "ways = " + ways);
+            }
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::nextInt);
+        }
+    }
+
+    @Test
+    void mergeLongs() {
+        Random random = new Random(42);
+        for (int ways : new int[]{0, 1, 2, 7, 64}) {
+            long[][] sources = new long[ways][];
+            for (int i = 0; i < ways; i++) {
+                sources[i] = random.longs(random.nextInt(4) == 0 ? 0 : random.nextInt(2_000)).sorted().toArray();
+            }
+            long[] expected = Arrays.stream(sources).flatMapToLong(Arrays::stream).sorted().toArray();
+            assertArrayEquals(expected, KWayMerge.mergedStream(sources).toArray(), "ways = " + ways);
+
+            PrimitiveIterator.OfLong iterator = KWayMerge.merge(sources);
+            for (long value : expected) {
+                assertEquals(value, iterator.nextLong(), "ways = " + ways);
+            }
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::nextLong);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * heapify/push/pop/replaceTop/peek 与逆序的 PriorityQueue 一致，空堆抛出 NoSuchElementException
+ */
+class LongMaxHeapTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 17, 1_000, 100_000};
+
+    @Test
+    void heapifyThenPopIsSorted() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            long[] values = random.longs(n, -50, 50).toArray();//有重复值
+            LongMaxHeap heap = LongMaxHeap.heapify(values);
+            PriorityQueue<Long> model = new PriorityQueue<>(Comparator.reverseOrder());
+            for (long value : values) {
+                model.add(value);
+            }
+            assertEquals(n, heap.size());
+            while (!model.isEmpty()) {
+                assertEquals(model.peek(), heap.peek(), "n = " + n);
+                assertEquals(model.poll(), heap.pop(), "n = " + n);
+            }
+            assertTrue(heap.isEmpty(), "n = " + n);
+        }
+    }
+
+    @Test
+    void mixedOperationsMatchPriorityQueue() {
+        Random random = new Random(42);
+        LongMaxHeap heap = new LongMaxHeap(1);//从最小容量开始，push 时反复扩容
+        PriorityQueue<Long> model = new PriorityQueue<>(Comparator.reverseOrder());
+        for (int i = 0; i < 200_000; i++) {
+            int op = random.nextInt(4);
+            if (model.isEmpty() || op <= 1) {
+                long value = random.nextLong();
+                heap.push(value);
+                model.add(value);
+            } else if (op == 2) {
+                assertEquals(model.poll(), heap.pop());
+            } else {
+                long value = random.nextLong();
+                assertEquals(model.poll(), heap.replaceTop(value));
+                model.add(value);
+            }
+            assertEquals(model.size(), heap.size());
+            if (!model.isEmpty()) {
+                assertEquals(model.peek(), heap.peek());
+            }
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.push(Long.MAX_VALUE);
+        heap.push(Long.MIN_VALUE);
+        assertEquals(Long.MAX_VALUE, heap.replaceTop(0));
+        assertEquals(0, heap.pop());
+        assertEquals(Long.MIN_VALUE, heap.pop());
+    }
+
+    @Test
+    void emptyHeapThrows() {
+        LongMaxHeap heap = LongMaxHeap.heapify(new long[0]);
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::peek);
+        assertThrows(NoSuchElementException.class, heap::pop);
+        assertThrows(NoSuchElementException.class, () -> heap.replaceTop(1));
+        heap.push(1);
+        assertFalse(heap.isEmpty());
+        assertEquals(1, heap.pop());
+        assertThrows(NoSuchElementException.class, heap::pop);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lyle.algorithm.heap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * IntTopK/LongTopK：顺序流与并行流（combine）的结果都等于排序后取最大的 k 个
+ */
+class TopKTest {
+
+    private static final int[] SIZES = {0, 1, 5, 1_000, 200_000};
+    private static final int[] KS = {1, 3, 100, 5_000};
+
+    @Test
+    void intTopK() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            for (int[] arr : new int[][]{random.ints(n).toArray(), random.ints(n, 0, 10).toArray()}) {//第二组重复值多
+                for (int k : KS) {
+                    int[] expected = Arrays.stream(top(Arrays.stream(arr).asLongStream().toArray(), k)).mapToInt(v -> (int) v).toArray();
+                    assertArrayEquals(expected, IntTopK.of(Arrays.stream(arr), k), "n = " + n + ", k = " + k);
+                    assertArrayEquals(expected, IntTopK.of(Arrays.stream(arr).parallel(), k), "parallel, n = " + n + ", k = " + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void longTopK() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            for (long[] arr : new long[][]{random.longs(n).toArray(), random.longs(n, 0, 10).toArray()}) {
+                for (int k : KS) {
+                    long[] expected = top(arr, k);
+                    assertArrayEquals(expected, LongTopK.of(Arrays.stream(arr), k), "n = " + n + ", k = " + k);
+                    assertArrayEquals(expected, LongTopK.of(Arrays.stream(arr).parallel(), k), "parallel, n = " + n + ", k = " + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void combineMergesPartialResults() {
+        IntTopK left = new IntTopK(3);
+        IntTopK right = new IntTopK(3);
+        for (int v : new int[]{5, 1, 9, 7}) {
+            left.accept(v);
+        }
+        for (int v : new int[]{8, 2, 9}) {
+            right.accept(v);
+        }
+        left.combine(right);
+        assertArrayEquals(new int[]{9, 9, 8}, left.toSortedArray());
+        assertArrayEquals(new int[0], right.toSortedArray());
+    }
+
+    @Test
+    void rejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new IntTopK(0));
+        assertThrows(IllegalArgumentException.class, () -> new LongTopK(-1));
+    }
+
+    /**
+     * 最大的 k 个，从大到小
+     */
+    private static long[] top(long[] arr, int k) {
+        long[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        int count = Math.min(k, sorted.length);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = sorted[sorted.length - 1 - i];
+        }
+        return result;
+    }
+}
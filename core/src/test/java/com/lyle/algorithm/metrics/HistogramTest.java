@@ -0,0 +1,111 @@
+package com.lyle.algorithm.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分桶边界：桶首尾相接、覆盖整个 long 范围、相对误差不超过 1/16；百分位取桶上界且不超过 max
+ * <p>
+ * 依赖 core/pom.xml 中 surefire 打开的 Metrics.ENABLED
+ */
+class HistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndCoverLongRange() {
+        assertTrue(Metrics.ENABLED, "surefire should set -D" + Metrics.PROPERTY + "=true");
+        assertEquals(960, Histogram.BUCKETS);
+        assertEquals(0, Histogram.lowerBound(0));
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.BUCKETS - 1));
+        for (int i = 0; i < Histogram.BUCKETS; i++) {
+            long lower = Histogram.lowerBound(i);
+            long upper = Histogram.upperBound(i);
+            assertTrue(lower <= upper, "bucket " + i);
+            assertEquals(i, Histogram.indexOf(lower), "bucket " + i);
+            assertEquals(i, Histogram.indexOf(upper), "bucket " + i);
+            if (i + 1 < Histogram.BUCKETS) {
+                assertEquals(upper + 1, Histogram.lowerBound(i + 1), "bucket " + i);
+            }
+            if (i < Histogram.SUB_BUCKETS) {
+                assertEquals(lower, upper, "bucket " + i);//0 ~ 15 每个值一个桶
+            } else {
+                assertTrue((double) (upper - lower) / lower <= 1.0 / Histogram.SUB_BUCKETS, "bucket " + i);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);//各个数量级的非负数
+            int index = Histogram.indexOf(value);
+            assertTrue(Histogram.lowerBound(index) <= value && value <= Histogram.upperBound(index), "value " + value);
+        }
+    }
+
+    @Test
+    void snapshotStatistics() {
+        Histogram histogram = Metrics.histogram("test.histogram.statistics");
+        Histogram.Snapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getMean());
+        assertEquals(0, empty.getValueAtPercentile(99));
+
+        for (int value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);//按 0 记录
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_001, snapshot.getCount());
+        assertEquals(500_500, snapshot.getSum());
+        assertEquals(1_000, snapshot.getMax());
+        assertEquals(500_500.0 / 1_001, snapshot.getMean(), 1e-9);
+        assertEquals(0, snapshot.getValueAtPercentile(0));
+        assertEquals(1_000, snapshot.getValueAtPercentile(100));//最后一个桶的上界被 max 截断
+
+        long[] sorted = new long[1_001];
+        for (int i = 1; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        for (double percentile : new double[]{1, 10, 25, 50, 75, 90, 99, 99.9}) {
+            long exact = sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+            long actual = snapshot.getValueAtPercentile(percentile);
+            //取的是精确值所在桶的上界，不超过 max
+            assertEquals(Math.min(Histogram.upperBound(Histogram.indexOf(exact)), snapshot.getMax()), actual, "p" + percentile);
+            assertTrue(actual >= exact && actual - exact <= exact / Histogram.SUB_BUCKETS, "p" + percentile);
+        }
+    }
+
+    /**
+     * 多线程记录落在不同 stripe 上，snapshot 加总后与单线程的结果相同
+     */
+    @Test
+    void concurrentRecordsAreSummed() throws InterruptedException {
+        Histogram histogram = Metrics.histogram("test.histogram.concurrent");
+        int threads = 8;
+        int perThread = 100_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i % 100 + thread);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.getCount());
+        long expectedSum = 0;
+        for (int t = 0; t < threads; t++) {
+            expectedSum += (long) perThread / 100 * (4_950 + 100L * t);
+        }
+        assertEquals(expectedSum, snapshot.getSum());
+        assertEquals(99 + threads - 1, snapshot.getMax());
+        assertTrue(Arrays.asList(snapshot.toString().split(" ")).contains("count=" + threads * perThread), snapshot.toString());
+    }
+}
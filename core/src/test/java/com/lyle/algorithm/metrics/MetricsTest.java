@@ -0,0 +1,152 @@
+package com.lyle.algorithm.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counter、gauge、InstanceGauge 的值出现在 snapshot 和 JMX 属性中
+ * <p>
+ * 所有测试共用一个 JVM 和全局注册表，指标名都以 test. 开头，避免与算法类的指标混在一起
+ */
+class MetricsTest {
+
+    @Test
+    void counter() throws InterruptedException {
+        assertTrue(Metrics.ENABLED, "surefire should set -D" + Metrics.PROPERTY + "=true");
+        Counter counter = Metrics.counter("test.counter");
+        assertSame(counter, Metrics.counter("test.counter"));//同名返回同一个实例
+        assertEquals("test.counter", counter.getName());
+        counter.increment();
+        counter.add(10);
+        counter.decrement();
+        assertEquals(10, counter.sum());
+
+        Thread[] workers = new Thread[8];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    counter.increment();
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(800_010, counter.sum());
+        assertEquals(800_010, Metrics.snapshot().getCounters().get("test.counter"));
+    }
+
+    @Test
+    void gaugeIsReadOnSnapshot() {
+        AtomicLong value = new AtomicLong(3);
+        Metrics.gauge("test.gauge", value::get);
+        assertEquals(3, Metrics.snapshot().getGauges().get("test.gauge"));
+        value.set(7);
+        assertEquals(7, Metrics.snapshot().getGauges().get("test.gauge"));
+    }
+
+    /**
+     * 对存活的实例求和；实例不再被引用、被 GC 回收后不再计入
+     */
+    @Test
+    void instanceGaugeSumsLiveInstances() throws InterruptedException {
+        InstanceGauge<long[]> gauge = Metrics.instanceGauge("test.instances", array -> array[0]);
+        long[] first = {5};
+        long[] second = {6};
+        gauge.register(first);
+        gauge.register(second);
+        gauge.register(first);//重复登记只算一次
+        assertEquals(11, gauge.sum());
+        second[0] = 10;
+        assertEquals(15, Metrics.snapshot().getGauges().get("test.instances"));
+
+        second = null;
+        for (int i = 0; i < 100 && gauge.sum() != 5; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(5, gauge.sum());
+        assertEquals(5, first[0]);
+    }
+
+    @Test
+    void snapshotIsSortedByName() {
+        Metrics.counter("test.sorted.b").increment();
+        Metrics.counter("test.sorted.a").add(2);
+        Metrics.histogram("test.sorted.histogram").record(42);
+        MetricsSnapshot snapshot = Metrics.snapshot();
+        List<String> names = new ArrayList<>(snapshot.getCounters().keySet());
+        List<String> sorted = new ArrayList<>(names);
+        sorted.sort(null);
+        assertEquals(sorted, names);
+        assertEquals(2, snapshot.getCounters().get("test.sorted.a"));
+        assertEquals(42, snapshot.getHistograms().get("test.sorted.histogram").getMax());
+        assertTrue(snapshot.toString().contains("test.sorted.a = 2"), snapshot.toString());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCounters().put("x", 1L));
+    }
+
+    /**
+     * ENABLED 时类加载即注册 MBean；计数器、仪表、直方图各字段都能按属性名读取
+     */
+    @Test
+    void mbeanAttributes() throws Exception {
+        Metrics.counter("test.mbean.counter").add(4);
+        Metrics.gauge("test.mbean.gauge", () -> 9);
+        Histogram histogram = Metrics.histogram("test.mbean.histogram");
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        Metrics.registerMBean();//重复调用无副作用
+
+        assertEquals(4L, server.getAttribute(name, "test.mbean.counter"));
+        assertEquals(9L, server.getAttribute(name, "test.mbean.gauge"));
+        assertEquals(100L, server.getAttribute(name, "test.mbean.histogram.count"));
+        assertEquals(50.5, server.getAttribute(name, "test.mbean.histogram.mean"));
+        assertEquals(100L, server.getAttribute(name, "test.mbean.histogram.max"));
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(snapshot.getValueAtPercentile(50), server.getAttribute(name, "test.mbean.histogram.p50"));
+        assertEquals(snapshot.getValueAtPercentile(99), server.getAttribute(name, "test.mbean.histogram.p99"));
+        assertEquals(snapshot.getValueAtPercentile(99.9), server.getAttribute(name, "test.mbean.histogram.p999"));
+        assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "test.mbean.missing"));
+        assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(name, "test.mbean.histogram.p75"));
+
+        //取不到的属性直接略过
+        AttributeList list = server.getAttributes(name, new String[]{"test.mbean.counter", "test.mbean.missing"});
+        assertEquals(1, list.size());
+        assertEquals(new Attribute("test.mbean.counter", 4L), list.asList().get(0));
+
+        Set<String> attributes = new HashSet<>();
+        for (MBeanAttributeInfo info : server.getMBeanInfo(name).getAttributes()) {
+            attributes.add(info.getName());
+            if (info.getName().equals("test.mbean.histogram.mean")) {
+                assertEquals("double", info.getType());
+            }
+        }
+        for (String attribute : new String[]{"test.mbean.counter", "test.mbean.gauge", "test.mbean.histogram.count",
+                "test.mbean.histogram.mean", "test.mbean.histogram.p50", "test.mbean.histogram.p99",
+                "test.mbean.histogram.p999", "test.mbean.histogram.max"}) {
+            assertTrue(attributes.contains(attribute), attribute);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentSkipListTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void singleThreadMatchesTreeMap() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        TreeMap<Integer, Integer> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            int op = random.nextInt(3);
+            if (op == 0) {
+                assertEquals(!model.containsKey(key), list.add(key, i), "add " + key);
+                model.put(key, i);
+            } else if (op == 1) {
+                assertEquals(model.remove(key) != null, list.delete(key), "delete " + key);
+            } else {
+                assertEquals(model.get(key), list.search(key), "search " + key);
+            }
+        }
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(model.get(key), list.search(key));
+        }
+    }
+
+    @Test
+    void rejectsSentinelKeys() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        assertThrows(IllegalArgumentException.class, () -> list.add(Integer.MIN_VALUE, 1));
+        assertThrows(IllegalArgumentException.class, () -> list.delete(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void concurrentAddsOfDisjointKeysAreAllVisible() throws Exception {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        int perThread = 20_000;
+        runConcurrently(t -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = i * THREADS + t;//各线程的 key 交错，插入位置互相紧挨
+                assertTrue(list.add(key, key));
+            }
+        });
+        for (int key = 0; key < perThread * THREADS; key++) {
+            assertEquals(key, list.search(key));
+        }
+        assertNull(list.search(perThread * THREADS));
+    }
+
+    /**
+     * 多个线程在同一小段 key 上随机 add/delete：每个 key 成功 add 的次数减去成功 delete 的次数就是它最后是否存在
+     */
+    @Test
+    void concurrentAddAndDeleteOnSameKeysStayConsistent() throws Exception {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        int keys = 64;
+        AtomicIntegerArray present = new AtomicIntegerArray(keys);
+        runConcurrently(t -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 50_000; i++) {
+                int key = random.nextInt(keys);
+                if (random.nextBoolean()) {
+                    if (list.add(key, key)) {
+                        present.incrementAndGet(key);
+                    }
+                } else if (list.delete(key)) {
+                    present.decrementAndGet(key);
+                }
+            }
+        });
+        for (int key = 0; key < keys; key++) {
+            int expected = present.get(key);
+            assertTrue(expected == 0 || expected == 1, "key " + key + " net adds " + expected);
+            assertEquals(expected == 1 ? Integer.valueOf(key) : null, list.search(key), "key " + key);
+        }
+    }
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
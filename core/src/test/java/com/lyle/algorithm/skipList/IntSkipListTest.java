@@ -0,0 +1,92 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 随机 add/delete/search 与 TreeMap 一致：返回值、覆盖已有 key、size 以及按层的有序性
+ */
+class IntSkipListTest {
+
+    private static final int KEYS = 5_000;
+
+    @Test
+    void mixedOperationsMatchTreeMap() {
+        IntSkipList<String> list = new IntSkipList<>();
+        TreeMap<Integer, String> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5_000; i++) {
+                int key = random.nextInt(KEYS) - KEYS / 2;
+                int op = random.nextInt(4);
+                if (op == 0) {
+                    assertEquals(model.remove(key) != null, list.delete(key), "delete " + key);
+                } else if (op == 1) {
+                    String value = round + "-" + i;
+                    assertEquals(model.put(key, value) == null, list.add(key, value), "add " + key);
+                } else {
+                    assertEquals(model.get(key), list.search(key), "search " + key);
+                }
+                assertEquals(model.size(), list.size());
+            }
+            assertMatches(model, list);
+        }
+        //逐个删除到空
+        for (int key : new ArrayList<>(model.keySet())) {
+            assertTrue(list.delete(key));
+            model.remove(key);
+        }
+        assertMatches(model, list);
+        assertEquals(0, list.size());
+        assertNull(list.first());
+    }
+
+    /**
+     * 已存在的 key 覆盖 value 并返回 false，size 不变
+     */
+    @Test
+    void addOverwritesExistingKey() {
+        IntSkipList<String> list = new IntSkipList<>();
+        assertTrue(list.add(7, "a"));
+        assertTrue(list.add(Integer.MAX_VALUE, "max"));
+        assertTrue(list.add(Integer.MIN_VALUE + 1, "min"));
+        assertFalse(list.add(7, "b"));
+        assertEquals(3, list.size());
+        assertEquals("b", list.search(7));
+        assertFalse(list.add(7, null));
+        assertNull(list.search(7));
+        assertTrue(list.delete(7));
+        assertFalse(list.delete(7));
+        assertNull(list.search(7));
+        assertEquals("max", list.search(Integer.MAX_VALUE));
+        assertEquals("min", list.search(Integer.MIN_VALUE + 1));
+        assertNull(list.search(Integer.MIN_VALUE));//head 的 key，不是节点
+        assertEquals(2, list.size());
+    }
+
+    private static void assertMatches(TreeMap<Integer, String> model, IntSkipList<String> list) {
+        assertEquals(model.size(), list.size());
+        List<Integer> keys = new ArrayList<>();
+        for (IntSkipList.Node<String> x = list.first(); x != null; x = x.next[0]) {
+            keys.add(x.key);
+            //每一层的后继都在更高的 key 上，且是下一层链表中的节点
+            for (int i = 1; i < x.next.length; i++) {
+                assertTrue(x.next[i] == null || (x.next[i].key > x.key && x.next[i].next.length > i), "key " + x.key + ", level " + i);
+            }
+        }
+        assertEquals(new ArrayList<>(model.keySet()), keys);
+        for (Map.Entry<Integer, String> entry : model.entrySet()) {
+            assertEquals(entry.getValue(), list.search(entry.getKey()));
+        }
+    }
+}
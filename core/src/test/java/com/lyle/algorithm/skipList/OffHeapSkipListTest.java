@@ -0,0 +1,98 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 随机 add/delete/search 与 TreeMap 一致；节点跨过第一个 16MB slab 后仍能正确寻址；删除的节点被复用
+ */
+class OffHeapSkipListTest {
+
+    private static final long SLAB_BYTES = 1 << 24;
+    private static final long NOT_FOUND = Long.MIN_VALUE;
+
+    @Test
+    void mixedOperationsMatchTreeMap() {
+        OffHeapSkipList list = new OffHeapSkipList();
+        TreeMap<Integer, Long> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(20_000) - 10_000;
+            int op = random.nextInt(4);
+            if (op == 0) {
+                assertEquals(model.remove(key) != null, list.delete(key), "delete " + key);
+            } else if (op == 1) {
+                long value = random.nextLong();
+                assertEquals(model.put(key, value) == null, list.add(key, value), "add " + key);//已存在时覆盖并返回 false
+            } else {
+                assertEquals(model.getOrDefault(key, NOT_FOUND), list.search(key, NOT_FOUND), "search " + key);
+                assertEquals(model.containsKey(key), list.contains(key), "contains " + key);
+            }
+            assertEquals(model.size(), list.size());
+        }
+        assertMatches(model, list);
+        assertEquals(SLAB_BYTES, list.reservedBytes());
+
+        //边界 key
+        assertTrue(list.add(Integer.MAX_VALUE, 1));
+        assertTrue(list.add(Integer.MIN_VALUE + 1, 2));
+        assertEquals(1, list.search(Integer.MAX_VALUE, NOT_FOUND));
+        assertEquals(2, list.search(Integer.MIN_VALUE + 1, NOT_FOUND));
+        assertFalse(list.contains(Integer.MIN_VALUE));//head 的 key，不是节点
+        assertTrue(list.delete(Integer.MAX_VALUE));
+        assertFalse(list.delete(Integer.MAX_VALUE));
+    }
+
+    /**
+     * 七十万个节点（平均约 28 字节）超过一个 slab，slab(addr)、offset(addr, field) 要处理 slab 下标大于 0 的地址；
+     * 全部删除后再插入同样多的节点，复用空闲链表上的节点，不再申请新的 slab
+     * <p>
+     * key 按顺序插入，遍历时顺着地址访问，避免测试时间花在缓存未命中上
+     */
+    @Test
+    void crossesSlabBoundaryAndReusesFreedNodes() {
+        OffHeapSkipList list = new OffHeapSkipList();
+        int n = 700_000;
+        for (int i = 0; i < n; i++) {
+            assertTrue(list.add(2 * i, ~i));
+        }
+        long reserved = list.reservedBytes();
+        assertTrue(reserved >= 2 * SLAB_BYTES, "reserved " + reserved);
+        assertEquals(n, list.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(~i, list.search(2 * i, NOT_FOUND), "key " + 2 * i);
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertTrue(list.delete(2 * i));
+        }
+        assertEquals(0, list.size());
+        assertFalse(list.contains(0));
+        assertFalse(list.contains(2 * (n - 1)));
+
+        TreeMap<Integer, Long> model = new TreeMap<>();
+        for (int i = 0; i < n; i++) {//另一批 key，层数分布与删除的节点相同
+            assertTrue(list.add(2 * i + 1, i));
+            model.put(2 * i + 1, (long) i);
+        }
+        assertEquals(reserved, list.reservedBytes());
+        assertMatches(model, list);
+        for (int i = 0; i < n; i += 1_000) {
+            assertFalse(list.contains(2 * i));
+        }
+    }
+
+    private static void assertMatches(TreeMap<Integer, Long> model, OffHeapSkipList list) {
+        assertEquals(model.size(), list.size());
+        for (Map.Entry<Integer, Long> entry : model.entrySet()) {
+            assertEquals(entry.getValue(), list.search(entry.getKey(), NOT_FOUND), "key " + entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentSkipListTest {
+
+    private static final int KEYS = 2_000;
+    private static final long WAL_RECORD_BYTES = 17;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 随机 add/delete，偶尔手动 checkpoint，每一轮关闭后重新打开（重放 wal.log），内容与 TreeMap 一致
+     */
+    @Test
+    void reopenReplaysWalAgainstModel() throws IOException {
+        TreeMap<Integer, Long> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+                assertMatches(model, list);
+                for (int i = 0; i < 5_000; i++) {
+                    int key = random.nextInt(KEYS);
+                    if (random.nextInt(3) == 0) {
+                        assertEquals(model.remove(key) != null, list.delete(key));
+                    } else {
+                        long value = random.nextLong();
+                        assertEquals(!model.containsKey(key), list.add(key, value));
+                        model.put(key, value);
+                    }
+                }
+                if (round % 2 == 1) {
+                    list.checkpoint();
+                }
+                assertMatches(model, list);
+            }
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+            assertMatches(model, list);
+        }
+    }
+
+    /**
+     * 只有 wal.log 时，对 checkpoint.dat 中不存在的 key 的删除不能让 size 算错
+     */
+    @Test
+    void sizeAfterReplayIgnoresDeletesOfAbsentKeys() throws IOException {
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+            for (int i = 0; i < 10; i++) {
+                list.add(i, i);
+            }
+            list.checkpoint();
+            list.add(100, 1);
+            list.delete(100);//checkpoint.dat 中没有
+            list.delete(3);//checkpoint.dat 中有
+            list.add(3, 33);
+            list.delete(4);
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false)) {
+            assertEquals(9, list.size());
+            assertEquals(33, list.search(3, -1));
+            assertEquals(-1, list.search(4, -1));
+            assertFalse(list.contains(100));
+        }
+    }
+
+    /**
+     * 写了一半的尾部记录被截断，之前的记录照常重放，之后的写入接在截断处
+     */
+    @Test
+    void tornTailRecordIsTruncated() throws IOException {
+        try (PersistentSkipList list = PersistentSkipList.open(dir, true)) {
+            list.add(1, 10);
+            list.add(2, 20);
+        }
+        Path wal = dir.resolve("wal.log");
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 0, 0, 0, 3, 0, 0}));
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, true)) {
+            assertEquals(2 * WAL_RECORD_BYTES, Files.size(wal));
+            assertEquals(2, list.size());
+            list.add(3, 30);
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, true)) {
+            assertEquals(30, list.search(3, -1));
+            assertEquals(3, list.size());
+        }
+    }
+
+    /**
+     * 校验失败的记录及其之后的记录都被丢弃
+     */
+    @Test
+    void corruptRecordStopsReplay() throws IOException {
+        try (PersistentSkipList list = PersistentSkipList.open(dir, true)) {
+            list.add(1, 10);
+            list.add(2, 20);
+            list.add(3, 30);
+        }
+        Path wal = dir.resolve("wal.log");
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), WAL_RECORD_BYTES + 8);//第二条记录的 value
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, true)) {
+            assertEquals(1, list.size());
+            assertEquals(10, list.search(1, -1));
+            assertFalse(list.contains(2));
+            assertFalse(list.contains(3));
+            assertEquals(WAL_RECORD_BYTES, Files.size(wal));
+        }
+    }
+
+    @Test
+    void walIsCheckpointedAutomatically() throws IOException {
+        int interval = 100;
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false, interval)) {
+            for (int i = 0; i < 1_000; i++) {
+                list.add(i, i);
+                assertTrue(Files.size(dir.resolve("wal.log")) < interval * WAL_RECORD_BYTES);
+            }
+        }
+        try (PersistentSkipList list = PersistentSkipList.open(dir, false, interval)) {
+            assertEquals(1_000, list.size());
+            assertEquals(999, list.search(999, -1));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveCheckpointInterval() {
+        assertThrows(IllegalArgumentException.class, () -> PersistentSkipList.open(dir, false, 0));
+    }
+
+    private static void assertMatches(TreeMap<Integer, Long> model, PersistentSkipList list) {
+        assertEquals(model.size(), list.size());
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(model.getOrDefault(key, Long.MIN_VALUE), list.search(key, Long.MIN_VALUE), "key " + key);
+        }
+        for (Map.Entry<Integer, Long> entry : model.entrySet()) {
+            assertTrue(list.contains(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * span 计数：每轮随机 insert/remove 之后，rank/select/countInRange 与 TreeSet 一致；
+ * Spliterator 递归切分后各段拼起来等于顺序遍历
+ */
+class SkipList1Test {
+
+    private static final int KEYS = 2_000;
+
+    @Test
+    void rankSelectCountMatchTreeSet() {
+        SkipList1 list = new SkipList1();
+        TreeSet<Integer> model = new TreeSet<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 500; i++) {
+                int key = random.nextInt(KEYS) - KEYS / 2;
+                if (random.nextInt(3) == 0) {
+                    assertEquals(model.remove(key), list.remove(key), "remove " + key);
+                } else {
+                    list.insert(key);//重复插入被忽略
+                    model.add(key);
+                }
+            }
+            assertMatches(model, list, random);
+        }
+        //全部删除后 span 仍然正确
+        for (int key : new ArrayList<>(model)) {
+            list.remove(key);
+            model.remove(key);
+        }
+        assertMatches(model, list, random);
+    }
+
+    @Test
+    void boundaryKeys() {
+        SkipList1 list = new SkipList1();
+        list.insert(Integer.MIN_VALUE + 1);
+        list.insert(0);
+        list.insert(Integer.MAX_VALUE - 1);
+        assertEquals(0, list.rank(Integer.MIN_VALUE + 1));
+        assertEquals(2, list.rank(Integer.MAX_VALUE - 1));
+        assertEquals(-1, list.rank(Integer.MIN_VALUE));
+        assertEquals(3, list.countInRange(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(0, list.countInRange(1, 0));
+        assertEquals(Integer.MAX_VALUE - 1, list.select(2).data);
+    }
+
+    @Test
+    void floorCeilingRangeScanMatchTreeSet() {
+        SkipList1 list = new SkipList1();
+        TreeSet<Integer> model = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1_500; i++) {
+            int key = random.nextInt(KEYS) - KEYS / 2;
+            list.insert(key);
+            model.add(key);
+        }
+        for (int key = -KEYS / 2 - 1; key <= KEYS / 2; key++) {
+            SkipList1.Node floor = list.floor(key);
+            SkipList1.Node ceiling = list.ceiling(key);
+            assertEquals(model.floor(key), floor == null ? null : floor.data, "floor " + key);
+            assertEquals(model.ceiling(key), ceiling == null ? null : ceiling.data, "ceiling " + key);
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(KEYS + 20) - KEYS / 2 - 10;
+            int to = from + random.nextInt(KEYS / 4) - 10;
+            int[] expected = from > to ? new int[0] : model.subSet(from, true, to, true).stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expected, list.rangeScan(from, to).toArray(), "rangeScan " + from + " " + to);
+        }
+    }
+
+    /**
+     * 任意范围、先消费若干个再切分，递归切到底后各段按顺序拼起来与顺序遍历相同
+     */
+    @Test
+    void recursiveSplitPreservesOrder() {
+        SkipList1 list = new SkipList1();
+        TreeSet<Integer> model = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(100_000) - 50_000;
+            list.insert(key);
+            model.add(key);
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = i == 0 ? Integer.MIN_VALUE : random.nextInt(110_000) - 55_000;
+            int to = i == 0 ? Integer.MAX_VALUE : from + random.nextInt(60_000);
+            Spliterator.OfInt spliterator = list.spliterator(from, to);
+            List<Integer> leaves = new ArrayList<>();
+            int skip = random.nextInt(10);
+            while (leaves.size() < skip && spliterator.tryAdvance((int key) -> leaves.add(key))) {//先消费若干个
+            }
+            int splits = split(spliterator, leaves);
+            assertEquals(new ArrayList<>(model.subSet(from, true, to, true)), leaves, "range " + from + " " + to);
+            if (i == 0) {
+                assertTrue(splits > 8, "splits " + splits);//全表范围应当切得开
+            }
+        }
+        assertNull(new SkipList1().spliterator(Integer.MIN_VALUE, Integer.MAX_VALUE).trySplit());
+    }
+
+    @Test
+    void parallelStreamMatchesSequential() {
+        SkipList1 list = new SkipList1();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt();
+            if (key != Integer.MIN_VALUE && key != Integer.MAX_VALUE) {//头尾哨兵
+                list.insert(key);
+            }
+        }
+        int[] sequential = list.stream().toArray();
+        assertEquals(list.size(), sequential.length);
+        for (int i = 1; i < sequential.length; i++) {
+            assertTrue(sequential[i - 1] < sequential[i], "index " + i);
+        }
+        assertArrayEquals(sequential, list.stream().parallel().toArray());
+        assertEquals(list.stream().asLongStream().sum(), list.stream().parallel().asLongStream().sum());
+    }
+
+    /**
+     * 前半段先于剩余部分输出
+     *
+     * @return 切分次数
+     */
+    private static int split(Spliterator.OfInt spliterator, List<Integer> leaves) {
+        Spliterator.OfInt prefix = spliterator.trySplit();
+        if (prefix == null) {
+            spliterator.forEachRemaining((int key) -> leaves.add(key));
+            return 0;
+        }
+        return 1 + split(prefix, leaves) + split(spliterator, leaves);
+    }
+
+    private static void assertMatches(TreeSet<Integer> model, SkipList1 list, Random random) {
+        assertEquals(model.size(), list.size());
+        List<Integer> sorted = new ArrayList<>(model);
+        for (int index = 0; index < sorted.size(); index++) {
+            int key = sorted.get(index);
+            assertEquals(index, list.rank(key), "rank " + key);
+            assertEquals(key, list.select(index).data, "select " + index);
+        }
+        assertNull(list.select(-1));
+        assertNull(list.select(sorted.size()));
+        for (int key = -KEYS / 2 - 1; key <= KEYS / 2; key++) {
+            if (!model.contains(key)) {
+                assertEquals(-1, list.rank(key), "rank of missing " + key);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(KEYS + 20) - KEYS / 2 - 10;
+            int to = from + random.nextInt(KEYS / 2) - 10;
+            int expected = from > to ? 0 : model.subSet(from, true, to, true).size();
+            assertEquals(expected, list.countInRange(from, to), "countInRange " + from + " " + to);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.lyle.algorithm.skipList;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * floor/ceiling/rangeScan 与 TreeMap 一致；Spliterator 递归切分后各段拼起来等于顺序遍历；
+ * bulkLoad、merge 之后的结构与 layer 正确，继续 add/delete/search 仍与 TreeMap 一致
+ */
+class SkipListTest {
+
+    private static final int KEYS = 4_000;
+
+    @Test
+    void floorCeilingRangeScanMatchTreeMap() {
+        SkipList<String> list = SkipList.create();
+        TreeMap<Integer, String> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) {
+                int key = random.nextInt(KEYS) - KEYS / 2;
+                if (random.nextInt(3) == 0) {
+                    list.delete(key);
+                    model.remove(key);
+                } else {
+                    list.add(key, "v" + key + "-" + round);
+                    model.put(key, "v" + key + "-" + round);
+                }
+            }
+            for (int key = -KEYS / 2 - 1; key <= KEYS / 2; key++) {
+                assertEntry(model.floorEntry(key), list.floor(key), "floor " + key);
+                assertEntry(model.ceilingEntry(key), list.ceiling(key), "ceiling " + key);
+            }
+            for (int i = 0; i < 100; i++) {
+                int from = random.nextInt(KEYS + 20) - KEYS / 2 - 10;
+                int to = from + random.nextInt(KEYS / 4) - 10;
+                List<String> expected = from > to ? List.of() : new ArrayList<>(model.subMap(from, true, to, true).values());
+                assertEquals(expected, list.rangeScan(from, to).map(SkipNode::value).collect(Collectors.toList()), "rangeScan " + from + " " + to);
+            }
+        }
+    }
+
+    @Test
+    void emptyList() {
+        SkipList<String> list = SkipList.create();
+        assertNull(list.floor(0));
+        assertNull(list.ceiling(0));
+        assertEquals(0, list.rangeScan(Integer.MIN_VALUE, Integer.MAX_VALUE).count());
+        assertNull(list.spliterator(Integer.MIN_VALUE, Integer.MAX_VALUE).trySplit());
+        assertEquals(0, list.keys().parallel().count());
+    }
+
+    /**
+     * 任意范围、先消费若干个再切分，递归切到底后各段按顺序拼起来与顺序遍历相同
+     */
+    @Test
+    void recursiveSplitPreservesOrder() {
+        SkipList<Integer> list = SkipList.create();
+        TreeMap<Integer, Integer> model = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(100_000) - 50_000;
+            list.add(key, key);
+            model.put(key, key);
+        }
+        for (int i = 0; i < 200; i++) {
+            int from = i == 0 ? Integer.MIN_VALUE : random.nextInt(110_000) - 55_000;
+            int to = i == 0 ? Integer.MAX_VALUE : from + random.nextInt(60_000);
+            Spliterator<SkipNode<Integer>> spliterator = list.spliterator(from, to);
+            List<Integer> leaves = new ArrayList<>();
+            int skip = random.nextInt(10);
+            while (leaves.size() < skip && spliterator.tryAdvance(node -> leaves.add(node.key()))) {//先消费若干个
+            }
+            int splits = split(spliterator, leaves);
+            assertEquals(new ArrayList<>(model.subMap(from, true, to, true).keySet()), leaves, "range " + from + " " + to);
+            if (i == 0) {
+                assertTrue(splits > 8, "splits " + splits);//全表范围应当切得开
+            }
+        }
+    }
+
+    @Test
+    void parallelKeysMatchSequential() {
+        SkipList<Integer> list = SkipList.create();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt();
+            if (key != Integer.MIN_VALUE) {
+                list.add(key, key);
+            }
+        }
+        int[] sequential = list.keys().toArray();
+        assertEquals(list.size, sequential.length);
+        for (int i = 1; i < sequential.length; i++) {
+            assertTrue(sequential[i - 1] < sequential[i], "index " + i);
+        }
+        assertArrayEquals(sequential, list.keys().parallel().toArray());
+        assertEquals(list.keys().asLongStream().sum(), list.keys().parallel().asLongStream().sum());
+    }
+
+    /**
+     * 确定性模式下第 i 个 key 的层数为 i 末尾 0 的个数 + 1：第 l 层（从 1 开始）恰好有 n / 2^(l-1) 个节点
+     */
+    @Test
+    void deterministicBulkLoadIsBalanced() {
+        for (int n : new int[]{0, 1, 2, 3, 7, 8, 1_000, 4_096}) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 3 - n;
+            }
+            SkipList<Integer> list = SkipList.bulkLoad(keys, null, true);
+            int[] counts = checkStructure(list);
+            int expectedLevels = n == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(n);
+            assertEquals(expectedLevels, counts.length, "n = " + n);
+            for (int l = 0; l < counts.length; l++) {
+                assertEquals(n >> l, counts[l], "n = " + n + ", level " + l);
+            }
+            assertArrayEquals(keys, list.keys().toArray(), "n = " + n);
+        }
+    }
+
+    /**
+     * bulkLoad（两种模式）→ merge 一批与已有 key 交错、部分重叠的 key → 随机 add/delete/search，每一步与 TreeMap 对比
+     */
+    @Test
+    void bulkLoadMergeThenMutateMatchesTreeMap() {
+        Random random = new Random(42);
+        for (boolean deterministic : new boolean[]{true, false}) {
+            TreeMap<Integer, String> model = new TreeMap<>();
+            int[] keys = sortedDistinctKeys(random, 5_000, 0, 10_000);
+            String[] values = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = "load" + keys[i];
+                model.put(keys[i], values[i]);
+            }
+            SkipList<String> list = SkipList.bulkLoad(keys, values, deterministic);
+            assertModel(model, list, "bulkLoad deterministic = " + deterministic);
+
+            for (int round = 0; round < 5; round++) {
+                //一部分落在已有 key 上（覆盖），一部分是新 key；跨度大的批次让上层前驱走得比下层远
+                int bound = round % 2 == 0 ? 12_000 : 1_000_000;
+                int[] batch = sortedDistinctKeys(random, 500 + random.nextInt(2_000), -2_000, bound);
+                String[] batchValues = new String[batch.length];
+                for (int i = 0; i < batch.length; i++) {
+                    batchValues[i] = "merge" + round + "-" + batch[i];
+                    model.put(batch[i], batchValues[i]);
+                }
+                list.merge(batch, batchValues);
+                assertModel(model, list, "merge round " + round + ", deterministic = " + deterministic);
+            }
+            list.merge(new int[]{-5_000, 2_000_000}, null);//values 为 null
+            model.put(-5_000, null);
+            model.put(2_000_000, null);
+            assertModel(model, list, "merge without values");
+
+            for (int i = 0; i < 20_000; i++) {
+                int key = random.nextInt(20_000) - 5_000;
+                int op = random.nextInt(3);
+                if (op == 0) {
+                    list.delete(key);
+                    model.remove(key);
+                } else if (op == 1) {
+                    list.add(key, "add" + i);
+                    model.put(key, "add" + i);
+                } else {
+                    SkipNode<String> node = list.search(key);
+                    assertEquals(model.containsKey(key), node != null, "search " + key);
+                    if (node != null) {
+                        assertEquals(model.get(key), node.value(), "search " + key);
+                    }
+                }
+            }
+            assertModel(model, list, "mutations, deterministic = " + deterministic);
+        }
+    }
+
+    @Test
+    void mergeIntoEmptyList() {
+        SkipList<String> list = SkipList.create();
+        list.merge(new int[]{1, 5, 9}, new String[]{"a", "b", "c"});
+        TreeMap<Integer, String> model = new TreeMap<>();
+        model.put(1, "a");
+        model.put(5, "b");
+        model.put(9, "c");
+        assertModel(model, list, "merge into empty");
+        list.merge(new int[0], null);
+        assertModel(model, list, "merge empty batch");
+    }
+
+    @Test
+    void checkBatchRejectsInvalidKeys() {
+        int[][] invalid = {
+                {1, 1},
+                {1, 3, 2},
+                {Integer.MIN_VALUE, 0},
+                {0, Integer.MIN_VALUE},
+        };
+        SkipList<String> list = SkipList.bulkLoad(new int[]{10, 20}, new String[]{"a", "b"}, false);
+        for (int[] keys : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> SkipList.bulkLoad(keys, null, true), Arrays.toString(keys));
+            assertThrows(IllegalArgumentException.class, () -> list.merge(keys, null), Arrays.toString(keys));
+        }
+        assertThrows(IllegalArgumentException.class, () -> SkipList.bulkLoad(new int[]{1, 2}, new String[1], false));
+        assertThrows(IllegalArgumentException.class, () -> list.merge(new int[]{1, 2}, new String[3]));
+        //校验在修改之前，失败的 merge 不改变跳表
+        TreeMap<Integer, String> model = new TreeMap<>();
+        model.put(10, "a");
+        model.put(20, "b");
+        assertModel(model, list, "after rejected merges");
+    }
+
+    private static int[] sortedDistinctKeys(Random random, int n, int origin, int bound) {
+        return random.ints(n, origin, bound).distinct().sorted().toArray();
+    }
+
+    private static void assertModel(TreeMap<Integer, String> model, SkipList<String> list, String message) {
+        checkStructure(list);
+        assertEquals(model.size(), list.size, message);
+        List<Integer> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        list.rangeScan(Integer.MIN_VALUE, Integer.MAX_VALUE).forEach(node -> {
+            keys.add(node.key());
+            values.add(node.value());
+        });
+        assertEquals(new ArrayList<>(model.keySet()), keys, message);
+        assertEquals(new ArrayList<>(model.values()), values, message);
+        for (Map.Entry<Integer, String> entry : model.entrySet()) {
+            SkipNode<String> node = list.search(entry.getKey());//可能停在上层节点，上层的 value 也要是最新的
+            assertEquals(entry.getValue(), node.value(), message + ", key " + entry.getKey());
+        }
+    }
+
+    /**
+     * 每一层严格递增，上层节点的 down 指向下一层同 key 的节点，上层的 key 都在下一层出现；
+     * layer 与 head 的层数一致（只有一层时为 0，与 add 相同）
+     *
+     * @return 每一层的节点数，下标 0 是最底层
+     */
+    private static int[] checkStructure(SkipList<?> list) {
+        List<SkipNode<?>> heads = new ArrayList<>();
+        for (SkipNode<?> head = list.entrypoint; head != null; head = head.down) {
+            assertEquals(Integer.MIN_VALUE, head.key);
+            heads.add(0, head);
+        }
+        assertEquals(heads.size() > 1 ? heads.size() : 0, list.layer, "layer");
+        int[] counts = new int[heads.size()];
+        for (int l = 0; l < heads.size(); l++) {
+            SkipNode<?> lower = l == 0 ? null : heads.get(l - 1).right;
+            for (SkipNode<?> node = heads.get(l).right; node != null; node = node.right) {
+                counts[l]++;
+                if (node.right != null) {
+                    assertTrue(node.key < node.right.key, "level " + l + ", key " + node.key);
+                }
+                if (l == 0) {
+                    assertNull(node.down);
+                } else {
+                    while (lower != null && lower.key < node.key) {
+                        lower = lower.right;
+                    }
+                    assertTrue(lower != null && node.down == lower, "level " + l + ", key " + node.key);
+                }
+            }
+        }
+        assertEquals(list.size, counts[0]);
+        return counts;
+    }
+
+    /**
+     * 前半段先于剩余部分输出
+     *
+     * @return 切分次数
+     */
+    private static <T> int split(Spliterator<SkipNode<T>> spliterator, List<Integer> leaves) {
+        Spliterator<SkipNode<T>> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            spliterator.forEachRemaining(node -> leaves.add(node.key()));
+            return 0;
+        }
+        return 1 + split(prefix, leaves) + split(spliterator, leaves);
+    }
+
+    private static void assertEntry(Map.Entry<Integer, String> expected, SkipNode<String> actual, String message) {
+        if (expected == null) {
+            assertNull(actual, message);
+        } else {
+            assertEquals(expected.getKey(), actual.key(), message);
+            assertEquals(expected.getValue(), actual.value(), message);
+        }
+    }
+}
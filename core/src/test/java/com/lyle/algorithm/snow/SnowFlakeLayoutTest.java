@@ -0,0 +1,133 @@
+package com.lyle.algorithm.snow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 布局的位数校验；DEFAULT 拆解 SnowFlake 的 ID；批量 decode 与逐个拆解一致；按自定义布局生成的 ID 能拆回原值
+ */
+class SnowFlakeLayoutTest {
+
+    private static final int WORKER_ID = 9;
+    private static final int DATA_CENTER_ID = 20;
+
+    @Test
+    void builderRejectsBitBudgetOverflow() {
+        //机器位与序列号合计最多 63 - MIN_TIMESTAMP_BITS = 28 位
+        SnowFlakeLayout widest = SnowFlakeLayout.builder().dataCenterIdBits(5).workerIdBits(5).sequenceBits(18).build();
+        assertEquals(SnowFlakeLayout.MIN_TIMESTAMP_BITS, widest.getTimestampBits());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().dataCenterIdBits(5).workerIdBits(5).sequenceBits(19).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().workerIdBits(30).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().sequenceBits(0).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().dataCenterIdBits(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().workerIdBits(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> SnowFlakeLayout.builder().twEpoch(-1).build());
+
+        SnowFlakeLayout noMachine = SnowFlakeLayout.builder().dataCenterIdBits(0).workerIdBits(0).build();
+        assertEquals(51, noMachine.getTimestampBits());
+        assertEquals(0, noMachine.getMaxWorkerId());
+        assertThrows(IllegalArgumentException.class, () -> new ConfigurableSnowFlake(noMachine, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConfigurableSnowFlake(SnowFlakeLayout.DEFAULT, 0, 32));
+    }
+
+    @Test
+    void defaultDecodesSnowFlakeIds() {
+        SnowFlakeLayout layout = SnowFlakeLayout.DEFAULT;
+        assertEquals(41, layout.getTimestampBits());
+        assertEquals(SnowFlake.maxWorkerId, layout.getMaxWorkerId());
+        assertEquals(SnowFlake.maxDataCenterId, layout.getMaxDataCenterId());
+        assertEquals(SnowFlake.maxSequence, layout.getMaxSequence());
+
+        SnowFlake snowFlake = new SnowFlake(WORKER_ID, DATA_CENTER_ID);
+        long before = System.currentTimeMillis();
+        long[] ids = snowFlake.nextIds(10_000);
+        long after = System.currentTimeMillis();
+        long lastTimestamp = -1;
+        int lastSequence = -1;
+        for (long id : ids) {
+            long timestamp = layout.timestampOf(id);
+            int sequence = layout.sequenceOf(id);
+            assertEquals(WORKER_ID, layout.workerIdOf(id));
+            assertEquals(DATA_CENTER_ID, layout.dataCenterIdOf(id));
+            assertTrue(timestamp >= before && timestamp <= after, "timestamp " + timestamp);
+            //同一毫秒内序列号连续，换毫秒从 0 开始
+            if (timestamp == lastTimestamp) {
+                assertEquals(lastSequence + 1, sequence);
+            } else {
+                assertTrue(timestamp > lastTimestamp);
+            }
+            lastTimestamp = timestamp;
+            lastSequence = sequence;
+        }
+    }
+
+    /**
+     * 批量 decode 写到 dst 中间的一段，其余位置不动，结果与 timestampOf/workerIdOf/dataCenterIdOf/sequenceOf 一致
+     */
+    @Test
+    void decodeMatchesSingleIdAccessors() {
+        SnowFlakeLayout[] layouts = {
+                SnowFlakeLayout.DEFAULT,
+                SnowFlakeLayout.builder().dataCenterIdBits(2).workerIdBits(6).sequenceBits(14).build(),
+                SnowFlakeLayout.builder().dataCenterIdBits(0).workerIdBits(10).sequenceBits(18).twEpoch(0).build(),
+        };
+        Random random = new Random(42);
+        for (SnowFlakeLayout layout : layouts) {
+            long[] ids = new long[1_000];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = random.nextLong() >>> 1;//ID 非负
+            }
+            int off = 17;
+            int len = 900;
+            int dstOff = 5;
+            SnowFlakeLayout.DecodedIds decoded = new SnowFlakeLayout.DecodedIds(len + 10);
+            decoded.timestamps[0] = -1;
+            decoded.sequences[len + dstOff] = -1;
+            layout.decode(ids, off, len, decoded, dstOff);
+            assertEquals(-1, decoded.timestamps[0]);
+            assertEquals(-1, decoded.sequences[len + dstOff]);
+            for (int i = 0; i < len; i++) {
+                long id = ids[off + i];
+                String message = layout + ", index " + i;
+                assertEquals(layout.timestampOf(id), decoded.timestamps[dstOff + i], message);
+                assertEquals(layout.dataCenterIdOf(id), decoded.dataCenterIds[dstOff + i], message);
+                assertEquals(layout.workerIdOf(id), decoded.workerIds[dstOff + i], message);
+                assertEquals(layout.sequenceOf(id), decoded.sequences[dstOff + i], message);
+            }
+        }
+    }
+
+    /**
+     * 只有 1 位序列号时每毫秒 2 个 ID，生成过程中反复等待下一毫秒，ID 仍然递增，各字段拆回原值；
+     * 每次等待计入 sequenceExhausted 和 waitNanos（surefire 打开了 Metrics）
+     */
+    @Test
+    void configurableSnowFlakeRoundTrips() {
+        SnowFlakeLayout layout = SnowFlakeLayout.builder().dataCenterIdBits(3).workerIdBits(8).sequenceBits(1).build();
+        ConfigurableSnowFlake snowFlake = new ConfigurableSnowFlake(layout, 200, 6);
+        long exhaustedBefore = SnowFlake.sequenceExhausted.sum();
+        long waitsBefore = SnowFlake.waitNanos.snapshot().getCount();
+        long[] ids = new long[40];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = snowFlake.nextId();
+        }
+        SnowFlakeLayout.DecodedIds decoded = layout.decode(ids);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(200, decoded.workerIds[i]);
+            assertEquals(6, decoded.dataCenterIds[i]);
+            if (i > 0) {
+                assertTrue(ids[i] > ids[i - 1], "index " + i);
+                assertTrue(decoded.sequences[i] != 0 || decoded.timestamps[i] > decoded.timestamps[i - 1], "index " + i);
+            }
+        }
+        assertTrue(decoded.timestamps[ids.length - 1] - decoded.timestamps[0] >= ids.length / 2 - 1);
+        long exhausted = SnowFlake.sequenceExhausted.sum() - exhaustedBefore;
+        assertTrue(exhausted > 0);
+        assertEquals(exhausted, SnowFlake.waitNanos.snapshot().getCount() - waitsBefore);
+    }
+}
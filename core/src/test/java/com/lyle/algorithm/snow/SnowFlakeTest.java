@@ -0,0 +1,222 @@
+package com.lyle.algorithm.snow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 无锁、分片、容忍回拨三种生成器：多线程下 ID 唯一、每个线程内递增、机器位正确；时钟回拨的处理
+ */
+class SnowFlakeTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 50_000;
+    private static final int WORKER_ID = 9;
+    private static final int DATA_CENTER_ID = 20;
+
+    @Test
+    void atomicSnowFlakeIsUniqueAndIncreasingAcrossThreads() throws Exception {
+        AtomicSnowFlake snowFlake = new AtomicSnowFlake(WORKER_ID, DATA_CENTER_ID);
+        checkUniqueAndIncreasing(snowFlake::nextId);
+    }
+
+    /**
+     * nextId 与 fill 混用，fill 预留的一段与其他线程的 ID 不重叠
+     */
+    @Test
+    void atomicSnowFlakeFillIsUniqueAcrossThreads() throws Exception {
+        AtomicSnowFlake snowFlake = new AtomicSnowFlake(WORKER_ID, DATA_CENTER_ID);
+        long[][] ids = new long[THREADS][PER_THREAD];
+        runConcurrently(t -> {
+            long[] dst = ids[t];
+            for (int i = 0; i < dst.length; ) {
+                if (i % 3 == 0) {
+                    dst[i++] = snowFlake.nextId();
+                } else {
+                    int len = Math.min(dst.length - i, 1 + i % 700);
+                    snowFlake.fill(dst, i, len);
+                    i += len;
+                }
+            }
+        });
+        checkUniqueAndIncreasing(ids);
+    }
+
+    @Test
+    void stripedSnowFlakeIsUniqueAndIncreasingAcrossThreads() throws Exception {
+        checkUniqueAndIncreasing(new StripedSnowFlake(WORKER_ID, DATA_CENTER_ID, 3)::nextId);//分片数等于线程数
+        checkUniqueAndIncreasing(new StripedSnowFlake(WORKER_ID, DATA_CENTER_ID, 1)::nextId);//多个线程共用一个分片
+        checkUniqueAndIncreasing(new StripedSnowFlake(WORKER_ID, DATA_CENTER_ID, 0)::nextId);
+    }
+
+    @Test
+    void tolerantSnowFlakeIsUniqueAndIncreasingAcrossThreads() throws Exception {
+        checkUniqueAndIncreasing(new TolerantSnowFlake(WORKER_ID, DATA_CENTER_ID, 5)::nextId);
+    }
+
+    @Test
+    void atomicSnowFlakeRejectsClockRegression() {
+        long now = System.currentTimeMillis();
+        ManualAtomicSnowFlake snowFlake = new ManualAtomicSnowFlake(now);
+        long id = snowFlake.nextId();
+        assertEquals(now, timestamp(id));
+        snowFlake.clock.set(now - 1);
+        assertThrows(RuntimeException.class, snowFlake::nextId);
+        assertThrows(RuntimeException.class, () -> snowFlake.fill(new long[4], 0, 4));
+        snowFlake.clock.set(now);
+        assertTrue(snowFlake.nextId() > id);
+    }
+
+    /**
+     * 回拨不超过 maxDriftMillis 时继续使用上次的时间戳，ID 仍然递增；超过时抛出异常
+     */
+    @Test
+    void tolerantSnowFlakeBorrowsTimeWithinDrift() {
+        long now = System.currentTimeMillis();
+        ManualTolerantSnowFlake snowFlake = new ManualTolerantSnowFlake(now, 5);
+        long first = snowFlake.nextId();
+        snowFlake.clock.set(now - 5);
+        long second = snowFlake.nextId();
+        assertTrue(second > first);
+        assertEquals(now, timestamp(second));
+        long[] batch = new long[10];
+        snowFlake.fill(batch, 0, batch.length);
+        assertTrue(batch[0] > second);
+        assertEquals(now, timestamp(batch[9]));
+
+        snowFlake.clock.set(now - 6);
+        assertThrows(RuntimeException.class, snowFlake::nextId);
+        assertThrows(RuntimeException.class, () -> snowFlake.fill(new long[4], 0, 4));
+        assertEquals(0, snowFlake.getWaits());
+    }
+
+    /**
+     * 本毫秒序列号用完时直接借用下一毫秒，不等待
+     */
+    @Test
+    void tolerantSnowFlakeBorrowsNextMillisWhenSequenceIsExhausted() {
+        long now = System.currentTimeMillis();
+        ManualTolerantSnowFlake snowFlake = new ManualTolerantSnowFlake(now, 5);
+        long last = -1;
+        int perMillis = (int) SnowFlake.maxSequence + 1;
+        for (int i = 0; i < perMillis * 3; i++) {
+            long id = snowFlake.nextId();
+            assertTrue(id > last);
+            assertEquals(now + i / perMillis, timestamp(id));
+            last = id;
+        }
+        long[] batch = new long[perMillis + 1];
+        snowFlake.fill(batch, 0, batch.length);
+        assertTrue(batch[0] > last);
+        assertEquals(now + 4, timestamp(batch[batch.length - 1]));
+        assertEquals(4, snowFlake.getBorrowedMillis());
+        assertEquals(0, snowFlake.getWaits());
+    }
+
+    private static long timestamp(long id) {
+        return (id >>> SnowFlake.timestampLeftShift) + SnowFlake.twEpoch;
+    }
+
+    private static void checkUniqueAndIncreasing(LongSupplier generator) throws Exception {
+        long[][] ids = new long[THREADS][PER_THREAD];
+        runConcurrently(t -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                ids[t][i] = generator.getAsLong();
+            }
+        });
+        checkUniqueAndIncreasing(ids);
+    }
+
+    /**
+     * 每个线程内严格递增，所有线程合起来没有重复，机器位是构造时传入的值
+     */
+    private static void checkUniqueAndIncreasing(long[][] ids) {
+        long machineMask = (SnowFlake.maxDataCenterId << SnowFlake.dataCenterIdShift) | (SnowFlake.maxWorkerId << SnowFlake.workerIdShift);
+        long machineBits = ((long) DATA_CENTER_ID << SnowFlake.dataCenterIdShift) | ((long) WORKER_ID << SnowFlake.workerIdShift);
+        long[] all = new long[ids.length * PER_THREAD];
+        for (int t = 0; t < ids.length; t++) {
+            for (int i = 0; i < PER_THREAD; i++) {
+                long id = ids[t][i];
+                assertEquals(machineBits, id & machineMask, "thread " + t + ", index " + i);
+                if (i > 0) {
+                    assertTrue(id > ids[t][i - 1], "thread " + t + ", index " + i);
+                }
+            }
+            System.arraycopy(ids[t], 0, all, t * PER_THREAD, PER_THREAD);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] != all[i - 1], "duplicate id " + all[i]);
+        }
+    }
+
+    /**
+     * 时间由测试控制
+     */
+    static final class ManualAtomicSnowFlake extends AtomicSnowFlake {
+        final AtomicLong clock;
+
+        ManualAtomicSnowFlake(long now) {
+            super(WORKER_ID, DATA_CENTER_ID);
+            clock = new AtomicLong(now);
+        }
+
+        @Override
+        protected long currentMills() {
+            return clock.get();
+        }
+    }
+
+    static final class ManualTolerantSnowFlake extends TolerantSnowFlake {
+        final AtomicLong clock;
+
+        ManualTolerantSnowFlake(long now, long maxDriftMillis) {
+            super(WORKER_ID, DATA_CENTER_ID, maxDriftMillis);
+            clock = new AtomicLong(now);
+        }
+
+        @Override
+        protected long currentMills() {
+            return clock.get();
+        }
+    }
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.lyle.algorithm.snow;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerIdLeaseTest {
+
+    private static final int DATA_CENTER_ID = 3;
+    private static final Duration RENEW = Duration.ofSeconds(1);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 同一个 dataCenter 下每个 workerId 只能被一个租约持有，全部占满后申请失败，释放一个后可以再申请到它
+     */
+    @Test
+    void acquireIsExclusive() throws IOException {
+        int total = (int) SnowFlake.maxWorkerId + 1;
+        List<WorkerIdLease> leases = new ArrayList<>();
+        try {
+            Set<Integer> workerIds = new HashSet<>();
+            for (int i = 0; i < total; i++) {
+                WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW);
+                leases.add(lease);
+                assertEquals(DATA_CENTER_ID, lease.getDataCenterId());
+                assertTrue(workerIds.add(lease.getWorkerId()), "workerId " + lease.getWorkerId() + " acquired twice");
+            }
+            assertThrows(IllegalStateException.class, () -> WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW));
+            //另一个 dataCenter 不受影响
+            try (WorkerIdLease other = WorkerIdLease.acquire(dir, DATA_CENTER_ID + 1, RENEW)) {
+                assertEquals(DATA_CENTER_ID + 1, other.getDataCenterId());
+            }
+
+            WorkerIdLease released = leases.remove(leases.size() - 1);
+            released.close();
+            try (WorkerIdLease again = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW)) {
+                assertEquals(released.getWorkerId(), again.getWorkerId());
+            }
+        } finally {
+            for (WorkerIdLease lease : leases) {
+                lease.close();
+            }
+        }
+    }
+
+    /**
+     * 上一个持有者没有正常关闭（例如崩溃），文件里留着未来的 reservedUntil：
+     * 新持有者创建生成器时等到时钟越过它，生成的 ID 时间戳都在它之后
+     */
+    @Test
+    void reacquireWaitsPastPreviousReservedUntil() throws IOException {
+        long reservedUntil = System.currentTimeMillis() + 300;
+        writeAllLeaseFiles(reservedUntil);
+        try (WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW)) {
+            assertEquals(reservedUntil, lease.getPreviousReservedUntil());
+            SnowFlake snowFlake = lease.newSnowFlake();
+            assertTrue(System.currentTimeMillis() > reservedUntil);
+            long id = snowFlake.nextId();
+            assertTrue((id >>> SnowFlake.timestampLeftShift) + SnowFlake.twEpoch > reservedUntil);
+            assertEquals(lease.getWorkerId(), (id >>> SnowFlake.workerIdShift) & SnowFlake.maxWorkerId);
+        }
+    }
+
+    /**
+     * 没有创建过生成器就关闭时恢复上一个持有者的上界；创建过生成器时写入最后一个 ID 的时间戳
+     */
+    @Test
+    void closeRecordsBoundForNextHolder() throws IOException {
+        long reservedUntil = System.currentTimeMillis() + 50;
+        writeAllLeaseFiles(reservedUntil);
+        int workerId;
+        try (WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW)) {
+            workerId = lease.getWorkerId();
+        }
+        long lastTimestamp;
+        try (WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW)) {
+            assertEquals(workerId, lease.getWorkerId());
+            assertEquals(reservedUntil, lease.getPreviousReservedUntil());
+            long id = lease.newSnowFlake().nextId();
+            lastTimestamp = (id >>> SnowFlake.timestampLeftShift) + SnowFlake.twEpoch;
+        }
+        try (WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW)) {
+            assertEquals(workerId, lease.getWorkerId());
+            assertEquals(lastTimestamp, lease.getPreviousReservedUntil());
+        }
+    }
+
+    @Test
+    void snowFlakeFailsAfterClose() throws IOException {
+        WorkerIdLease lease = WorkerIdLease.acquire(dir, DATA_CENTER_ID, RENEW);
+        SnowFlake snowFlake = lease.newSnowFlake();
+        snowFlake.nextId();
+        lease.close();
+        assertThrows(IllegalStateException.class, snowFlake::nextId);
+        lease.close();//重复关闭无影响
+    }
+
+    private void writeAllLeaseFiles(long reservedUntil) throws IOException {
+        for (int workerId = 0; workerId <= SnowFlake.maxWorkerId; workerId++) {
+            Path file = dir.resolve(String.format("dc-%d-worker-%d.lease", DATA_CENTER_ID, workerId));
+            Files.write(file, ByteBuffer.allocate(Long.BYTES).putLong(reservedUntil).array());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.lyle.algorithm.sort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 用很小的内存预算和 fanIn，使排序产生许多 run 并经过多轮归并
+ */
+class ExternalSortTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sortsLongFileThroughSeveralMergePasses() throws IOException {
+        long[] values = new Random(42).longs(100_000).toArray();
+        Path input = writeLongs(values);
+        Path output = dir.resolve("output.bin");
+        ExternalSort sorter = ExternalSort.builder()
+                .memoryBudgetBytes(64 << 10)//每个 run 4096 个 long，共 25 个 run
+                .readAheadBytes(4 << 10)
+                .fanIn(3)
+                .tempDir(dir)
+                .build();
+        sorter.sort(input, output);
+
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readLongs(output));
+        try (LongStream sorted = sorter.sortedStream(input)) {
+            assertArrayEquals(expected, sorted.toArray());
+        }
+        try (var files = Files.list(dir)) {//临时目录已删除
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void sortsIntFile() throws IOException {
+        int[] values = new Random(7).ints(50_000).toArray();
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        Path input = dir.resolve("input.bin");
+        Files.write(input, buffer.array());
+        ExternalSort sorter = ExternalSort.builder()
+                .format(ExternalSort.Format.INT)
+                .memoryBudgetBytes(16 << 10)
+                .readAheadBytes(1 << 10)
+                .fanIn(4)
+                .tempDir(dir)
+                .build();
+
+        long[] expected = Arrays.stream(values).asLongStream().sorted().toArray();
+        try (LongStream sorted = sorter.sortedStream(input)) {
+            assertArrayEquals(expected, sorted.toArray());
+        }
+        Path output = dir.resolve("output.bin");
+        sorter.sort(input, output);
+        int[] actual = new int[values.length];
+        ByteBuffer.wrap(Files.readAllBytes(output)).asIntBuffer().get(actual);
+        assertArrayEquals(Arrays.stream(values).sorted().toArray(), actual);
+    }
+
+    /**
+     * 默认 1MB 的 readAheadBytes 超过 memoryBudget / fanIn，归并时按后者映射
+     */
+    @Test
+    void clampsReadAheadToMemoryBudget() throws IOException {
+        long[] values = new Random(3).longs(20_000).toArray();
+        Path input = writeLongs(values);
+        ExternalSort sorter = ExternalSort.builder()
+                .memoryBudgetBytes(16 << 10)
+                .fanIn(5)
+                .tempDir(dir)
+                .build();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        try (LongStream sorted = sorter.sortedStream(input)) {
+            assertArrayEquals(expected, sorted.toArray());
+        }
+    }
+
+    @Test
+    void sortsEmptyFile() throws IOException {
+        Path input = writeLongs(new long[0]);
+        Path output = dir.resolve("output.bin");
+        ExternalSort sorter = ExternalSort.builder().tempDir(dir).build();
+        sorter.sort(input, output);
+        assertEquals(0, Files.size(output));
+        try (LongStream sorted = sorter.sortedStream(input)) {
+            assertEquals(0, sorted.count());
+        }
+    }
+
+    @Test
+    void builderRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.builder().fanIn(1).build());
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.builder().memoryBudgetBytes(8).build());
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.builder().readAheadBytes(4).build());
+    }
+
+    private Path writeLongs(long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        Path input = dir.resolve("input.bin");
+        Files.write(input, buffer.array());
+        return input;
+    }
+
+    private static long[] readLongs(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        long[] values = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+        return values;
+    }
+}
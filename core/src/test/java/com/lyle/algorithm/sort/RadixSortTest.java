@@ -0,0 +1,80 @@
+package com.lyle.algorithm.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RadixSortTest {
+
+    private static final int[] DIGIT_BITS = {8, 11, 16};
+
+    @Test
+    void lsdSortMatchesArraysSort() {
+        for (int digitBits : DIGIT_BITS) {
+            RadixSort radixSort = new RadixSort(digitBits);//同一个实例反复使用，辅助数组会复用
+            SortEngineTest.check(radixSort::sort, radixSort::sort);
+            checkLongs(radixSort::sort);
+        }
+    }
+
+    @Test
+    void americanFlagSortMatchesArraysSort() {
+        SortEngineTest.check(RadixSort::americanFlagSort, RadixSort::americanFlagSort);
+        checkLongs(RadixSort::americanFlagSort);
+    }
+
+    /**
+     * sortIndices 是稳定的：键相同的下标保持原来的先后顺序
+     */
+    @Test
+    void sortIndicesIsStable() {
+        Random random = new Random(42);
+        long[] keys = random.longs(50_000, -100, 100).toArray();
+        Integer[] expected = IntStream.range(0, keys.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, Comparator.comparingLong(i -> keys[i]));//对象数组的排序是稳定的
+        for (int digitBits : DIGIT_BITS) {
+            int[] actual = new RadixSort(digitBits).sortedIndices(keys.length, i -> keys[i]);
+            assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), actual, "digitBits " + digitBits);
+        }
+    }
+
+    @Test
+    void americanFlagSortOfIndicesOrdersByKey() {
+        Random random = new Random(7);
+        long[] keys = random.longs(50_000).toArray();
+        int[] indices = IntStream.range(0, keys.length).toArray();
+        RadixSort.americanFlagSort(indices, i -> keys[i]);
+        long[] sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        assertArrayEquals(sortedKeys, Arrays.stream(indices).mapToLong(i -> keys[i]).toArray());
+        assertArrayEquals(IntStream.range(0, keys.length).toArray(), Arrays.stream(indices).sorted().toArray());
+    }
+
+    @Test
+    void rejectsUnsupportedDigitBits() {
+        assertThrows(IllegalArgumentException.class, () -> new RadixSort(10));
+    }
+
+    /**
+     * 覆盖全部 64 位（SortEngineTest 的 long 输入只用到中间几十位），包括正负边界
+     */
+    private static void checkLongs(Consumer<long[]> sorter) {
+        Random random = new Random(42);
+        long[] arr = random.longs(100_000).toArray();
+        arr[0] = Long.MIN_VALUE;
+        arr[1] = Long.MAX_VALUE;
+        arr[2] = 0;
+        arr[3] = -1;
+        long[] expected = arr.clone();
+        Arrays.sort(expected);
+        sorter.accept(arr);
+        assertArrayEquals(expected, arr);
+    }
+}
@@ -0,0 +1,80 @@
+package com.lyle.algorithm.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 小数组排序内核：排序网络与插入排序，只排 [from, to)，区间外不动
+ */
+class SmallSortTest {
+
+    @Test
+    void sortingNetworkSortsEverySize() {
+        Random random = new Random(42);
+        for (int n = 0; n <= SortingNetwork.MAX_SIZE; n++) {
+            for (int trial = 0; trial < 200; trial++) {
+                int[] arr = random.ints(n + 4, -8, 8).toArray();//取值范围小，重复值多
+                int[] expected = arr.clone();
+                Arrays.sort(expected, 2, 2 + n);
+                SortingNetwork.sort(arr, 2, 2 + n);
+                assertArrayEquals(expected, arr, "int, n = " + n);
+
+                long[] longs = random.longs(n + 4).toArray();
+                long[] expectedLongs = longs.clone();
+                Arrays.sort(expectedLongs, 2, 2 + n);
+                SortingNetwork.sort(longs, 2, 2 + n);
+                assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+            }
+        }
+    }
+
+    /**
+     * 0-1 原理：排序网络对全部 2^n 个 0/1 输入都正确，则对任意输入都正确
+     */
+    @Test
+    void sortingNetworkSortsAllZeroOneInputs() {
+        for (int n = 0; n <= 16; n++) {
+            int[] arr = new int[n];
+            for (int bits = 0; bits < 1 << n; bits++) {
+                for (int i = 0; i < n; i++) {
+                    arr[i] = bits >>> i & 1;
+                }
+                SortingNetwork.sort(arr, 0, n);
+                int ones = Integer.bitCount(bits);
+                for (int i = 0; i < n; i++) {
+                    if (arr[i] != (i >= n - ones ? 1 : 0)) {
+                        throw new AssertionError("n = " + n + ", input " + Integer.toBinaryString(bits));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void sortingNetworkRejectsOversizedRange() {
+        assertThrows(IllegalArgumentException.class, () -> SortingNetwork.sort(new int[64], 0, SortingNetwork.MAX_SIZE + 1));
+    }
+
+    @Test
+    void insertSortSortsRange() {
+        Random random = new Random(42);
+        for (int n = 0; n <= 100; n++) {
+            int[] arr = random.ints(n + 4).toArray();
+            int[] expected = arr.clone();
+            Arrays.sort(expected, 2, 2 + n);
+            InsertSort.insertSort(arr, 2, 2 + n);
+            assertArrayEquals(expected, arr, "int, n = " + n);
+
+            long[] longs = random.longs(n + 4).toArray();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs, 2, 2 + n);
+            InsertSort.insertSort(longs, 2, 2 + n);
+            assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.lyle.algorithm.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * SortEngine 的三种排序在各种分布、长度（含小于/跨过各个阈值的长度）下与 Arrays.sort 的结果一致
+ */
+class SortEngineTest {
+
+    private static final int[] SIZES = {0, 1, 2, 31, 32, 33, 100, 1_000, 5_000, 100_000};
+
+    /**
+     * 阈值调小，较小的数组也会走到并行和分桶的路径
+     */
+    private static final SortEngine[] ENGINES = {
+            SortEngine.DEFAULT,
+            SortEngine.builder().sequentialCutoff(64).insertionCutoff(8).build(),
+            SortEngine.builder().sequentialCutoff(256).smallSort(SortEngine.SmallSort.NETWORK).build(),
+            SortEngine.builder().pool(new ForkJoinPool(3)).sequentialCutoff(32).insertionCutoff(32).build(),
+            SortEngine.builder().sequentialCutoff(128).smallSort(SortEngine.SmallSort.VECTOR).build(),//core 中没有 SIMD 内核，退回排序网络
+    };
+
+    @Test
+    void parallelMergeSort() {
+        for (SortEngine engine : ENGINES) {
+            check(engine::parallelMergeSort, engine::parallelMergeSort);
+        }
+    }
+
+    /**
+     * 只排 [from, to)，区间外不动；多次排序复用同一个 scratch
+     */
+    @Test
+    void parallelMergeSortRangeReusesScratch() {
+        for (SortEngine engine : ENGINES) {
+            int[] scratch = new int[100_000];
+            long[] longScratch = new long[100_000];
+            for (int[] input : inputs()) {
+                int n = input.length;
+                int from = n / 4;
+                int to = n - n / 4;
+                int[] expected = input.clone();
+                Arrays.sort(expected, from, to);
+                int[] actual = input.clone();
+                engine.parallelMergeSort(actual, from, to, scratch);
+                assertArrayEquals(expected, actual, "int, n = " + n);
+
+                long[] longs = Arrays.stream(input).asLongStream().toArray();
+                long[] expectedLongs = longs.clone();
+                Arrays.sort(expectedLongs, from, to);
+                engine.parallelMergeSort(longs, from, to, longScratch);
+                assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> SortEngine.DEFAULT.parallelMergeSort(new int[10], 0, 10, new int[9]));
+        assertThrows(IndexOutOfBoundsException.class, () -> SortEngine.DEFAULT.parallelMergeSort(new long[10], 5, 11, new long[11]));
+    }
+
+    @Test
+    void sampleSort() {
+        for (SortEngine engine : ENGINES) {
+            check(engine::sampleSort, engine::sampleSort);
+        }
+    }
+
+    @Test
+    void adaptiveSort() {
+        for (SortEngine engine : ENGINES) {
+            check(engine::adaptiveSort, engine::adaptiveSort);
+        }
+    }
+
+    /**
+     * 递归深度用完时剩下的区间退化为堆排序，结果仍然正确；只排 [from, to)，区间外不动
+     */
+    @Test
+    void introSortFallsBackToHeapSortWhenDepthIsExhausted() {
+        for (int[] input : inputs()) {
+            int n = input.length;
+            int from = n / 4;
+            int to = n - n / 4;
+            int[] expected = input.clone();
+            Arrays.sort(expected, from, to);
+            int[] actual = input.clone();
+            AdaptiveSort.introSort(actual, from, to, 0, SortEngine.DEFAULT);
+            assertArrayEquals(expected, actual, "int, n = " + n);
+
+            long[] longs = Arrays.stream(input).asLongStream().toArray();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs, from, to);
+            AdaptiveSort.introSort(longs, from, to, 0, SortEngine.DEFAULT);
+            assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+        }
+    }
+
+    @Test
+    void builderRejectsInvalidCutoffs() {
+        assertThrows(IllegalArgumentException.class, () -> SortEngine.builder().insertionCutoff(0).build());
+        assertThrows(IllegalArgumentException.class, () -> SortEngine.builder().insertionCutoff(64).sequentialCutoff(32).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SortEngine.builder().smallSort(SortEngine.SmallSort.NETWORK).insertionCutoff(SortingNetwork.MAX_SIZE + 1).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SortEngine.builder().smallSort(SortEngine.SmallSort.VECTOR).insertionCutoff(SortingNetwork.MAX_SIZE + 1).build());
+    }
+
+    static List<int[]> inputs() {
+        List<int[]> inputs = new ArrayList<>();
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            int[] randomArr = random.ints(n).toArray();
+            int[] sorted = randomArr.clone();
+            Arrays.sort(sorted);
+            int[] reversed = new int[n];
+            for (int i = 0; i < n; i++) {
+                reversed[i] = sorted[n - 1 - i];
+            }
+            int[] nearlySorted = sorted.clone();
+            for (int k = 0; k < 10 && n > 1; k++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                int temp = nearlySorted[a];
+                nearlySorted[a] = nearlySorted[b];
+                nearlySorted[b] = temp;
+            }
+            int[] sawtooth = new int[n];
+            for (int i = 0; i < n; i++) {
+                sawtooth[i] = i % Math.max(1, n / 16);
+            }
+            inputs.add(randomArr);
+            inputs.add(sorted);
+            inputs.add(reversed);
+            inputs.add(nearlySorted);
+            inputs.add(random.ints(n, 0, 16).toArray());
+            inputs.add(sawtooth);
+            inputs.add(new int[n]);
+            inputs.add(random.ints(n, Integer.MAX_VALUE - 4, Integer.MAX_VALUE).map(v -> random.nextBoolean() ? v : -v - 1).toArray());
+        }
+        return inputs;
+    }
+
+    static void check(Consumer<int[]> intSorter, Consumer<long[]> longSorter) {
+        for (int[] input : inputs()) {
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            int[] actual = input.clone();
+            intSorter.accept(actual);
+            assertArrayEquals(expected, actual, "int, n = " + input.length);
+
+            long[] longs = new long[input.length];
+            for (int i = 0; i < input.length; i++) {
+                longs[i] = ((long) input[i] << 20) ^ i;//高位决定顺序，低位让每个值不同
+            }
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs);
+            longSorter.accept(longs);
+            assertArrayEquals(expectedLongs, longs, "long, n = " + input.length);
+        }
+    }
+}
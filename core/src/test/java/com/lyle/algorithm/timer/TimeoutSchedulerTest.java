@@ -0,0 +1,163 @@
+package com.lyle.algorithm.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 时间轮与堆定时器在同样的负载下行为一致：按到期时间执行、取消、恰好在到期时执行（时间轮跨层降级）
+ */
+class TimeoutSchedulerTest {
+
+    private static final long START = 1_000_000;
+
+    /**
+     * 起始时间为 START、tick 为 1ms 的定时器，errorHandler 由参数指定
+     */
+    private static final List<Function<BiConsumer<Runnable, Throwable>, TimeoutScheduler>> SCHEDULERS = List.of(
+            errorHandler -> new TimingWheel(1, 2, START, null, errorHandler),//每层只有 4 个槽，较小的延迟也会跨好几层
+            errorHandler -> new TimingWheel(1, 6, START, null, errorHandler),
+            errorHandler -> new HeapTimeoutScheduler(10_000, START, null, errorHandler)
+    );
+
+    @Test
+    void firesInDeadlineOrder() {
+        for (Function<BiConsumer<Runnable, Throwable>, TimeoutScheduler> factory : SCHEDULERS) {
+            TimeoutScheduler scheduler = factory.apply(TaskDispatcher.DEFAULT_ERROR_HANDLER);
+            List<Long> delays = new ArrayList<>();
+            for (long delay = 1; delay <= 5_000; delay++) {
+                delays.add(delay);
+            }
+            Collections.shuffle(delays, new Random(42));
+            List<Long> fired = new ArrayList<>();
+            for (long delay : delays) {
+                scheduler.schedule(() -> fired.add(delay), delay);
+            }
+            assertEquals(delays.size(), scheduler.pending());
+            assertEquals(delays.size(), scheduler.advanceTo(START + 10_000));//一次推进跨过全部到期时间
+            assertEquals(0, scheduler.pending());
+            for (int i = 0; i < fired.size(); i++) {
+                assertEquals(i + 1, fired.get(i), scheduler.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * 每次推进 1ms，每个任务恰好在到期的那一次推进中执行，不早也不晚
+     */
+    @Test
+    void firesExactlyAtDeadline() {
+        for (Function<BiConsumer<Runnable, Throwable>, TimeoutScheduler> factory : SCHEDULERS) {
+            TimeoutScheduler scheduler = factory.apply(TaskDispatcher.DEFAULT_ERROR_HANDLER);
+            Random random = new Random(42);
+            int n = 2_000;
+            long[] delays = new long[n];
+            long[] firedAt = new long[n];
+            long[] now = {START};
+            for (int i = 0; i < n; i++) {
+                int id = i;
+                delays[i] = i < 100 ? i + 1 : 1 + random.nextInt(70_000);
+                scheduler.schedule(() -> firedAt[id] = now[0], delays[i]);
+            }
+            int fired = 0;
+            while (now[0] < START + 70_000) {
+                now[0]++;
+                fired += scheduler.advanceTo(now[0]);
+            }
+            assertEquals(n, fired);
+            for (int i = 0; i < n; i++) {
+                assertEquals(START + delays[i], firedAt[i], scheduler.getClass().getSimpleName() + ", delay " + delays[i]);
+            }
+        }
+    }
+
+    @Test
+    void cancelledTasksDoNotFire() {
+        for (Function<BiConsumer<Runnable, Throwable>, TimeoutScheduler> factory : SCHEDULERS) {
+            TimeoutScheduler scheduler = factory.apply(TaskDispatcher.DEFAULT_ERROR_HANDLER);
+            int n = 1_000;
+            boolean[] fired = new boolean[n];
+            Timeout[] timeouts = new Timeout[n];
+            for (int i = 0; i < n; i++) {
+                int id = i;
+                timeouts[i] = scheduler.schedule(() -> fired[id] = true, 1 + i * 7L);
+            }
+            for (int i = 0; i < n; i += 2) {
+                assertTrue(timeouts[i].cancel());
+                assertFalse(timeouts[i].cancel());
+            }
+            assertEquals(n / 2, scheduler.pending());
+            assertEquals(n / 2, scheduler.advanceTo(START + n * 7L));
+            for (int i = 0; i < n; i++) {
+                assertEquals(i % 2 == 1, fired[i], "task " + i);
+                assertFalse(timeouts[i].cancel());//已到期或已取消
+            }
+            assertEquals(0, scheduler.pending());
+        }
+    }
+
+    /**
+     * 一个任务抛出异常不影响同一批的其他任务，异常交给 errorHandler
+     */
+    @Test
+    void taskFailureIsIsolated() {
+        for (Function<BiConsumer<Runnable, Throwable>, TimeoutScheduler> factory : SCHEDULERS) {
+            List<Throwable> errors = new ArrayList<>();
+            List<Runnable> failedTasks = new ArrayList<>();
+            TimeoutScheduler scheduler = factory.apply((task, e) -> {
+                failedTasks.add(task);
+                errors.add(e);
+            });
+            RuntimeException failure = new RuntimeException("boom");
+            Runnable failing = () -> {
+                throw failure;
+            };
+            int[] ran = new int[1];
+            scheduler.schedule(() -> ran[0]++, 5);
+            scheduler.schedule(failing, 5);
+            scheduler.schedule(() -> ran[0]++, 5);
+            assertEquals(3, scheduler.advanceTo(START + 5));
+            assertEquals(2, ran[0]);
+            assertEquals(List.of(failing), failedTasks);
+            assertSame(failure, errors.get(0));
+        }
+    }
+
+    @Test
+    void timingWheelRoundsDelayUpToTick() {
+        TimingWheel wheel = new TimingWheel(10, 4, 0, null);
+        int[] fired = new int[1];
+        Timeout timeout = wheel.schedule(() -> fired[0]++, 15);
+        assertEquals(20, timeout.deadline());
+        assertEquals(0, wheel.advanceTo(19));
+        assertEquals(1, wheel.advanceTo(20));
+        assertEquals(1, fired[0]);
+        assertEquals(30, wheel.schedule(() -> fired[0]++, 0).deadline());//至少在下一个 tick 到期
+    }
+
+    /**
+     * 接近 Long.MAX_VALUE 的延迟饱和，而不是溢出成下一个 tick 就到期
+     */
+    @Test
+    void hugeDelayDoesNotOverflow() {
+        long start = System.currentTimeMillis();
+        List<TimeoutScheduler> schedulers = List.of(new TimingWheel(10, 6, start, null), new HeapTimeoutScheduler(4, start, null));
+        for (TimeoutScheduler scheduler : schedulers) {
+            Timeout timeout = scheduler.schedule(() -> {
+            }, Long.MAX_VALUE - 1);
+            assertTrue(timeout.deadline() > start, scheduler.getClass().getSimpleName());
+            assertEquals(0, scheduler.advanceTo(start + 86_400_000L));
+            assertEquals(1, scheduler.pending());
+        }
+    }
+}
@@ -1,9 +0,0 @@
-package com.lyle.algorithm.sort;
-
-public class InsertSort {
-
-
-    public static void main(String[] args) {
-
-    }
-}
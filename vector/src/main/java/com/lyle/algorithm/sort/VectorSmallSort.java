@@ -0,0 +1,177 @@
+package com.lyle.algorithm.sort;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 基于 Vector API 的小数组双调排序，由 {@link VectorKernel} 反射加载，作为 {@link SortEngine.SmallSort#VECTOR} 的实现
+ * <p>
+ * 把 [from, to) 拷到长度为 2 的幂 m 的缓冲区，末尾补最大值，再做双调排序：
+ * <pre>
+ *     for k = 2, 4, ..., m            长度为 k 的段排成交替的升序/降序，合起来就是长度 2k 的双调序列
+ *       for j = k/2, k/4, ..., 1      下标 i 与 i^j 比较交换，(i &amp; k) == 0 的段升序，否则降序
+ * </pre>
+ * 比较的顺序与数据无关，每一步都是整向量的 min/max：
+ * 1. j 不小于向量长度 L 时，i 与 i+j 在两个向量中，两个向量直接 min/max
+ * 2. j 小于 L 时，i 与 i^j 在同一个向量中，先 rearrange 把对方换到同一 lane，min/max 后按 mask 选出结果
+ * 比较交换次数是 O(m log^2 m)，比 {@link SortingNetwork} 多，但每条指令同时处理 L 个元素
+ * <p>
+ * 缓冲区每个线程一个，排序时不分配数组
+ */
+final class VectorSmallSort implements SmallSortKernel {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private static final Lanes<Integer> INT_LANES = new Lanes<>(INTS);
+    private static final Lanes<Long> LONG_LANES = new Lanes<>(LONGS);
+
+    private final ThreadLocal<int[]> intBuffers = ThreadLocal.withInitial(() -> new int[Math.max(SortingNetwork.MAX_SIZE, INTS.length())]);
+    private final ThreadLocal<long[]> longBuffers = ThreadLocal.withInitial(() -> new long[Math.max(SortingNetwork.MAX_SIZE, LONGS.length())]);
+
+    VectorSmallSort() {
+    }
+
+    @Override
+    public void sort(int[] arr, int from, int to) {
+        int n = checkSize(from, to);
+        if (n <= 1) {
+            return;
+        }
+        int lanes = INTS.length();
+        int m = Math.max(lanes, Integer.highestOneBit(n - 1) << 1);
+        int[] buf = intBuffers.get();
+        System.arraycopy(arr, from, buf, 0, n);
+        Arrays.fill(buf, n, m, Integer.MAX_VALUE);//补的最大值排在最后，不会被拷回
+        for (int k = 2, kLog = 1; k <= m; k <<= 1, kLog++) {
+            for (int j = k >> 1, jLog = kLog - 1; j > 0; j >>= 1, jLog--) {
+                if (j >= lanes) {
+                    for (int i = 0; i < m; i += lanes) {
+                        if ((i & j) != 0) {
+                            continue;
+                        }
+                        IntVector a = IntVector.fromArray(INTS, buf, i);
+                        IntVector b = IntVector.fromArray(INTS, buf, i + j);
+                        int lo = (i & k) == 0 ? i : i + j;//降序段 min 放在后面
+                        int hi = lo == i ? i + j : i;
+                        a.min(b).intoArray(buf, lo);
+                        a.max(b).intoArray(buf, hi);
+                    }
+                } else {
+                    VectorShuffle<Integer> partner = INT_LANES.partners[jLog];
+                    for (int i = 0; i < m; i += lanes) {
+                        IntVector v = IntVector.fromArray(INTS, buf, i);
+                        IntVector p = v.rearrange(partner);
+                        v.min(p).blend(v.max(p), INT_LANES.takeMax(jLog, kLog, i)).intoArray(buf, i);
+                    }
+                }
+            }
+        }
+        System.arraycopy(buf, 0, arr, from, n);
+    }
+
+    @Override
+    public void sort(long[] arr, int from, int to) {
+        int n = checkSize(from, to);
+        if (n <= 1) {
+            return;
+        }
+        int lanes = LONGS.length();
+        int m = Math.max(lanes, Integer.highestOneBit(n - 1) << 1);
+        long[] buf = longBuffers.get();
+        System.arraycopy(arr, from, buf, 0, n);
+        Arrays.fill(buf, n, m, Long.MAX_VALUE);
+        for (int k = 2, kLog = 1; k <= m; k <<= 1, kLog++) {
+            for (int j = k >> 1, jLog = kLog - 1; j > 0; j >>= 1, jLog--) {
+                if (j >= lanes) {
+                    for (int i = 0; i < m; i += lanes) {
+                        if ((i & j) != 0) {
+                            continue;
+                        }
+                        LongVector a = LongVector.fromArray(LONGS, buf, i);
+                        LongVector b = LongVector.fromArray(LONGS, buf, i + j);
+                        int lo = (i & k) == 0 ? i : i + j;//降序段 min 放在后面
+                        int hi = lo == i ? i + j : i;
+                        a.min(b).intoArray(buf, lo);
+                        a.max(b).intoArray(buf, hi);
+                    }
+                } else {
+                    VectorShuffle<Long> partner = LONG_LANES.partners[jLog];
+                    for (int i = 0; i < m; i += lanes) {
+                        LongVector v = LongVector.fromArray(LONGS, buf, i);
+                        LongVector p = v.rearrange(partner);
+                        v.min(p).blend(v.max(p), LONG_LANES.takeMax(jLog, kLog, i)).intoArray(buf, i);
+                    }
+                }
+            }
+        }
+        System.arraycopy(buf, 0, arr, from, n);
+    }
+
+    private static int checkSize(int from, int to) {
+        int n = to - from;
+        if (n < 0 || n > SortingNetwork.MAX_SIZE) {
+            throw new IllegalArgumentException(String.format("size can't be greater than %d or less than 0", SortingNetwork.MAX_SIZE));
+        }
+        return n;
+    }
+
+    /**
+     * 向量内部（j &lt; L）比较交换用到的 shuffle 与 mask，按 log2(j)、log2(k) 预先算好
+     */
+    private static final class Lanes<E> {
+        final VectorShuffle<E>[] partners;//partners[log2 j]：lane x 取 lane x^j
+        private final VectorMask<E>[][] takeMax;//takeMax[log2 j][log2 k]，k < L
+        private final VectorMask<E>[] upper;//upper[log2 j]：(x & j) != 0 的 lane
+        private final VectorMask<E>[] lower;
+        private final int lanesLog;
+
+        @SuppressWarnings("unchecked")
+        Lanes(VectorSpecies<E> species) {
+            int lanes = species.length();
+            lanesLog = Integer.numberOfTrailingZeros(lanes);
+            partners = new VectorShuffle[lanesLog];
+            upper = new VectorMask[lanesLog];
+            lower = new VectorMask[lanesLog];
+            takeMax = new VectorMask[lanesLog][lanesLog];
+            for (int jLog = 0; jLog < lanesLog; jLog++) {
+                int j = 1 << jLog;
+                partners[jLog] = VectorShuffle.fromOp(species, x -> x ^ j);
+                upper[jLog] = VectorMask.fromLong(species, bits(lanes, x -> (x & j) != 0));
+                lower[jLog] = upper[jLog].not();
+                for (int kLog = jLog + 1; kLog < lanesLog; kLog++) {
+                    int k = 1 << kLog;
+                    //较大的下标 (x & j) != 0 在升序段取 max，降序段 (x & k) != 0 反过来
+                    takeMax[jLog][kLog] = VectorMask.fromLong(species, bits(lanes, x -> ((x & j) != 0) != ((x & k) != 0)));
+                }
+            }
+        }
+
+        /**
+         * @param i 向量第一个元素在缓冲区中的下标，L 的倍数
+         * @return 取 max 的 lane
+         */
+        VectorMask<E> takeMax(int jLog, int kLog, int i) {
+            if (kLog < lanesLog) {
+                return takeMax[jLog][kLog];
+            }
+            return (i >>> kLog & 1) == 0 ? upper[jLog] : lower[jLog];//k >= L 时整个向量同在一个升序或降序段
+        }
+
+        private static long bits(int lanes, IntPredicate lane) {
+            long bits = 0;
+            for (int x = 0; x < lanes; x++) {
+                if (lane.test(x)) {
+                    bits |= 1L << x;
+                }
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.lyle.algorithm.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SIMD 双调排序：surefire 带 --add-modules jdk.incubator.vector 运行，SortEngine 应当加载到这个内核
+ */
+class VectorSmallSortTest {
+
+    private final VectorSmallSort kernel = new VectorSmallSort();
+
+    @Test
+    void sortEngineLoadsVectorKernel() {
+        assertTrue(SortEngine.isVectorAvailable());
+    }
+
+    @Test
+    void sortsEverySize() {
+        Random random = new Random(42);
+        for (int n = 0; n <= SortingNetwork.MAX_SIZE; n++) {
+            for (int trial = 0; trial < 200; trial++) {
+                int[] arr = random.ints(n + 4, -8, 8).toArray();//取值范围小，重复值多
+                arr[random.nextInt(n + 4)] = Integer.MAX_VALUE;//与补齐用的最大值相同
+                int[] expected = arr.clone();
+                Arrays.sort(expected, 2, 2 + n);
+                kernel.sort(arr, 2, 2 + n);
+                assertArrayEquals(expected, arr, "int, n = " + n);
+
+                long[] longs = random.longs(n + 4).toArray();
+                longs[random.nextInt(n + 4)] = Long.MAX_VALUE;
+                long[] expectedLongs = longs.clone();
+                Arrays.sort(expectedLongs, 2, 2 + n);
+                kernel.sort(longs, 2, 2 + n);
+                assertArrayEquals(expectedLongs, longs, "long, n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void rejectsOversizedRange() {
+        assertThrows(IllegalArgumentException.class, () -> kernel.sort(new int[64], 0, SortingNetwork.MAX_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> kernel.sort(new long[64], 0, SortingNetwork.MAX_SIZE + 1));
+    }
+
+    @Test
+    void sortEngineWithVectorKernel() {
+        SortEngine engine = SortEngine.builder().sequentialCutoff(256).smallSort(SortEngine.SmallSort.VECTOR).build();
+        Random random = new Random(42);
+        for (int n : new int[]{0, 1, 31, 32, 33, 1_000, 100_000}) {
+            int[] arr = random.ints(n).toArray();
+            int[] expected = arr.clone();
+            Arrays.sort(expected);
+            engine.adaptiveSort(arr);
+            assertArrayEquals(expected, arr, "n = " + n);
+
+            long[] longs = random.longs(n).toArray();
+            long[] expectedLongs = longs.clone();
+            Arrays.sort(expectedLongs);
+            engine.parallelMergeSort(longs);
+            assertArrayEquals(expectedLongs, longs, "n = " + n);
+        }
+    }
+}